@@ -38,6 +38,19 @@ val flywayMigration by configurations.creating {
   isCanBeResolved = true
 }
 
+/**
+ * JMH micro-benchmarks live in src/jmh and run with `./gradlew :fizicamd-app:jmh`
+ * (optionally `-Pjmh.includes=<regex>`, and extra JMH options such as `-Pjmh.args="-prof gc"`).
+ * They are not part of the regular build.
+ */
+val jmh: SourceSet by sourceSets.creating {
+  compileClasspath += sourceSets.main.get().output
+  runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
   implementation(project(":shared-kernel"))
   implementation(project(":identity"))
@@ -52,6 +65,7 @@ dependencies {
   implementation("org.springframework.boot:spring-boot-starter-websocket")
 
   implementation("org.springframework.boot:spring-boot-starter-actuator")
+  implementation("com.github.ben-manes.caffeine:caffeine")
   runtimeOnly("org.postgresql:postgresql:42.7.4")
 
   // Flyway runtime (Spring Boot)
@@ -75,6 +89,18 @@ dependencies {
 
   testImplementation("org.springframework.boot:spring-boot-starter-test")
   testImplementation("org.springframework.security:spring-security-test")
+
+  "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+  "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+}
+
+tasks.register<JavaExec>("jmh") {
+  group = "benchmark"
+  description = "Runs the JMH benchmarks from src/jmh."
+  classpath = jmh.runtimeClasspath
+  mainClass.set("org.openjdk.jmh.Main")
+  args(providers.gradleProperty("jmh.includes").getOrElse(".*"))
+  providers.gradleProperty("jmh.args").orNull?.let { extra -> args(extra.split(" ").filter { it.isNotBlank() }) }
 }
 
 tasks.test {
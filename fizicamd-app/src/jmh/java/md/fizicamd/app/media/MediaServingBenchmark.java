@@ -0,0 +1,114 @@
+package md.fizicamd.app.media;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.UrlResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent downloads of a stored file to a loopback socket, whose far end a drain thread
+ * discards: the old path (a {@link UrlResource} stream copied through heap buffers, as the
+ * message converters did) against {@code FileChannel.transferTo}, which the connector uses for
+ * sendfile responses. Run with {@code -Pjmh.args="-prof gc"} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class MediaServingBenchmark {
+
+  @Param({"262144", "8388608"})
+  int fileSize;
+
+  private Path file;
+  private ServerSocketChannel server;
+  private Thread acceptor;
+
+  @Setup
+  public void setUp() throws IOException {
+    file = Files.createTempFile("media-serving", ".pdf");
+    var bytes = new byte[fileSize];
+    new Random(1).nextBytes(bytes);
+    Files.write(file, bytes);
+
+    server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    acceptor = Thread.ofPlatform().daemon().name("bench-acceptor").start(() -> {
+      while (server.isOpen()) {
+        try {
+          var peer = server.accept();
+          Thread.ofPlatform().daemon().name("bench-drain").start(() -> drain(peer));
+        } catch (IOException ex) {
+          return;
+        }
+      }
+    });
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    server.close();
+    acceptor.interrupt();
+    Files.deleteIfExists(file);
+  }
+
+  @State(Scope.Thread)
+  public static class Connection {
+    SocketChannel socket;
+
+    @Setup
+    public void open(MediaServingBenchmark benchmark) throws IOException {
+      socket = SocketChannel.open(benchmark.server.getLocalAddress());
+    }
+
+    @TearDown
+    public void close() throws IOException {
+      socket.close();
+    }
+  }
+
+  @Benchmark
+  public long resourceStreamCopy(Connection connection) throws IOException {
+    try (var input = new UrlResource(file.toUri()).getInputStream()) {
+      return StreamUtils.copy(input, Channels.newOutputStream(connection.socket));
+    }
+  }
+
+  @Benchmark
+  public long transferTo(Connection connection) throws IOException {
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long position = 0;
+      var size = channel.size();
+      while (position < size) {
+        position += channel.transferTo(position, size - position, connection.socket);
+      }
+      return position;
+    }
+  }
+
+  private static void drain(SocketChannel peer) {
+    var buffer = ByteBuffer.allocateDirect(256 * 1024);
+    try (peer) {
+      while (peer.read(buffer.clear()) >= 0) {
+        // discard
+      }
+    } catch (IOException ignored) {
+      // connection closed by the benchmark thread
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package md.fizicamd.app.resources;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import md.fizicamd.app.config.CachingJsonFormatMapper;
+import org.hibernate.type.descriptor.java.ImmutableMutabilityPlan;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.descriptor.java.spi.UnknownBasicJavaType;
+import org.hibernate.type.format.jackson.JacksonJsonFormatMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old read path (jsonb mapped as String, parsed again by readBlocks/readTags on
+ * every card and detail) with the typed mapping served by {@link CachingJsonFormatMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceJsonBenchmark {
+  private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+  private static final TypeReference<List<ResourceContentBlock>> BLOCK_LIST = new TypeReference<>() {};
+
+  @Param({"4", "40"})
+  int blockCount;
+
+  private ObjectMapper objectMapper;
+  private CachingJsonFormatMapper cachingMapper;
+  private JavaType<List<ResourceContentBlock>> blocksType;
+  private JavaType<List<String>> tagsType;
+  private String contentJson;
+  private String tagsJson;
+
+  @Setup
+  public void setUp() throws Exception {
+    objectMapper = new ObjectMapper().findAndRegisterModules();
+    cachingMapper = new CachingJsonFormatMapper(new JacksonJsonFormatMapper(objectMapper), 32L * 1024 * 1024);
+    blocksType = new UnknownBasicJavaType<>(BLOCK_LIST.getType(), ImmutableMutabilityPlan.instance());
+    tagsType = new UnknownBasicJavaType<>(STRING_LIST.getType(), ImmutableMutabilityPlan.instance());
+
+    var blocks = new ArrayList<ResourceContentBlock>();
+    for (int i = 0; i < blockCount; i++) {
+      blocks.add(switch (i % 4) {
+        case 0 -> new ResourceContentBlock(ResourceBlockType.TEXT, "Problema " + i + ": un corp se mișcă uniform accelerat pe un plan înclinat.", null, null, null, "Enunț");
+        case 1 -> new ResourceContentBlock(ResourceBlockType.FORMULA, "v^2 = v_0^2 + 2 a d", null, null, null, null);
+        case 2 -> new ResourceContentBlock(ResourceBlockType.PDF, null, null, UUID.randomUUID(), "Barem", "Soluții");
+        default -> new ResourceContentBlock(ResourceBlockType.LINK, null, "https://fizica.md/olimpiada/" + i, null, null, "Link");
+      });
+    }
+    contentJson = objectMapper.writeValueAsString(blocks);
+    tagsJson = objectMapper.writeValueAsString(List.of("olimpiada", "mecanica", "clasa a 9-a"));
+  }
+
+  @Benchmark
+  public void stringRoundTrip(Blackhole bh) throws Exception {
+    // a fresh String per read, as the JDBC driver hands out for every row
+    bh.consume(objectMapper.readValue(new String(contentJson), BLOCK_LIST));
+    bh.consume(objectMapper.readValue(new String(tagsJson), STRING_LIST));
+  }
+
+  @Benchmark
+  public void cachedTypedMapping(Blackhole bh) {
+    bh.consume(cachingMapper.fromString(new String(contentJson), blocksType, null));
+    bh.consume(cachingMapper.fromString(new String(tagsJson), tagsType, null));
+  }
+}
@@ -0,0 +1,110 @@
+package md.fizicamd.app.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revision storage as {@link ResourceRevisions} writes it (a snapshot every {@code interval}
+ * revisions, block deltas in between) against a full copy per revision. The jsonb bytes of
+ * both layouts for {@code REVISIONS} typical edits (a few blocks changed, added or removed)
+ * are printed at setup; the benchmarks time diffing one edit and rebuilding the revision just
+ * before the next snapshot, the most expensive reconstruction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceRevisionBenchmark {
+  private static final int REVISIONS = 100;
+
+  @Param({"10", "60"})
+  int blockCount;
+
+  @Param({"10"})
+  int interval;
+
+  private List<List<ResourceContentBlock>> history;
+  private List<List<ResourceBlockEdit>> deltas;
+  private List<ResourceContentBlock> previous;
+  private List<ResourceContentBlock> next;
+
+  @Setup
+  public void setUp() throws Exception {
+    var random = new Random(7);
+    history = new ArrayList<>();
+    var current = new ArrayList<ResourceContentBlock>();
+    for (int i = 0; i < blockCount; i++) {
+      current.add(block(random, i));
+    }
+    history.add(List.copyOf(current));
+    for (int revision = 1; revision < REVISIONS; revision++) {
+      for (int edit = 1 + random.nextInt(3); edit > 0; edit--) {
+        var at = random.nextInt(current.size());
+        switch (current.size() > 1 ? random.nextInt(4) : 0) {
+          case 0 -> current.add(at, block(random, revision * 100 + edit));
+          case 1 -> current.remove(at);
+          default -> current.set(at, block(random, revision * 100 + edit));
+        }
+      }
+      history.add(List.copyOf(current));
+    }
+
+    var json = new ObjectMapper();
+    long fullBytes = 0;
+    long revisionBytes = 0;
+    deltas = new ArrayList<>();
+    deltas.add(null);
+    for (int revision = 0; revision < REVISIONS; revision++) {
+      fullBytes += json.writeValueAsBytes(history.get(revision)).length;
+      if (revision % interval == 0) {
+        revisionBytes += json.writeValueAsBytes(history.get(revision)).length;
+        if (revision > 0) {
+          deltas.add(null);
+        }
+      } else {
+        var delta = ResourceContentDelta.diff(history.get(revision - 1), history.get(revision));
+        deltas.add(delta);
+        revisionBytes += json.writeValueAsBytes(delta).length;
+      }
+    }
+    System.out.printf("%n%d revisions of %d blocks: full copies %d bytes, snapshots+deltas %d bytes (%.1f%%)%n",
+      REVISIONS, blockCount, fullBytes, revisionBytes, 100.0 * revisionBytes / fullBytes);
+
+    previous = history.get(REVISIONS / 2 - 1);
+    next = history.get(REVISIONS / 2);
+  }
+
+  @Benchmark
+  public List<ResourceBlockEdit> diffOneEdit() {
+    return ResourceContentDelta.diff(previous, next);
+  }
+
+  @Benchmark
+  public void rebuildWorstCaseRevision(Blackhole bh) {
+    var blocks = history.get(0);
+    for (int revision = 1; revision < interval; revision++) {
+      blocks = ResourceContentDelta.apply(blocks, deltas.get(revision));
+    }
+    bh.consume(blocks);
+  }
+
+  private static ResourceContentBlock block(Random random, int seed) {
+    return switch (random.nextInt(4)) {
+      case 0 -> new ResourceContentBlock(ResourceBlockType.TEXT,
+        "Problema " + seed + ": un corp de masă m alunecă pe un plan înclinat cu unghiul α; determinați accelerația și forța de frecare.",
+        null, null, null, "Enunț");
+      case 1 -> new ResourceContentBlock(ResourceBlockType.FORMULA, "a = g (sin α - μ cos α), seed " + seed, null, null, null, null);
+      case 2 -> new ResourceContentBlock(ResourceBlockType.PDF, null, null, UUID.randomUUID(), "Barem", "Soluții " + seed);
+      default -> new ResourceContentBlock(ResourceBlockType.LINK, null, "https://fizica.md/olimpiada/" + seed, null, null, "Link");
+    };
+  }
+}
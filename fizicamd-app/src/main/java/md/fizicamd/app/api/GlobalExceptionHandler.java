@@ -1,6 +1,8 @@
 package md.fizicamd.app.api;
 
 import md.fizicamd.app.api.auth.AuthException;
+import md.fizicamd.app.media.MediaTooLargeException;
+import md.fizicamd.app.media.MediaUploadOffsetException;
 import md.fizicamd.shared.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +29,20 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(new ApiError(ex.getMessage()));
   }
 
+  @ExceptionHandler(MediaTooLargeException.class)
+  public ResponseEntity<ApiError> tooLarge(MediaTooLargeException ex, HttpServletRequest request) {
+    log.info("Upload too large: {} {} -> {}", request.getMethod(), request.getRequestURI(), ex.getMessage());
+    return ResponseEntity.status(413).body(new ApiError(ex.getMessage()));
+  }
+
+  @ExceptionHandler(MediaUploadOffsetException.class)
+  public ResponseEntity<ApiError> uploadOffset(MediaUploadOffsetException ex, HttpServletRequest request) {
+    log.info("Upload offset conflict: {} {} -> {}", request.getMethod(), request.getRequestURI(), ex.getMessage());
+    return ResponseEntity.status(409)
+      .header("Upload-Offset", Long.toString(ex.getCommittedOffset()))
+      .body(new ApiError(ex.getMessage()));
+  }
+
   @ExceptionHandler(AuthException.class)
   public ResponseEntity<ApiError> authError(AuthException ex, HttpServletRequest request) {
     log.info("Auth failure: {} {} -> {}", request.getMethod(), request.getRequestURI(), ex.getMessage());
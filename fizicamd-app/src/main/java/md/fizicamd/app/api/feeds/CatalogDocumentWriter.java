@@ -0,0 +1,164 @@
+package md.fizicamd.app.api.feeds;
+
+import md.fizicamd.app.resources.PublishedResourceCursor;
+import md.fizicamd.app.resources.ResourceCategoryView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/** Writes sitemaps and Atom feeds with StAX while the published rows stream in. */
+@Component
+public class CatalogDocumentWriter {
+  private static final String SITEMAP_NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+  private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+
+  private final PublishedResourceCursor cursor;
+  private final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+  private final String siteUrl;
+  private final String siteName;
+  private final String resourcePath;
+
+  public CatalogDocumentWriter(
+    PublishedResourceCursor cursor,
+    @Value("${site.base-url:http://localhost:5173}") String siteUrl,
+    @Value("${site.name:FizicaMD}") String siteName,
+    @Value("${site.resource-path:/resources}") String resourcePath
+  ) {
+    this.cursor = cursor;
+    this.siteUrl = siteUrl.replaceAll("/+$", "");
+    this.siteName = siteName;
+    this.resourcePath = resourcePath;
+  }
+
+  /** {@code <sitemapindex>} pointing at the given sitemap files (absolute URLs). */
+  public void writeSitemapIndex(OutputStream out, List<String> sitemapUrls) throws IOException {
+    write(out, xml -> {
+      xml.writeStartElement("sitemapindex");
+      xml.writeDefaultNamespace(SITEMAP_NS);
+      for (var url : sitemapUrls) {
+        xml.writeStartElement("sitemap");
+        element(xml, "loc", url);
+        xml.writeEndElement();
+      }
+      xml.writeEndElement();
+    });
+  }
+
+  /** {@code <urlset>} with the category pages and published resources {@code [offset, offset + limit)}. */
+  public void writeUrlSet(OutputStream out, List<ResourceCategoryView> categories, long offset, int limit) throws IOException {
+    write(out, xml -> {
+      xml.writeStartElement("urlset");
+      xml.writeDefaultNamespace(SITEMAP_NS);
+      for (var category : categories) {
+        xml.writeStartElement("url");
+        element(xml, "loc", categoryUrl(category.code()));
+        xml.writeEndElement();
+      }
+      if (limit > 0) {
+        cursor.forEachPublished(offset, limit, unchecked(row -> {
+          xml.writeStartElement("url");
+          element(xml, "loc", resourceUrl(row.slug()));
+          element(xml, "lastmod", row.updatedAt().toString());
+          xml.writeEndElement();
+        }));
+      }
+      xml.writeEndElement();
+    });
+  }
+
+  /** Atom feed of every published resource in {@code category}, newest first. */
+  public void writeCategoryFeed(OutputStream out, ResourceCategoryView category) throws IOException {
+    write(out, xml -> {
+      xml.writeStartElement("feed");
+      xml.writeDefaultNamespace(ATOM_NS);
+      element(xml, "id", categoryUrl(category.code()));
+      element(xml, "title", siteName + " — " + category.label());
+      // The feed changes only with its own category, whatever else moved the catalog version.
+      var updated = cursor.lastChangeInCategory(category.code()).orElse(Instant.EPOCH);
+      element(xml, "updated", updated.toString());
+      xml.writeEmptyElement("link");
+      xml.writeAttribute("rel", "alternate");
+      xml.writeAttribute("href", categoryUrl(category.code()));
+      xml.writeStartElement("author");
+      element(xml, "name", siteName);
+      xml.writeEndElement();
+      cursor.forEachPublishedInCategory(category.code(), unchecked(row -> {
+        xml.writeStartElement("entry");
+        element(xml, "id", "urn:uuid:" + row.id());
+        element(xml, "title", row.title());
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("href", resourceUrl(row.slug()));
+        element(xml, "published", (row.publishedAt() != null ? row.publishedAt() : row.updatedAt()).toString());
+        element(xml, "updated", row.updatedAt().toString());
+        element(xml, "summary", row.summary());
+        xml.writeEmptyElement("category");
+        xml.writeAttribute("term", category.code());
+        xml.writeAttribute("label", category.label());
+        xml.writeEndElement();
+      }));
+      xml.writeEndElement();
+    });
+  }
+
+  public String siteUrl() {
+    return siteUrl;
+  }
+
+  private String resourceUrl(String slug) {
+    return siteUrl + resourcePath + "/" + slug;
+  }
+
+  private String categoryUrl(String code) {
+    return siteUrl + resourcePath + "?category=" + code;
+  }
+
+  private void write(OutputStream out, XmlBody body) throws IOException {
+    try {
+      var xml = outputFactory.createXMLStreamWriter(out, "UTF-8");
+      xml.writeStartDocument("UTF-8", "1.0");
+      body.write(xml);
+      xml.writeEndDocument();
+      xml.flush();
+      xml.close();
+    } catch (XMLStreamException ex) {
+      throw new IOException(ex);
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+    xml.writeStartElement(name);
+    xml.writeCharacters(text == null ? "" : text);
+    xml.writeEndElement();
+  }
+
+  private static Consumer<PublishedResourceCursor.Row> unchecked(RowWriter writer) {
+    return row -> {
+      try {
+        writer.write(row);
+      } catch (XMLStreamException ex) {
+        throw new UncheckedIOException(new IOException(ex));
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface XmlBody {
+    void write(XMLStreamWriter xml) throws XMLStreamException;
+  }
+
+  @FunctionalInterface
+  private interface RowWriter {
+    void write(PublishedResourceCursor.Row row) throws XMLStreamException;
+  }
+}
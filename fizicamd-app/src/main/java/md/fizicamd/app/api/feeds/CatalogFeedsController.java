@@ -0,0 +1,113 @@
+package md.fizicamd.app.api.feeds;
+
+import md.fizicamd.app.resources.ResourceCatalogVersion;
+import md.fizicamd.app.resources.ResourceService;
+import md.fizicamd.shared.NotFoundException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sitemaps and per-category Atom feeds for crawlers and the mobile app. Documents are
+ * rendered from a database cursor straight into the response and cached per catalog version,
+ * which also serves as their ETag.
+ */
+@RestController
+public class CatalogFeedsController {
+  static final int SITEMAP_MAX_URLS = 50_000;
+  private static final MediaType ATOM = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+  private static final MediaType XML = MediaType.parseMediaType("application/xml;charset=UTF-8");
+
+  private final ResourceService resourceService;
+  private final ResourceCatalogVersion catalogVersion;
+  private final FeedDocumentCache documents;
+  private final CatalogDocumentWriter writer;
+
+  public CatalogFeedsController(
+    ResourceService resourceService,
+    ResourceCatalogVersion catalogVersion,
+    FeedDocumentCache documents,
+    CatalogDocumentWriter writer
+  ) {
+    this.resourceService = resourceService;
+    this.catalogVersion = catalogVersion;
+    this.documents = documents;
+    this.writer = writer;
+  }
+
+  /** A single {@code <urlset>} while everything fits in one file, a sitemap index beyond that. */
+  @GetMapping("/sitemap.xml")
+  public ResponseEntity<StreamingResponseBody> sitemap(WebRequest request) {
+    var categories = resourceService.listCategories();
+    var published = resourceService.countPublished(null);
+    if (categories.size() + published <= SITEMAP_MAX_URLS) {
+      return serve("sitemap", XML, request, out -> writer.writeUrlSet(out, categories, 0, SITEMAP_MAX_URLS));
+    }
+    var base = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+    var files = new ArrayList<String>();
+    files.add(base + "/sitemaps/categories.xml");
+    for (long page = 1; page <= resourceFiles(published); page++) {
+      files.add(base + "/sitemaps/resources-" + page + ".xml");
+    }
+    return serve("sitemap-index " + base, XML, request, out -> writer.writeSitemapIndex(out, files));
+  }
+
+  @GetMapping("/sitemaps/categories.xml")
+  public ResponseEntity<StreamingResponseBody> categorySitemap(WebRequest request) {
+    var categories = resourceService.listCategories();
+    return serve("sitemap-categories", XML, request, out -> writer.writeUrlSet(out, categories, 0, 0));
+  }
+
+  @GetMapping("/sitemaps/resources-{page}.xml")
+  public ResponseEntity<StreamingResponseBody> resourceSitemap(@PathVariable int page, WebRequest request) {
+    if (page < 1 || page > resourceFiles(resourceService.countPublished(null))) {
+      throw new NotFoundException("Sitemap inexistent.");
+    }
+    var offset = (long) (page - 1) * SITEMAP_MAX_URLS;
+    return serve("sitemap-resources " + page, XML, request,
+      out -> writer.writeUrlSet(out, List.of(), offset, SITEMAP_MAX_URLS));
+  }
+
+  @GetMapping("/feeds/categories/{code}.atom")
+  public ResponseEntity<StreamingResponseBody> categoryFeed(@PathVariable String code, WebRequest request) {
+    var category = resourceService.categoryCatalog().find(code)
+      .orElseThrow(() -> new NotFoundException("Categoria nu există."));
+    return serve("feed " + code, ATOM, request, out -> writer.writeCategoryFeed(out, category));
+  }
+
+  // Read the version before rendering: a change committed meanwhile yields a newer ETag next time.
+  private ResponseEntity<StreamingResponseBody> serve(
+    String key,
+    MediaType type,
+    WebRequest request,
+    FeedDocumentCache.Renderer renderer
+  ) {
+    var version = catalogVersion.current();
+    var etag = "\"catalog-" + Long.toString(version, 36) + "\"";
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    var cached = documents.get(key, version);
+    StreamingResponseBody body = cached != null
+      ? out -> out.write(cached)
+      : out -> documents.render(key, version, out, renderer);
+    return ResponseEntity.ok()
+      .contentType(type)
+      .eTag(etag)
+      .cacheControl(CacheControl.noCache())
+      .body(body);
+  }
+
+  private static long resourceFiles(long published) {
+    return Math.max(1, (published + SITEMAP_MAX_URLS - 1) / SITEMAP_MAX_URLS);
+  }
+}
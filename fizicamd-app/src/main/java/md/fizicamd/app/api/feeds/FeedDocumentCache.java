@@ -0,0 +1,112 @@
+package md.fizicamd.app.api.feeds;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import md.fizicamd.app.resources.ResourceCatalogVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Rendered sitemap and feed documents tagged with the catalog version they were rendered at.
+ * A miss renders straight into the response while keeping a copy; the copy is cached only if
+ * the catalog did not move meanwhile, so a cached document is always exactly that version.
+ */
+@Component
+public class FeedDocumentCache {
+  private final ResourceCatalogVersion catalogVersion;
+  private final Cache<String, Document> documents;
+  private final int maxDocumentBytes;
+
+  public FeedDocumentCache(
+    ResourceCatalogVersion catalogVersion,
+    MeterRegistry meterRegistry,
+    @Value("${feeds.cache.max-bytes:33554432}") long maxBytes,
+    @Value("${feeds.cache.max-document-bytes:16777216}") int maxDocumentBytes
+  ) {
+    this.catalogVersion = catalogVersion;
+    this.maxDocumentBytes = maxDocumentBytes;
+    this.documents = Caffeine.newBuilder()
+      .maximumWeight(maxBytes)
+      .weigher((String key, Document document) -> document.body().length)
+      .recordStats()
+      .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, documents, "feeds.documents");
+  }
+
+  /** The cached body of {@code key} at {@code version}, or {@code null}. */
+  public byte[] get(String key, long version) {
+    var document = documents.getIfPresent(key);
+    return document != null && document.version() == version ? document.body() : null;
+  }
+
+  public void render(String key, long version, OutputStream out, Renderer renderer) throws IOException {
+    var copy = new CappedCopy(out, maxDocumentBytes);
+    renderer.render(copy);
+    copy.flush();
+    if (!copy.overflowed() && catalogVersion.current() == version) {
+      documents.put(key, new Document(version, copy.toByteArray()));
+    }
+  }
+
+  @FunctionalInterface
+  public interface Renderer {
+    void render(OutputStream out) throws IOException;
+  }
+
+  private record Document(long version, byte[] body) {}
+
+  // Forwards every byte to the response and keeps a copy until it grows past the cap.
+  private static final class CappedCopy extends OutputStream {
+    private final OutputStream target;
+    private final int cap;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream(8192);
+
+    private CappedCopy(OutputStream target, int cap) {
+      this.target = target;
+      this.cap = cap;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      target.write(b);
+      if (copy != null) {
+        copy.write(b);
+        checkCap();
+      }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      target.write(b, off, len);
+      if (copy != null) {
+        copy.write(b, off, len);
+        checkCap();
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      target.flush();
+    }
+
+    private void checkCap() {
+      if (copy.size() > cap) {
+        copy = null;
+      }
+    }
+
+    private boolean overflowed() {
+      return copy == null;
+    }
+
+    private byte[] toByteArray() {
+      return copy.toByteArray();
+    }
+  }
+}
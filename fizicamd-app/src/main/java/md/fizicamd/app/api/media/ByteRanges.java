@@ -0,0 +1,89 @@
+package md.fizicamd.app.api.media;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Parses a {@code Range: bytes=...} header (RFC 7233 §2.1) against a file length. Satisfiable
+ * ranges are sorted and overlapping or adjacent ones merged, so a client cannot make the server
+ * send the same bytes many times over.
+ */
+final class ByteRanges {
+  static final int MAX_RANGES = 16;
+
+  private ByteRanges() {}
+
+  record Range(long start, long end) {
+    long length() {
+      return end - start + 1;
+    }
+  }
+
+  /**
+   * {@code null} when the header must be ignored (malformed, another unit, too many ranges) and
+   * the whole file is sent; an empty list when no range is satisfiable (416).
+   */
+  static List<Range> parse(String header, long length) {
+    if (header == null || !header.regionMatches(true, 0, "bytes=", 0, 6)) {
+      return null;
+    }
+    var specs = header.substring(6).split(",");
+    if (specs.length > MAX_RANGES) {
+      return null;
+    }
+    var ranges = new ArrayList<Range>(specs.length);
+    for (var raw : specs) {
+      var spec = raw.trim();
+      var dash = spec.indexOf('-');
+      if (dash < 0) {
+        return null;
+      }
+      try {
+        var first = spec.substring(0, dash).trim();
+        var last = spec.substring(dash + 1).trim();
+        if (first.isEmpty()) {
+          // suffix range: the final N bytes
+          var suffix = Long.parseLong(last);
+          if (suffix < 0) {
+            return null;
+          }
+          if (suffix > 0 && length > 0) {
+            ranges.add(new Range(Math.max(0, length - suffix), length - 1));
+          }
+          continue;
+        }
+        var start = Long.parseLong(first);
+        var end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+        if (start < 0 || end < start) {
+          return null;
+        }
+        if (start < length) {
+          ranges.add(new Range(start, Math.min(end, length - 1)));
+        }
+      } catch (NumberFormatException ex) {
+        return null;
+      }
+    }
+    return coalesce(ranges);
+  }
+
+  private static List<Range> coalesce(List<Range> ranges) {
+    if (ranges.size() < 2) {
+      return ranges;
+    }
+    ranges.sort(Comparator.comparingLong(Range::start));
+    var merged = new ArrayList<Range>(ranges.size());
+    var current = ranges.get(0);
+    for (var next : ranges.subList(1, ranges.size())) {
+      if (next.start() <= current.end() + 1) {
+        current = new Range(current.start(), Math.max(current.end(), next.end()));
+      } else {
+        merged.add(current);
+        current = next;
+      }
+    }
+    merged.add(current);
+    return merged;
+  }
+}
@@ -0,0 +1,181 @@
+package md.fizicamd.app.api.media;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import md.fizicamd.app.media.MediaService.MediaContent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.UUID;
+
+/**
+ * Sends a stored media file with byte-range support (RFC 7233): {@code Accept-Ranges},
+ * single ranges as 206 with {@code Content-Range}, several as {@code multipart/byteranges},
+ * 416 for unsatisfiable ones, and {@code If-Range} so a resumed download whose file changed
+ * gets the whole new file.
+ * <p>
+ * Whole files and single ranges of at least {@code media.sendfile.min-size} are handed to the
+ * container's sendfile support when it offers it (Tomcat's NIO connector): the connector then
+ * {@code FileChannel.transferTo}s the bytes to the socket and they never pass through the heap.
+ * Otherwise, and for multipart responses, the file is copied through a channel in small chunks.
+ */
+@Component
+public class MediaContentWriter {
+  private static final int CHUNK_SIZE = 64 * 1024;
+  private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private final boolean sendfileEnabled;
+  private final long sendfileMinSize;
+
+  public MediaContentWriter(
+    @Value("${media.sendfile.enabled:true}") boolean sendfileEnabled,
+    @Value("${media.sendfile.min-size:49152}") long sendfileMinSize
+  ) {
+    this.sendfileEnabled = sendfileEnabled;
+    this.sendfileMinSize = sendfileMinSize;
+  }
+
+  public void write(MediaContent content, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    var file = content.file();
+    var length = Files.size(file);
+    var lastModified = Files.getLastModifiedTime(file).toMillis();
+    var etag = "\"" + Long.toString(length, 36) + "-" + Long.toString(lastModified, 36) + "\"";
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      return;
+    }
+
+    var contentType = content.asset().getContentType();
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    if (content.asset().getFilename() != null) {
+      response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.formData().name("inline").filename(content.asset().getFilename()).build().toString());
+    }
+
+    var ranges = rangeApplies(request, etag, lastModified)
+      ? ByteRanges.parse(request.getHeader(HttpHeaders.RANGE), length)
+      : null;
+    if (ranges != null && ranges.isEmpty()) {
+      response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+      response.setContentLength(0);
+      return;
+    }
+    var body = !"HEAD".equals(request.getMethod());
+
+    if (ranges == null || (ranges.size() == 1 && ranges.get(0).length() == length)) {
+      response.setStatus(HttpServletResponse.SC_OK);
+      response.setContentType(contentType);
+      response.setContentLengthLong(length);
+      if (body && length > 0) {
+        send(file, new ByteRanges.Range(0, length - 1), request, response);
+      }
+      return;
+    }
+
+    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+    if (ranges.size() == 1) {
+      var range = ranges.get(0);
+      response.setContentType(contentType);
+      response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(range, length));
+      response.setContentLengthLong(range.length());
+      if (body) {
+        send(file, range, request, response);
+      }
+      return;
+    }
+
+    var boundary = UUID.randomUUID().toString().replace("-", "");
+    var parts = new ArrayList<byte[]>(ranges.size());
+    long total = 0;
+    for (var range : ranges) {
+      var header = ("\r\n--" + boundary + "\r\n"
+        + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+        + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range, length) + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+      parts.add(header);
+      total += header.length + range.length();
+    }
+    var closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+    response.setContentType("multipart/byteranges; boundary=" + boundary);
+    response.setContentLengthLong(total + closing.length);
+    if (!body) {
+      return;
+    }
+    var out = response.getOutputStream();
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      var buffer = ByteBuffer.allocate(CHUNK_SIZE);
+      for (int i = 0; i < ranges.size(); i++) {
+        out.write(parts.get(i));
+        copy(channel, ranges.get(i), buffer, out);
+      }
+    }
+    out.write(closing);
+  }
+
+  // A Range sent with If-Range is only honoured when the validator still matches the file.
+  private static boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+    var ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+    ifRange = ifRange.trim();
+    if (ifRange.startsWith("\"")) {
+      return ifRange.equals(etag);
+    }
+    if (ifRange.startsWith("W/")) {
+      return false;
+    }
+    try {
+      return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+    } catch (IllegalArgumentException ex) {
+      return false;
+    }
+  }
+
+  private static String contentRange(ByteRanges.Range range, long length) {
+    return "bytes " + range.start() + "-" + range.end() + "/" + length;
+  }
+
+  private void send(Path file, ByteRanges.Range range, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (sendfileEnabled && range.length() >= sendfileMinSize
+      && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+      // The connector writes the file after the servlet returns; end is exclusive.
+      request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, range.start());
+      request.setAttribute(SENDFILE_END, range.end() + 1);
+      return;
+    }
+    try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      copy(channel, range, ByteBuffer.allocate(CHUNK_SIZE), response.getOutputStream());
+    }
+  }
+
+  private static void copy(FileChannel channel, ByteRanges.Range range, ByteBuffer buffer, OutputStream out) throws IOException {
+    var position = range.start();
+    var remaining = range.length();
+    while (remaining > 0) {
+      buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+      var read = channel.read(buffer, position);
+      if (read < 0) {
+        throw new IOException("Fișierul s-a scurtat în timpul transferului.");
+      }
+      out.write(buffer.array(), 0, read);
+      position += read;
+      remaining -= read;
+    }
+  }
+}
@@ -1,25 +1,26 @@
 package md.fizicamd.app.api.media;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import md.fizicamd.app.media.MediaService;
 import md.fizicamd.shared.NotFoundException;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/media")
 public class MediaController {
   private final MediaService mediaService;
+  private final MediaContentWriter contentWriter;
 
-  public MediaController(MediaService mediaService) {
+  public MediaController(MediaService mediaService, MediaContentWriter contentWriter) {
     this.mediaService = mediaService;
+    this.contentWriter = contentWriter;
   }
 
   @PostMapping("/uploads/avatar")
@@ -33,17 +34,29 @@ public class MediaController {
     return mediaService.uploadResourceAsset(currentUserId(auth), file);
   }
 
+  /**
+   * Raw-body variants of the uploads: the body is the file itself, with its type in
+   * {@code Content-Type}, so it is read once instead of being spooled by the container first.
+   */
+  @PostMapping("/uploads/avatar/stream")
+  public MediaService.UploadResponse streamAvatar(@RequestParam(value = "filename", required = false) String filename,
+                                                  HttpServletRequest request, Authentication auth) throws IOException {
+    return mediaService.uploadAvatar(currentUserId(auth), request.getInputStream(), request.getContentLengthLong(),
+      request.getContentType(), filename);
+  }
+
+  @PostMapping("/uploads/resource/stream")
+  @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+  public MediaService.UploadResponse streamResourceAsset(@RequestParam(value = "filename", required = false) String filename,
+                                                         HttpServletRequest request, Authentication auth) throws IOException {
+    return mediaService.uploadResourceAsset(currentUserId(auth), request.getInputStream(), request.getContentLengthLong(),
+      request.getContentType(), filename);
+  }
+
+  /** Also answers HEAD and byte-range requests; see {@link MediaContentWriter}. */
   @GetMapping("/assets/{assetId}/content")
-  public ResponseEntity<Resource> download(@PathVariable UUID assetId) {
-    var content = mediaService.loadContent(assetId);
-    var headers = new HttpHeaders();
-    if (content.asset().getFilename() != null) {
-      headers.setContentDispositionFormData("inline", content.asset().getFilename());
-    }
-    return ResponseEntity.ok()
-            .headers(headers)
-            .contentType(MediaType.parseMediaType(content.asset().getContentType()))
-            .body(content.resource());
+  public void download(@PathVariable UUID assetId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    contentWriter.write(mediaService.loadContent(assetId), request, response);
   }
 
   private static UUID currentUserId(Authentication auth) {
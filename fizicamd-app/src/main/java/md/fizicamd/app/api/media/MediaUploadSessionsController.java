@@ -0,0 +1,81 @@
+package md.fizicamd.app.api.media;
+
+import jakarta.servlet.http.HttpServletRequest;
+import md.fizicamd.app.media.MediaService;
+import md.fizicamd.app.media.MediaUploadSessions;
+import md.fizicamd.app.media.MediaUploadSessions.UploadSession;
+import md.fizicamd.shared.NotFoundException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Resumable uploads: open a session with the file's length, {@code PUT} raw chunks at the
+ * committed offset with their SHA-256 in {@code X-Chunk-Sha256}, ask for the session after a
+ * disconnect to learn where to resume, then complete it into a media asset. A chunk at the
+ * wrong offset gets 409.
+ */
+@RestController
+@RequestMapping("/api/media/uploads/sessions")
+@PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
+public class MediaUploadSessionsController {
+  private final MediaUploadSessions sessions;
+
+  public MediaUploadSessionsController(MediaUploadSessions sessions) {
+    this.sessions = sessions;
+  }
+
+  @PostMapping
+  public UploadSession open(@RequestBody OpenUploadRequest request, Authentication auth) {
+    return sessions.open(currentUserId(auth), request.filename(), request.contentType(), request.length());
+  }
+
+  @GetMapping("/{sessionId}")
+  public UploadSession get(@PathVariable UUID sessionId, Authentication auth) {
+    return sessions.get(currentUserId(auth), sessionId);
+  }
+
+  @PutMapping("/{sessionId}/chunks")
+  public UploadSession appendChunk(
+    @PathVariable UUID sessionId,
+    @RequestParam("offset") long offset,
+    @RequestHeader(value = "X-Chunk-Sha256", required = false) String sha256,
+    HttpServletRequest request,
+    Authentication auth
+  ) throws IOException {
+    return sessions.appendChunk(currentUserId(auth), sessionId, offset, sha256, request.getInputStream(),
+      request.getContentLengthLong());
+  }
+
+  @PostMapping("/{sessionId}/complete")
+  public MediaService.UploadResponse complete(
+    @PathVariable UUID sessionId,
+    @RequestParam(value = "sha256", required = false) String sha256,
+    Authentication auth
+  ) {
+    return sessions.complete(currentUserId(auth), sessionId, sha256);
+  }
+
+  @DeleteMapping("/{sessionId}")
+  public ResponseEntity<Void> abort(@PathVariable UUID sessionId, Authentication auth) {
+    sessions.abort(currentUserId(auth), sessionId);
+    return ResponseEntity.noContent().build();
+  }
+
+  private static UUID currentUserId(Authentication auth) {
+    var id = auth != null ? auth.getDetails() : null;
+    if (id instanceof UUID uuid) {
+      return uuid;
+    }
+    if (id instanceof String str) {
+      return UUID.fromString(str);
+    }
+    throw new NotFoundException("User context missing");
+  }
+
+  public record OpenUploadRequest(String filename, String contentType, long length) {}
+}
@@ -13,6 +13,7 @@ public class HomepageDtos {
     String slug,
     String href,
     String type,
-    UUID parentId
+    UUID parentId,
+    String snippet
   ) {}
 }
@@ -1,9 +1,10 @@
 package md.fizicamd.app.api.publicsite;
 
 import md.fizicamd.app.api.publicsite.HomepageDtos.SearchResultItem;
-import md.fizicamd.app.resources.ResourceEntry;
+import md.fizicamd.app.resources.ResourceSearchHit;
 import md.fizicamd.app.resources.ResourceService;
 import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,14 +29,25 @@ public class PublicContentService {
       .toList();
   }
 
-  private SearchResultItem mapResource(ResourceEntry entry) {
+  private SearchResultItem mapResource(ResourceSearchHit hit) {
     return new SearchResultItem(
-      entry.getId(),
-      entry.getTitle(),
-      entry.getSlug(),
+      hit.getId(),
+      hit.getTitle(),
+      hit.getSlug(),
       null,
       "RESOURCE",
-      null
+      null,
+      highlight(hit.getSnippet())
     );
   }
+
+  /** Escapes the stored text and only then turns the \u0002/\u0003 match markers into mark tags. */
+  static String highlight(String snippet) {
+    if (snippet == null || snippet.isBlank()) {
+      return null;
+    }
+    return HtmlUtils.htmlEscape(snippet)
+      .replace("\u0002", "<mark>")
+      .replace("\u0003", "</mark>");
+  }
 }
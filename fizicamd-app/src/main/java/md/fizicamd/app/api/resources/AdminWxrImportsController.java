@@ -0,0 +1,78 @@
+package md.fizicamd.app.api.resources;
+
+import jakarta.validation.Valid;
+import md.fizicamd.app.api.resources.ResourceDtos.WxrImportDto;
+import md.fizicamd.app.api.resources.ResourceDtos.WxrImportRequest;
+import md.fizicamd.app.resources.WxrImport;
+import md.fizicamd.app.resources.WxrImportService;
+import md.fizicamd.shared.NotFoundException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/** WordPress archive imports; jobs run in the background and are polled by id. */
+@RestController
+@RequestMapping("/api/admin/resources/wxr-imports")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminWxrImportsController {
+
+  private final WxrImportService importService;
+
+  public AdminWxrImportsController(WxrImportService importService) {
+    this.importService = importService;
+  }
+
+  @GetMapping
+  public List<WxrImportDto> list() {
+    return importService.recent().stream().map(AdminWxrImportsController::toDto).toList();
+  }
+
+  @PostMapping
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public WxrImportDto start(Authentication auth, @Valid @RequestBody WxrImportRequest request) {
+    return toDto(importService.start(currentUserId(auth), request.file()));
+  }
+
+  @GetMapping("/{importId}")
+  public WxrImportDto detail(@PathVariable UUID importId) {
+    return toDto(importService.find(importId));
+  }
+
+  @PostMapping("/{importId}/resume")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public WxrImportDto resume(@PathVariable UUID importId) {
+    return toDto(importService.resume(importId));
+  }
+
+  private static WxrImportDto toDto(WxrImport job) {
+    return new WxrImportDto(
+      job.getId(),
+      job.getSourceFile(),
+      job.getStatus(),
+      job.getItemsDone(),
+      job.getImportedCount(),
+      job.getSkippedCount(),
+      job.getDuplicateCount(),
+      job.getFailedCount(),
+      job.getLastError(),
+      job.getStartedAt(),
+      job.getUpdatedAt(),
+      job.getFinishedAt()
+    );
+  }
+
+  private UUID currentUserId(Authentication auth) {
+    var id = auth != null ? auth.getDetails() : null;
+    if (id instanceof UUID uuid) {
+      return uuid;
+    }
+    if (id instanceof String str) {
+      return UUID.fromString(str);
+    }
+    throw new NotFoundException("User context missing");
+  }
+}
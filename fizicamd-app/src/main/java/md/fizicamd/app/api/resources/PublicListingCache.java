@@ -0,0 +1,118 @@
+package md.fizicamd.app.api.resources;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceCursorResponse;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceListResponse;
+import md.fizicamd.app.cache.StaleWhileRevalidateCache;
+import md.fizicamd.app.identity.UserProfileChangedEvent;
+import md.fizicamd.app.resources.ResourceCategoriesChangedEvent;
+import md.fizicamd.app.resources.ResourceChangedEvent;
+import md.fizicamd.app.resources.ResourceService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serialized public listing pages served stale-while-revalidate: a page older than the soft
+ * TTL is returned as-is and reloaded in the background. Committed resource, category or author
+ * changes only mark pages stale, so readers never wait on the database for a known key.
+ */
+@Component
+public class PublicListingCache {
+  private final ResourceService resourceService;
+  private final ResourceMapper mapper;
+  private final ObjectMapper objectMapper;
+  private final ExecutorService refreshExecutor;
+  private final StaleWhileRevalidateCache<ListingKey, byte[]> listings;
+
+  public PublicListingCache(
+    ResourceService resourceService,
+    ResourceMapper mapper,
+    ObjectMapper objectMapper,
+    MeterRegistry meterRegistry,
+    @Value("${resources.listing-cache.soft-ttl:5s}") Duration softTtl,
+    @Value("${resources.listing-cache.hard-ttl:5m}") Duration hardTtl,
+    @Value("${resources.listing-cache.max-bytes:8388608}") long maxBytes,
+    @Value("${resources.listing-cache.refresh-threads:2}") int refreshThreads
+  ) {
+    this.resourceService = resourceService;
+    this.mapper = mapper;
+    this.objectMapper = objectMapper;
+    this.refreshExecutor = Executors.newFixedThreadPool(
+      refreshThreads,
+      Thread.ofPlatform().name("listing-refresh-", 0).daemon().factory()
+    );
+    this.listings = new StaleWhileRevalidateCache<>(
+      "resources.listings",
+      this::render,
+      body -> body.length,
+      maxBytes,
+      softTtl,
+      hardTtl,
+      refreshExecutor,
+      meterRegistry
+    );
+  }
+
+  public byte[] page(String category, int page, int limit) {
+    return listings.get(new ListingKey(normalize(category), page, limit, null, false));
+  }
+
+  public byte[] cursorPage(String category, String cursor, int limit, boolean withTotal) {
+    return listings.get(new ListingKey(normalize(category), 0, limit, cursor, withTotal));
+  }
+
+  public StaleWhileRevalidateCache<ListingKey, byte[]> cache() {
+    return listings;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onResourceChanged(ResourceChangedEvent event) {
+    listings.markAllStale();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoriesChanged(ResourceCategoriesChangedEvent event) {
+    listings.markAllStale();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProfileChanged(UserProfileChangedEvent event) {
+    listings.markAllStale();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    refreshExecutor.shutdownNow();
+  }
+
+  private byte[] render(ListingKey key) {
+    Object response;
+    if (key.cursor() == null) {
+      var result = resourceService.listPublishedPage(key.category(), key.page() - 1, key.limit());
+      response = new ResourceListResponse(mapper.toCards(result.getContent()), result.getTotalElements(), key.page(), key.limit());
+    } else {
+      var result = resourceService.listPublishedAfter(key.category(), key.cursor(), key.limit());
+      var total = key.withTotal() ? resourceService.countPublished(key.category()) : null;
+      response = new ResourceCursorResponse(mapper.toCards(result.items()), result.nextCursor(), total, key.limit());
+    }
+    try {
+      return objectMapper.writeValueAsBytes(response);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Lista de resurse nu a putut fi serializată.", ex);
+    }
+  }
+
+  private static String normalize(String category) {
+    return category == null || category.isBlank() ? null : category.trim();
+  }
+
+  public record ListingKey(String category, int page, int limit, String cursor, boolean withTotal) {}
+}
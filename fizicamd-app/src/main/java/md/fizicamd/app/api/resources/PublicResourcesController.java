@@ -1,55 +1,183 @@
 package md.fizicamd.app.api.resources;
 
+import md.fizicamd.app.api.resources.ResourceDtos.CategoryCountDto;
 import md.fizicamd.app.api.resources.ResourceDtos.CategoryDto;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceCardDto;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceChangesResponse;
 import md.fizicamd.app.api.resources.ResourceDtos.ResourceDetailDto;
 import md.fizicamd.app.api.resources.ResourceDtos.ResourceListResponse;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceSuggestionDto;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceTombstoneDto;
+import md.fizicamd.app.resources.ResourceChangeLog;
+import md.fizicamd.app.resources.ResourceChangeToken;
 import md.fizicamd.app.resources.ResourceService;
+import md.fizicamd.app.resources.ResourceStatus;
+import md.fizicamd.app.resources.ResourceSuggestIndex;
+import md.fizicamd.app.resources.ResourceTagIndex;
+import md.fizicamd.shared.NotFoundException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/public/resources")
 public class PublicResourcesController {
   private final ResourceService resourceService;
   private final ResourceMapper mapper;
+  private final ResourceSuggestIndex suggestIndex;
+  private final ResourceDetailCache detailCache;
+  private final PublicListingCache listingCache;
+  private final ResourceTagIndex tagIndex;
+  private final ResourceChangeLog changeLog;
 
-  public PublicResourcesController(ResourceService resourceService, ResourceMapper mapper) {
+  public PublicResourcesController(
+    ResourceService resourceService,
+    ResourceMapper mapper,
+    ResourceSuggestIndex suggestIndex,
+    ResourceDetailCache detailCache,
+    PublicListingCache listingCache,
+    ResourceTagIndex tagIndex,
+    ResourceChangeLog changeLog
+  ) {
     this.resourceService = resourceService;
     this.mapper = mapper;
+    this.suggestIndex = suggestIndex;
+    this.detailCache = detailCache;
+    this.listingCache = listingCache;
+    this.tagIndex = tagIndex;
+    this.changeLog = changeLog;
   }
 
   @GetMapping("/categories")
-  public List<CategoryDto> categories() {
-    return resourceService.listCategories().stream()
-      .map(cat -> new CategoryDto(
-        cat.getCode(),
-        cat.getLabel(),
-        cat.getGroupLabel(),
-        cat.getSortOrder(),
-        cat.getGroupOrder()
-      ))
+  public ResponseEntity<List<CategoryDto>> categories(WebRequest request) {
+    var catalog = resourceService.categoryCatalog();
+    var etag = "\"categories-" + catalog.version() + "\"";
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    var items = catalog.categories().stream()
+      .map(mapper::toCategory)
       .toList();
+    return ResponseEntity.ok().eTag(etag).body(items);
+  }
+
+  @GetMapping("/categories/with-counts")
+  public List<CategoryCountDto> categoriesWithCounts() {
+    return mapper.toCategoryCounts(resourceService.listCategories(), resourceService.publishedCountsByCategory());
   }
 
   @GetMapping
-  public ResourceListResponse resources(
+  public ResponseEntity<byte[]> resources(
     @RequestParam(name = "category", required = false) String category,
     @RequestParam(name = "limit", defaultValue = "9") int limit,
     @RequestParam(name = "page", defaultValue = "1") int page
   ) {
     var safeLimit = Math.max(1, Math.min(limit, 30));
     var safePage = Math.max(1, page);
-    var result = resourceService.listPublishedPage(category, safePage - 1, safeLimit);
-    var items = result.getContent().stream()
-      .map(mapper::toCard)
-      .toList();
-    return new ResourceListResponse(items, result.getTotalElements(), safePage, safeLimit);
+    return json(listingCache.page(category, safePage, safeLimit));
+  }
+
+  @GetMapping(params = "cursor")
+  public ResponseEntity<byte[]> resourcesByCursor(
+    @RequestParam(name = "category", required = false) String category,
+    @RequestParam(name = "limit", defaultValue = "9") int limit,
+    @RequestParam(name = "cursor") String cursor,
+    @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal
+  ) {
+    var safeLimit = Math.max(1, Math.min(limit, 30));
+    return json(listingCache.cursorPage(category, cursor, safeLimit, withTotal));
+  }
+
+  @GetMapping("/suggest")
+  public List<ResourceSuggestionDto> suggest(
+    @RequestParam(name = "q", defaultValue = "") String query,
+    @RequestParam(name = "limit", defaultValue = "8") int limit
+  ) {
+    var safeLimit = Math.max(1, Math.min(limit, 20));
+    return mapper.toSuggestions(suggestIndex.suggest(query, safeLimit));
+  }
+
+  @GetMapping("/tagged")
+  public ResourceListResponse tagged(
+    @RequestParam(name = "tag") List<String> tags,
+    @RequestParam(name = "match", defaultValue = "all") String match,
+    @RequestParam(name = "limit", defaultValue = "9") int limit,
+    @RequestParam(name = "page", defaultValue = "1") int page
+  ) {
+    var matchAll = switch (match.toLowerCase(Locale.ROOT)) {
+      case "all" -> true;
+      case "any" -> false;
+      default -> throw new IllegalArgumentException("Parametrul match trebuie să fie all sau any.");
+    };
+    var safeLimit = Math.max(1, Math.min(limit, 30));
+    var safePage = Math.max(1, page);
+    // Pages past the end stay empty instead of wrapping around to a negative offset.
+    var offset = (int) Math.min((long) (safePage - 1) * safeLimit, Integer.MAX_VALUE);
+    var result = tagIndex.findByTags(tags, matchAll, offset, safeLimit);
+    return new ResourceListResponse(mapper.toCards(result.items()), result.total(), safePage, safeLimit);
+  }
+
+  // Without a token (or with an expired one) the client syncs from scratch: every published
+  // resource, plus tombstones it can ignore.
+  @GetMapping("/changes")
+  public ResourceChangesResponse changes(
+    @RequestParam(name = "since", required = false) String since,
+    @RequestParam(name = "limit", defaultValue = "100") int limit
+  ) {
+    var safeLimit = Math.max(1, Math.min(limit, 200));
+    var position = since == null || since.isBlank() ? ResourceChangeLog.origin() : ResourceChangeToken.decode(since);
+    var resetRequired = changeLog.isExpired(position);
+    if (resetRequired) {
+      position = ResourceChangeLog.origin();
+    }
+    var batch = changeLog.changesSince(position, safeLimit);
+    var entries = resourceService.findByIds(batch.changes().stream()
+      .filter(ResourceChangeLog.Change::published)
+      .map(ResourceChangeLog.Change::id)
+      .toList());
+    var updated = new ArrayList<ResourceDetailDto>();
+    var removed = new ArrayList<ResourceTombstoneDto>();
+    for (var change : batch.changes()) {
+      var entry = change.published() ? entries.get(change.id()) : null;
+      // Unpublished or deleted after the feed was read; a later change row will follow.
+      if (entry != null && entry.getStatus() == ResourceStatus.PUBLISHED) {
+        updated.add(mapper.toDetail(entry));
+      } else {
+        removed.add(new ResourceTombstoneDto(change.id(), change.changedAt()));
+      }
+    }
+    return new ResourceChangesResponse(updated, removed, batch.next().encode(), batch.hasMore(), resetRequired);
+  }
+
+  @GetMapping("/{slug}/related")
+  public List<ResourceCardDto> related(
+    @PathVariable String slug,
+    @RequestParam(name = "limit", defaultValue = "4") int limit
+  ) {
+    var safeLimit = Math.max(1, Math.min(limit, 12));
+    var related = tagIndex.related(slug, safeLimit)
+      .orElseThrow(() -> new NotFoundException("Resursa nu există"));
+    return mapper.toCards(related);
   }
 
   @GetMapping("/{slug}")
-  public ResourceDetailDto detail(@PathVariable String slug) {
-    var entry = resourceService.findPublishedBySlug(slug);
-    return mapper.toDetail(entry);
+  public ResponseEntity<byte[]> detail(@PathVariable String slug, WebRequest request) {
+    var detail = detailCache.get(slug);
+    if (request.checkNotModified(detail.etag())) {
+      return null;
+    }
+    return ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_JSON)
+      .eTag(detail.etag())
+      .body(detail.body());
+  }
+
+  private static ResponseEntity<byte[]> json(byte[] body) {
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
   }
 }
@@ -0,0 +1,97 @@
+package md.fizicamd.app.api.resources;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import md.fizicamd.app.identity.UserProfileChangedEvent;
+import md.fizicamd.app.resources.ResourceCategoriesChangedEvent;
+import md.fizicamd.app.resources.ResourceChangedEvent;
+import md.fizicamd.app.resources.ResourceService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Serialized {@code ResourceDetailDto} bodies of published resources, keyed by slug. A hit
+ * answers both full responses and If-None-Match checks without touching the database; entries
+ * are evicted once a change to the resource, its category labels or its author commits.
+ */
+@Component
+public class ResourceDetailCache {
+  private final ResourceService resourceService;
+  private final ResourceMapper mapper;
+  private final ObjectMapper objectMapper;
+  private final Cache<String, RenderedDetail> details;
+
+  public ResourceDetailCache(
+    ResourceService resourceService,
+    ResourceMapper mapper,
+    ObjectMapper objectMapper,
+    MeterRegistry meterRegistry,
+    @Value("${resources.detail-cache.max-bytes:16777216}") long maxBytes
+  ) {
+    this.resourceService = resourceService;
+    this.mapper = mapper;
+    this.objectMapper = objectMapper;
+    this.details = Caffeine.newBuilder()
+      .maximumWeight(maxBytes)
+      .weigher((String slug, RenderedDetail detail) -> detail.body().length + slug.length() * 2)
+      .recordStats()
+      .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, details, "resources.detail");
+  }
+
+  public RenderedDetail get(String slug) {
+    return details.get(slug, this::render);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onResourceChanged(ResourceChangedEvent event) {
+    if (event.previous() != null) {
+      details.invalidate(event.previous().slug());
+    }
+    if (event.current() != null) {
+      details.invalidate(event.current().slug());
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoriesChanged(ResourceCategoriesChangedEvent event) {
+    details.invalidateAll();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProfileChanged(UserProfileChangedEvent event) {
+    details.asMap().values().removeIf(detail -> detail.authorId().equals(event.userId()));
+  }
+
+  private RenderedDetail render(String slug) {
+    var entry = resourceService.findPublishedBySlug(slug);
+    try {
+      var body = objectMapper.writeValueAsBytes(mapper.toDetail(entry));
+      return new RenderedDetail(body, strongEtag(body), entry.getAuthorId(), entry.getUpdatedAt());
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Resursa nu a putut fi serializată.", ex);
+    }
+  }
+
+  private static String strongEtag(byte[] body) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(body);
+      return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 27) + "\"";
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  public record RenderedDetail(byte[] body, String etag, UUID authorId, Instant updatedAt) {}
+}
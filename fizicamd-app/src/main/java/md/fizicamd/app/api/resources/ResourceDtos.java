@@ -3,6 +3,7 @@ package md.fizicamd.app.api.resources;
 import jakarta.validation.constraints.NotBlank;
 import md.fizicamd.app.resources.ResourceBlockType;
 import md.fizicamd.app.resources.ResourceStatus;
+import md.fizicamd.app.resources.WxrImportStatus;
 
 import java.time.Instant;
 import java.util.List;
@@ -18,6 +19,15 @@ public class ResourceDtos {
     int groupOrder
   ) {}
 
+  public record CategoryCountDto(
+    String code,
+    String label,
+    String group,
+    int sortOrder,
+    int groupOrder,
+    long published
+  ) {}
+
   public record ResourceBlockDto(
     ResourceBlockType type,
     String text,
@@ -58,7 +68,19 @@ public class ResourceDtos {
 
   public record ResourceListResponse(List<ResourceCardDto> items, long total, int page, int size) {}
 
-  public record TeacherResourceListResponse(List<ResourceCardDto> items) {}
+  public record ResourceCursorResponse(List<ResourceCardDto> items, String nextCursor, Long total, int size) {}
+
+  public record ResourceTombstoneDto(UUID id, Instant removedAt) {}
+
+  public record ResourceChangesResponse(
+    List<ResourceDetailDto> updated,
+    List<ResourceTombstoneDto> removed,
+    String nextToken,
+    boolean hasMore,
+    boolean resetRequired
+  ) {}
+
+  public record ResourceSuggestionDto(UUID id, String title, String slug, String categoryLabel) {}
 
   public record CreateResourceRequest(
     @NotBlank String categoryCode,
@@ -100,4 +122,47 @@ public class ResourceDtos {
     @NotBlank String label,
     Integer groupOrder
   ) {}
+
+  public record ResourceRevisionDto(
+    int revision,
+    boolean snapshot,
+    String title,
+    ResourceStatus status,
+    UUID editedBy,
+    String editorName,
+    Instant createdAt
+  ) {}
+
+  public record ResourceRevisionDetailDto(
+    UUID resourceId,
+    int revision,
+    String title,
+    String summary,
+    CategoryDto category,
+    String avatarUrl,
+    UUID avatarAssetId,
+    List<String> tags,
+    ResourceStatus status,
+    UUID editedBy,
+    String editorName,
+    Instant createdAt,
+    List<ResourceBlockDto> blocks
+  ) {}
+
+  public record WxrImportRequest(@NotBlank String file) {}
+
+  public record WxrImportDto(
+    UUID id,
+    String sourceFile,
+    WxrImportStatus status,
+    long itemsDone,
+    long imported,
+    long skipped,
+    long duplicates,
+    long failed,
+    String lastError,
+    Instant startedAt,
+    Instant updatedAt,
+    Instant finishedAt
+  ) {}
 }
@@ -1,17 +1,28 @@
 package md.fizicamd.app.api.resources;
 
+import md.fizicamd.app.api.resources.ResourceDtos.CategoryCountDto;
 import md.fizicamd.app.api.resources.ResourceDtos.CategoryDto;
 import md.fizicamd.app.api.resources.ResourceDtos.ResourceBlockDto;
 import md.fizicamd.app.api.resources.ResourceDtos.ResourceCardDto;
 import md.fizicamd.app.api.resources.ResourceDtos.ResourceDetailDto;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceRevisionDetailDto;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceRevisionDto;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceSuggestionDto;
 import md.fizicamd.app.media.MediaService;
 import md.fizicamd.app.resources.ResourceContentBlock;
 import md.fizicamd.app.resources.ResourceEntry;
+import md.fizicamd.app.resources.ResourceCard;
 import md.fizicamd.app.resources.ResourceCategory;
+import md.fizicamd.app.resources.ResourceCategoryView;
+import md.fizicamd.app.resources.ResourceRevisionSummary;
+import md.fizicamd.app.resources.ResourceRevisionView;
 import md.fizicamd.app.resources.ResourceService;
+import md.fizicamd.app.resources.ResourceSuggestIndex;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class ResourceMapper {
@@ -21,20 +32,25 @@ public class ResourceMapper {
     this.resourceService = resourceService;
   }
 
-  public ResourceCardDto toCard(ResourceEntry entry) {
-    var category = toCategory(entry.getCategoryCode());
-    return new ResourceCardDto(
-      entry.getId(),
-      entry.getTitle(),
-      entry.getSlug(),
-      entry.getSummary(),
-      category,
-      assetUrl(entry.getAvatarMediaId()),
-      resourceService.readTags(entry),
-      resourceService.authorDisplayName(entry.getAuthorId()),
-      entry.getPublishedAt(),
-      entry.getStatus()
-    );
+  /**
+   * Maps a page of card projections to DTOs, resolving every author and category of the page
+   * up front so the query count does not grow with the page size.
+   */
+  public List<ResourceCardDto> toCards(List<ResourceCard> cards) {
+    if (cards.isEmpty()) {
+      return List.of();
+    }
+    var categories = resourceService.findCategories(cards.stream().map(ResourceCard::categoryCode).toList());
+    var authors = resourceService.authorDisplayNames(cards.stream().map(ResourceCard::authorId).toList());
+    return cards.stream()
+      .map(card -> toCard(
+        card,
+        Optional.ofNullable(categories.get(card.categoryCode()))
+          .map(this::toCategory)
+          .orElseGet(() -> fallbackCategory(card.categoryCode())),
+        authors.getOrDefault(card.authorId(), "Profesor")
+      ))
+      .toList();
   }
 
   public ResourceDetailDto toDetail(ResourceEntry entry) {
@@ -55,10 +71,78 @@ public class ResourceMapper {
     );
   }
 
+  public List<ResourceRevisionDto> toRevisions(List<ResourceRevisionSummary> revisions) {
+    var editors = resourceService.authorDisplayNames(revisions.stream().map(ResourceRevisionSummary::getEditedBy).toList());
+    return revisions.stream()
+      .map(revision -> new ResourceRevisionDto(
+        revision.getRevision(),
+        revision.getRevision() == revision.getBaseRevision(),
+        revision.getTitle(),
+        revision.getStatus(),
+        revision.getEditedBy(),
+        revision.getEditedBy() == null ? null : editors.get(revision.getEditedBy()),
+        revision.getCreatedAt()
+      ))
+      .toList();
+  }
+
+  public ResourceRevisionDetailDto toRevision(ResourceRevisionView revision) {
+    return new ResourceRevisionDetailDto(
+      revision.resourceId(),
+      revision.revision(),
+      revision.title(),
+      revision.summary(),
+      toCategory(revision.categoryCode()),
+      assetUrl(revision.avatarMediaId()),
+      revision.avatarMediaId(),
+      revision.tags(),
+      revision.status(),
+      revision.editedBy(),
+      revision.editedBy() == null ? null : resourceService.authorDisplayName(revision.editedBy()),
+      revision.createdAt(),
+      revision.blocks().stream().map(this::toBlock).toList()
+    );
+  }
+
+  public List<ResourceSuggestionDto> toSuggestions(List<ResourceSuggestIndex.Suggestion> suggestions) {
+    var catalog = resourceService.categoryCatalog();
+    return suggestions.stream()
+      .map(suggestion -> new ResourceSuggestionDto(
+        suggestion.id(),
+        suggestion.title(),
+        suggestion.slug(),
+        catalog.find(suggestion.categoryCode()).map(ResourceCategoryView::label).orElse(suggestion.categoryCode())
+      ))
+      .toList();
+  }
+
+  public List<CategoryCountDto> toCategoryCounts(List<ResourceCategoryView> categories, Map<String, Long> counts) {
+    return categories.stream()
+      .map(cat -> new CategoryCountDto(
+        cat.code(),
+        cat.label(),
+        cat.groupLabel(),
+        cat.sortOrder(),
+        cat.groupOrder(),
+        counts.getOrDefault(cat.code(), 0L)
+      ))
+      .toList();
+  }
+
   public CategoryDto toCategory(String code) {
     return resourceService.findCategory(code)
       .map(this::toCategory)
-      .orElseGet(() -> new CategoryDto(code, code, "", 0, 0));
+      .orElseGet(() -> fallbackCategory(code));
+  }
+
+  public CategoryDto toCategory(ResourceCategoryView cat) {
+    return new CategoryDto(
+      cat.code(),
+      cat.label(),
+      cat.groupLabel(),
+      cat.sortOrder(),
+      cat.groupOrder()
+    );
   }
 
   public CategoryDto toCategory(ResourceCategory cat) {
@@ -74,6 +158,25 @@ public class ResourceMapper {
     );
   }
 
+  private ResourceCardDto toCard(ResourceCard card, CategoryDto category, String authorName) {
+    return new ResourceCardDto(
+      card.id(),
+      card.title(),
+      card.slug(),
+      card.summary(),
+      category,
+      assetUrl(card.avatarMediaId()),
+      Optional.ofNullable(card.tags()).orElse(List.of()),
+      authorName,
+      card.publishedAt(),
+      card.status()
+    );
+  }
+
+  private CategoryDto fallbackCategory(String code) {
+    return new CategoryDto(code, code, "", 0, 0);
+  }
+
   private ResourceBlockDto toBlock(ResourceContentBlock block) {
     return new ResourceBlockDto(
       block.type(),
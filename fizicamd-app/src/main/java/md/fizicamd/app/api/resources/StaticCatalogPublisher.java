@@ -0,0 +1,332 @@
+package md.fizicamd.app.api.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceListResponse;
+import md.fizicamd.app.identity.UserProfileChangedEvent;
+import md.fizicamd.app.resources.ResourceCategoriesChangedEvent;
+import md.fizicamd.app.resources.ResourceChangedEvent;
+import md.fizicamd.app.resources.ResourceDashboardFilter;
+import md.fizicamd.app.resources.ResourceService;
+import md.fizicamd.app.resources.ResourceStatus;
+import md.fizicamd.shared.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Mirrors the anonymous resource API as static JSON files (each with a pre-compressed
+ * {@code .gz} twin) that nginx or a CDN can serve without reaching the application:
+ * <pre>
+ *   categories.json               GET /api/public/resources/categories
+ *   categories-with-counts.json   GET /api/public/resources/categories/with-counts
+ *   pages/_all/{n}.json           GET /api/public/resources?page={n}&amp;limit={page-size}
+ *   pages/{category}/{n}.json     GET /api/public/resources?category=...&amp;page={n}&amp;limit={page-size}
+ *   resources/{slug}.json         GET /api/public/resources/{slug}
+ * </pre>
+ * Committed changes mark what they touch (a resource's detail, its category's first pages,
+ * the counts) and a single background writer rewrites only that, coalescing bursts such as
+ * bulk imports. Category changes and startup rebuild everything. Files are replaced
+ * atomically and left untouched when their content did not change.
+ */
+@Component
+@ConditionalOnProperty(name = "resources.static-export.enabled", havingValue = "true")
+public class StaticCatalogPublisher {
+  private static final Logger log = LoggerFactory.getLogger(StaticCatalogPublisher.class);
+  private static final String ALL_PAGES = "_all";
+  private static final int EXPORT_BATCH_SIZE = 200;
+
+  private final ResourceService resourceService;
+  private final ResourceMapper mapper;
+  private final ObjectMapper objectMapper;
+  private final Path root;
+  private final int pageSize;
+  private final int maxPages;
+  private final Executor executor;
+  private final Object lock = new Object();
+  private Dirty dirty = new Dirty();
+  private boolean scheduled;
+
+  @Autowired
+  public StaticCatalogPublisher(
+    ResourceService resourceService,
+    ResourceMapper mapper,
+    ObjectMapper objectMapper,
+    @Value("${resources.static-export.dir:storage/static}") String root,
+    @Value("${resources.static-export.page-size:9}") int pageSize,
+    @Value("${resources.static-export.max-pages:5}") int maxPages
+  ) {
+    this(resourceService, mapper, objectMapper, Path.of(root), pageSize, maxPages,
+      Executors.newSingleThreadExecutor(Thread.ofPlatform().name("static-export").daemon().factory()));
+  }
+
+  StaticCatalogPublisher(
+    ResourceService resourceService,
+    ResourceMapper mapper,
+    ObjectMapper objectMapper,
+    Path root,
+    int pageSize,
+    int maxPages,
+    Executor executor
+  ) {
+    this.resourceService = resourceService;
+    this.mapper = mapper;
+    this.objectMapper = objectMapper;
+    this.root = root.toAbsolutePath().normalize();
+    this.pageSize = pageSize;
+    this.maxPages = maxPages;
+    this.executor = executor;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void publishAll() {
+    mark(dirty -> dirty.everything = true);
+  }
+
+  // Drafts never reach the export, so only changes that were or are public matter.
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onResourceChanged(ResourceChangedEvent event) {
+    if (!event.publishedBefore() && !event.publishedNow()) {
+      return;
+    }
+    mark(dirty -> {
+      dirty.counts = true;
+      for (var card : Arrays.asList(event.previous(), event.current())) {
+        if (card != null) {
+          dirty.slugs.add(card.slug());
+          dirty.categories.add(card.categoryCode());
+        }
+      }
+    });
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoriesChanged(ResourceCategoriesChangedEvent event) {
+    mark(dirty -> dirty.everything = true);
+  }
+
+  // Author names appear on every card and detail of that author.
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProfileChanged(UserProfileChangedEvent event) {
+    mark(dirty -> {
+      dirty.authors.add(event.userId());
+      dirty.allPages = true;
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (executor instanceof ExecutorService service) {
+      service.shutdownNow();
+    }
+  }
+
+  private void mark(Consumer<Dirty> change) {
+    synchronized (lock) {
+      change.accept(dirty);
+      if (scheduled) {
+        return;
+      }
+      scheduled = true;
+    }
+    executor.execute(this::drain);
+  }
+
+  private void drain() {
+    Dirty work;
+    synchronized (lock) {
+      work = dirty;
+      dirty = new Dirty();
+      scheduled = false;
+    }
+    try {
+      if (work.everything) {
+        publishEverything();
+        return;
+      }
+      for (var author : work.authors) {
+        forEachPublished(new ResourceDashboardFilter(author, ResourceStatus.PUBLISHED, null, null), work.slugs::add);
+      }
+      for (var slug : work.slugs) {
+        publishDetail(slug);
+      }
+      if (work.allPages) {
+        for (var category : resourceService.listCategories()) {
+          work.categories.add(category.code());
+        }
+      }
+      if (work.counts || !work.categories.isEmpty()) {
+        publishPages(null);
+        publishCounts();
+      }
+      for (var category : work.categories) {
+        publishPages(category);
+      }
+    } catch (IOException | RuntimeException ex) {
+      // Leave the previous files in place; the next change or restart republishes.
+      log.warn("Static catalog export failed: {}", ex.getMessage(), ex);
+    }
+  }
+
+  private void publishEverything() throws IOException {
+    var categories = resourceService.listCategories();
+    write(Path.of("categories.json"), categories.stream().map(mapper::toCategory).toList());
+    publishCounts();
+    publishPages(null);
+    var codes = new HashSet<String>();
+    for (var category : categories) {
+      codes.add(category.code());
+      publishPages(category.code());
+    }
+    removeUnknown(root.resolve("pages"), name -> name.equals(ALL_PAGES) || codes.contains(name));
+
+    var slugs = new HashSet<String>();
+    forEachPublished(new ResourceDashboardFilter(null, ResourceStatus.PUBLISHED, null, null), slug -> {
+      slugs.add(slug);
+      try {
+        publishDetail(slug);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+    removeUnknown(root.resolve("resources"), name -> slugs.contains(name.replaceFirst("\\.json(\\.gz)?$", "")));
+    log.info("Static catalog export rebuilt: {} resources, {} categories", slugs.size(), categories.size());
+  }
+
+  private void publishCounts() throws IOException {
+    write(Path.of("categories-with-counts.json"),
+      mapper.toCategoryCounts(resourceService.listCategories(), resourceService.publishedCountsByCategory()));
+  }
+
+  // Pages shift whenever a resource enters or leaves the category, so all exported ones are rewritten.
+  private void publishPages(String categoryCode) throws IOException {
+    var dir = Path.of("pages", categoryCode == null ? ALL_PAGES : categoryCode);
+    var known = categoryCode == null || resourceService.categoryCatalog().find(categoryCode).isPresent();
+    for (int page = 1; page <= maxPages; page++) {
+      var result = known ? resourceService.readPublishedPage(categoryCode, page - 1, pageSize) : null;
+      if (result == null || (page > 1 && result.getContent().isEmpty())) {
+        for (int stale = page; stale <= maxPages; stale++) {
+          delete(dir.resolve(stale + ".json"));
+        }
+        return;
+      }
+      write(dir.resolve(page + ".json"),
+        new ResourceListResponse(mapper.toCards(result.getContent()), result.getTotalElements(), page, pageSize));
+    }
+  }
+
+  // Rendered from the database like the pages: the detail cache is evicted by its own
+  // after-commit listener, which may not have run yet when this one marked the slug.
+  private void publishDetail(String slug) throws IOException {
+    var file = Path.of("resources", slug + ".json");
+    try {
+      write(file, mapper.toDetail(resourceService.findPublishedBySlug(slug)));
+    } catch (NotFoundException ex) {
+      delete(file);
+    }
+  }
+
+  private void forEachPublished(ResourceDashboardFilter filter, Consumer<String> slugs) {
+    resourceService.forEachDashboardBatch(filter, EXPORT_BATCH_SIZE, batch -> batch.forEach(card -> slugs.accept(card.slug())));
+  }
+
+  private void write(Path relative, Object body) throws IOException {
+    writeBytes(relative, objectMapper.writeValueAsBytes(body));
+  }
+
+  private void writeBytes(Path relative, byte[] json) throws IOException {
+    var target = root.resolve(relative);
+    if (Files.isRegularFile(target) && Arrays.equals(Files.readAllBytes(target), json)) {
+      return;
+    }
+    Files.createDirectories(target.getParent());
+    replace(target.resolveSibling(target.getFileName() + ".gz"), gzip(json));
+    replace(target, json);
+  }
+
+  private void delete(Path relative) throws IOException {
+    var target = root.resolve(relative);
+    Files.deleteIfExists(target);
+    Files.deleteIfExists(target.resolveSibling(target.getFileName() + ".gz"));
+  }
+
+  private static void replace(Path target, byte[] content) throws IOException {
+    var temp = Files.createTempFile(target.getParent(), ".export-", ".tmp");
+    try {
+      Files.write(temp, content);
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static byte[] gzip(byte[] content) throws IOException {
+    var out = new ByteArrayOutputStream(content.length / 4 + 64);
+    try (var gzip = new GZIPOutputStream(out) {
+      {
+        def.setLevel(Deflater.BEST_COMPRESSION);
+      }
+    }) {
+      gzip.write(content);
+    }
+    return out.toByteArray();
+  }
+
+  private static void removeUnknown(Path dir, Predicate<String> keep) throws IOException {
+    if (!Files.isDirectory(dir)) {
+      return;
+    }
+    try (var entries = Files.list(dir)) {
+      for (var entry : entries.toList()) {
+        if (!keep.test(entry.getFileName().toString())) {
+          deleteRecursively(entry);
+        }
+      }
+    }
+  }
+
+  private static void deleteRecursively(Path path) throws IOException {
+    if (Files.isDirectory(path)) {
+      try (var children = Files.list(path)) {
+        for (var child : children.toList()) {
+          deleteRecursively(child);
+        }
+      }
+    }
+    Files.deleteIfExists(path);
+  }
+
+  private static final class Dirty {
+    private final Set<String> slugs = new LinkedHashSet<>();
+    private final Set<String> categories = new LinkedHashSet<>();
+    private final Set<UUID> authors = new LinkedHashSet<>();
+    private boolean counts;
+    private boolean allPages;
+    private boolean everything;
+  }
+}
@@ -1,19 +1,34 @@
 package md.fizicamd.app.api.resources;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import md.fizicamd.app.api.resources.ResourceDtos;
 import md.fizicamd.app.api.resources.ResourceDtos.CreateResourceRequest;
-import md.fizicamd.app.api.resources.ResourceDtos.TeacherResourceListResponse;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceCursorResponse;
 import md.fizicamd.app.api.resources.ResourceDtos.ResourceDetailDto;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceRevisionDetailDto;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceRevisionDto;
 import md.fizicamd.app.api.resources.ResourceDtos.UpdateResourceRequest;
+import md.fizicamd.app.resources.ResourceBulkImporter;
+import md.fizicamd.app.resources.ResourceBulkImporter.ImportReport;
 import md.fizicamd.app.resources.ResourceContentBlock;
 import md.fizicamd.app.resources.ResourceCreateCommand;
+import md.fizicamd.app.resources.ResourceDashboardFilter;
+import md.fizicamd.app.resources.ResourceRevisions;
 import md.fizicamd.app.resources.ResourceService;
+import md.fizicamd.app.resources.ResourceStatus;
 import md.fizicamd.shared.NotFoundException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,21 +36,74 @@ import java.util.UUID;
 @RequestMapping("/api/teacher/resources")
 @PreAuthorize("hasAnyRole('TEACHER','ADMIN')")
 public class TeacherResourcesController {
+  private static final int STREAM_BATCH_SIZE = 200;
+
   private final ResourceService resourceService;
   private final ResourceMapper mapper;
+  private final ObjectMapper objectMapper;
+  private final ResourceBulkImporter bulkImporter;
+  private final ResourceRevisions revisions;
 
-  public TeacherResourcesController(ResourceService resourceService, ResourceMapper mapper) {
+  public TeacherResourcesController(
+    ResourceService resourceService,
+    ResourceMapper mapper,
+    ObjectMapper objectMapper,
+    ResourceBulkImporter bulkImporter,
+    ResourceRevisions revisions
+  ) {
     this.resourceService = resourceService;
     this.mapper = mapper;
+    this.objectMapper = objectMapper;
+    this.bulkImporter = bulkImporter;
+    this.revisions = revisions;
   }
 
+  /**
+   * Full list as {@code {"items": [...]}}, streamed from a database cursor and hydrated in
+   * batches; for admins this covers every resource without holding them all in memory.
+   */
   @GetMapping
-  public TeacherResourceListResponse myResources(Authentication auth) {
-    var userId = currentUserId(auth);
-    var items = resourceService.listByAuthor(userId, canManageOthers(auth)).stream()
-      .map(mapper::toCard)
-      .toList();
-    return new TeacherResourceListResponse(items);
+  public ResponseEntity<StreamingResponseBody> myResources(
+    Authentication auth,
+    @RequestParam(name = "status", required = false) ResourceStatus status,
+    @RequestParam(name = "category", required = false) String category,
+    @RequestParam(name = "q", required = false) String titlePrefix
+  ) {
+    var filter = ResourceDashboardFilter.of(currentUserId(auth), canManageOthers(auth), status, category, titlePrefix);
+    StreamingResponseBody body = out -> {
+      try (var json = objectMapper.getFactory().createGenerator(out)) {
+        json.writeStartObject();
+        json.writeArrayFieldStart("items");
+        resourceService.forEachDashboardBatch(filter, STREAM_BATCH_SIZE, batch -> {
+          try {
+            for (var card : mapper.toCards(batch)) {
+              json.writeObject(card);
+            }
+            json.flush();
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+        json.writeEndArray();
+        json.writeEndObject();
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  @GetMapping(params = "cursor")
+  public ResourceCursorResponse myResourcesByCursor(
+    Authentication auth,
+    @RequestParam(name = "limit", defaultValue = "20") int limit,
+    @RequestParam(name = "cursor") String cursor,
+    @RequestParam(name = "status", required = false) ResourceStatus status,
+    @RequestParam(name = "category", required = false) String category,
+    @RequestParam(name = "q", required = false) String titlePrefix
+  ) {
+    var safeLimit = Math.max(1, Math.min(limit, 100));
+    var filter = ResourceDashboardFilter.of(currentUserId(auth), canManageOthers(auth), status, category, titlePrefix);
+    var result = resourceService.listDashboard(filter, cursor, safeLimit);
+    return new ResourceCursorResponse(mapper.toCards(result.items()), result.nextCursor(), null, safeLimit);
   }
 
   @PostMapping
@@ -47,6 +115,13 @@ public class TeacherResourcesController {
     return mapper.toDetail(entry);
   }
 
+  /** One JSON resource per line; the report lists failed line numbers instead of aborting. */
+  @PostMapping(path = "/import", consumes = {"application/x-ndjson", "application/jsonl"})
+  @PreAuthorize("hasRole('ADMIN')")
+  public ImportReport importResources(Authentication auth, HttpServletRequest request) throws IOException {
+    return bulkImporter.importNdjson(currentUserId(auth), request.getInputStream());
+  }
+
   @GetMapping("/{resourceId}")
   public ResourceDetailDto detail(@PathVariable UUID resourceId, Authentication auth) {
     var entry = resourceService.findById(resourceId);
@@ -64,6 +139,34 @@ public class TeacherResourcesController {
     return mapper.toDetail(entry);
   }
 
+  @GetMapping("/{resourceId}/revisions")
+  public List<ResourceRevisionDto> revisions(@PathVariable UUID resourceId, Authentication auth) {
+    ensureOwnership(resourceService.findById(resourceId).getAuthorId(), auth);
+    return mapper.toRevisions(revisions.list(resourceId));
+  }
+
+  @GetMapping(path = "/{resourceId}/revisions", params = "at")
+  public ResourceRevisionDetailDto revisionAt(
+    @PathVariable UUID resourceId,
+    @RequestParam(name = "at") Instant at,
+    Authentication auth
+  ) {
+    ensureOwnership(resourceService.findById(resourceId).getAuthorId(), auth);
+    return mapper.toRevision(revisions.reconstructAt(resourceId, at));
+  }
+
+  @GetMapping("/{resourceId}/revisions/{revision}")
+  public ResourceRevisionDetailDto revision(@PathVariable UUID resourceId, @PathVariable int revision, Authentication auth) {
+    ensureOwnership(resourceService.findById(resourceId).getAuthorId(), auth);
+    return mapper.toRevision(revisions.reconstruct(resourceId, revision));
+  }
+
+  @PostMapping("/{resourceId}/revisions/{revision}/restore")
+  public ResourceDetailDto restore(@PathVariable UUID resourceId, @PathVariable int revision, Authentication auth) {
+    var entry = resourceService.restoreRevision(resourceId, revision, currentUserId(auth), canManageOthers(auth));
+    return mapper.toDetail(entry);
+  }
+
   @DeleteMapping("/{resourceId}")
   public void delete(@PathVariable UUID resourceId, Authentication auth) {
     resourceService.deleteResource(resourceId, currentUserId(auth), canManageOthers(auth));
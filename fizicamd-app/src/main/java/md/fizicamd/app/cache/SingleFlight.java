@@ -0,0 +1,65 @@
+package md.fizicamd.app.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical loads: the first caller for a key runs the loader, callers
+ * arriving while it runs wait for and share its result (or exception). Nothing is kept once
+ * the load finishes, so this is not a cache and never serves stale data.
+ */
+public final class SingleFlight<K, V> {
+  private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+  private final Counter loads;
+  private final Counter coalesced;
+
+  public SingleFlight(String name, MeterRegistry meterRegistry) {
+    this.loads = Counter.builder("singleflight.loads")
+      .tag("name", name)
+      .description("Loads actually executed")
+      .register(meterRegistry);
+    this.coalesced = Counter.builder("singleflight.coalesced")
+      .tag("name", name)
+      .description("Calls that joined a load already in flight")
+      .register(meterRegistry);
+  }
+
+  public V execute(K key, Supplier<V> loader) {
+    var flight = new CompletableFuture<V>();
+    var existing = inFlight.putIfAbsent(key, flight);
+    if (existing != null) {
+      coalesced.increment();
+      return await(existing);
+    }
+    loads.increment();
+    try {
+      var value = loader.get();
+      flight.complete(value);
+      return value;
+    } catch (RuntimeException | Error ex) {
+      flight.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(key, flight);
+    }
+  }
+
+  private V await(CompletableFuture<V> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (ex.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw ex;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package md.fizicamd.app.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Serves the cached value immediately and, once it is older than the soft TTL (or was marked
+ * stale), reloads it on the given executor so the next caller gets the fresh one. Only cold
+ * keys and entries past the hard TTL load on the calling thread. Total size is bounded by a
+ * weight budget, typically the serialized size in bytes.
+ */
+public final class StaleWhileRevalidateCache<K, V> {
+  private static final Logger log = LoggerFactory.getLogger(StaleWhileRevalidateCache.class);
+
+  private final String name;
+  private final Cache<K, Slot<V>> slots;
+  private final Function<K, V> loader;
+  private final Executor refreshExecutor;
+  private final long softTtlNanos;
+  private final Timer refreshTimer;
+
+  public StaleWhileRevalidateCache(
+    String name,
+    Function<K, V> loader,
+    ToIntFunction<V> weigher,
+    long maxWeight,
+    Duration softTtl,
+    Duration hardTtl,
+    Executor refreshExecutor,
+    MeterRegistry meterRegistry
+  ) {
+    this.name = name;
+    this.loader = loader;
+    this.refreshExecutor = refreshExecutor;
+    this.softTtlNanos = softTtl.toNanos();
+    this.slots = Caffeine.newBuilder()
+      .maximumWeight(maxWeight)
+      .weigher((K key, Slot<V> slot) -> weigher.applyAsInt(slot.value))
+      .expireAfterWrite(hardTtl)
+      .recordStats()
+      .build();
+    this.refreshTimer = Timer.builder("swr.refresh")
+      .tag("cache", name)
+      .description("Background refresh latency")
+      .register(meterRegistry);
+    CaffeineCacheMetrics.monitor(meterRegistry, slots, name);
+  }
+
+  public V get(K key) {
+    var slot = slots.getIfPresent(key);
+    if (slot == null) {
+      return slots.get(key, this::loadSlot).value;
+    }
+    slot.hits.increment();
+    if (slot.stale || System.nanoTime() - slot.loadedAt > softTtlNanos) {
+      scheduleRefresh(key, slot);
+    }
+    return slot.value;
+  }
+
+  /** Keeps serving current values but refreshes each one on its next access. */
+  public void markAllStale() {
+    slots.asMap().values().forEach(slot -> slot.stale = true);
+  }
+
+  public void invalidateAll() {
+    slots.invalidateAll();
+  }
+
+  public String name() {
+    return name;
+  }
+
+  /** Per-key counters, most requested first. */
+  public List<KeyStats> keyStats(int limit) {
+    var now = System.nanoTime();
+    return slots.asMap().entrySet().stream()
+      .map(entry -> entry.getValue().stats(String.valueOf(entry.getKey()), now))
+      .sorted(Comparator.comparingLong(KeyStats::requests).reversed())
+      .limit(limit)
+      .toList();
+  }
+
+  public long estimatedSize() {
+    return slots.estimatedSize();
+  }
+
+  private Slot<V> loadSlot(K key) {
+    return new Slot<>(loader.apply(key));
+  }
+
+  private void scheduleRefresh(K key, Slot<V> slot) {
+    if (!slot.refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      refreshExecutor.execute(() -> refresh(key, slot));
+    } catch (RejectedExecutionException ex) {
+      slot.refreshing.set(false);
+    }
+  }
+
+  private void refresh(K key, Slot<V> slot) {
+    var started = System.nanoTime();
+    try {
+      var value = loader.apply(key);
+      var elapsed = System.nanoTime() - started;
+      refreshTimer.record(Duration.ofNanos(elapsed));
+      slot.recordRefresh(value, elapsed);
+      // Re-put so the weigher sees the new size; counters travel with the slot.
+      slots.asMap().replace(key, slot, slot);
+    } catch (RuntimeException ex) {
+      // Keep serving the old value; the next access past the soft TTL retries.
+      log.warn("Refresh of {} [{}] failed: {}", name, key, ex.getMessage());
+    } finally {
+      slot.refreshing.set(false);
+    }
+  }
+
+  public record KeyStats(
+    String key,
+    long requests,
+    double hitRatio,
+    long refreshes,
+    double lastRefreshMillis,
+    double averageRefreshMillis,
+    double ageSeconds,
+    boolean stale
+  ) {}
+
+  private static final class Slot<V> {
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private volatile V value;
+    private volatile long loadedAt;
+    private volatile boolean stale;
+    private volatile long refreshes;
+    private volatile long lastRefreshNanos;
+    private volatile long totalRefreshNanos;
+
+    private Slot(V value) {
+      this.value = value;
+      this.loadedAt = System.nanoTime();
+    }
+
+    // Only called by the single refresher holding the refreshing flag.
+    private void recordRefresh(V fresh, long elapsedNanos) {
+      value = fresh;
+      loadedAt = System.nanoTime();
+      stale = false;
+      refreshes++;
+      lastRefreshNanos = elapsedNanos;
+      totalRefreshNanos += elapsedNanos;
+    }
+
+    private KeyStats stats(String key, long now) {
+      var hitCount = hits.sum();
+      // The cold load that created the slot is its only miss.
+      var requests = hitCount + 1;
+      return new KeyStats(
+        key,
+        requests,
+        (double) hitCount / requests,
+        refreshes,
+        lastRefreshNanos / 1_000_000.0,
+        refreshes == 0 ? 0 : totalRefreshNanos / 1_000_000.0 / refreshes,
+        (now - loadedAt) / 1_000_000_000.0,
+        stale
+      );
+    }
+  }
+}
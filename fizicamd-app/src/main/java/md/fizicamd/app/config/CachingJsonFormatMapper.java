@@ -0,0 +1,109 @@
+package md.fizicamd.app.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.hibernate.type.descriptor.java.JavaType;
+import org.hibernate.type.format.FormatMapper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hibernate JSON mapper that remembers what it parsed. Entries are keyed on the target Java
+ * type and the raw JSON text, so reading identical jsonb text again, from any row, returns the
+ * already parsed, unmodifiable list instead of running Jackson again. Only list values are cached because they are the
+ * only JSON attributes we share across sessions without copying. Entries weigh their JSON key
+ * plus an estimate of the parsed graph, so the byte bound roughly tracks heap use.
+ */
+public class CachingJsonFormatMapper implements FormatMapper {
+  private final FormatMapper delegate;
+  private final Cache<Key, Object> parsed;
+
+  public CachingJsonFormatMapper(FormatMapper delegate, long maxWeightBytes) {
+    this.delegate = delegate;
+    this.parsed = Caffeine.newBuilder()
+      .maximumWeight(maxWeightBytes)
+      .weigher((Key key, Object value) -> (int) Math.min(Integer.MAX_VALUE, estimateBytes(key.json()) + estimateBytes(value)))
+      .recordStats()
+      .build();
+  }
+
+  public Cache<?, ?> cache() {
+    return parsed;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T fromString(CharSequence charSequence, JavaType<T> javaType, WrapperOptions wrapperOptions) {
+    if (charSequence == null) {
+      return null;
+    }
+    var key = new Key(javaType.getJavaType(), charSequence.toString());
+    var cached = parsed.getIfPresent(key);
+    if (cached != null) {
+      return (T) cached;
+    }
+    T value = delegate.fromString(key.json(), javaType, wrapperOptions);
+    if (value instanceof List<?> list) {
+      value = (T) Collections.unmodifiableList(list);
+      parsed.put(key, value);
+    }
+    return value;
+  }
+
+  @Override
+  public <T> String toString(T value, JavaType<T> javaType, WrapperOptions wrapperOptions) {
+    return delegate.toString(value, javaType, wrapperOptions);
+  }
+
+  /**
+   * Rough retained size of a parsed JSON value: strings as UTF-16, records and collections as
+   * their headers and references plus their elements. Enums and booleans are shared.
+   */
+  static long estimateBytes(Object value) {
+    if (value == null || value instanceof Enum<?> || value instanceof Boolean) {
+      return 0;
+    }
+    if (value instanceof CharSequence text) {
+      return 40 + 2L * text.length();
+    }
+    if (value instanceof Number || value instanceof UUID) {
+      return 32;
+    }
+    if (value instanceof Collection<?> items) {
+      long size = 40 + 8L * items.size();
+      for (var item : items) {
+        size += estimateBytes(item);
+      }
+      return size;
+    }
+    if (value instanceof Map<?, ?> map) {
+      long size = 48 + 40L * map.size();
+      for (var entry : map.entrySet()) {
+        size += estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+      }
+      return size;
+    }
+    if (value instanceof Record record) {
+      var components = record.getClass().getRecordComponents();
+      long size = 16 + 8L * components.length;
+      for (var component : components) {
+        try {
+          size += estimateBytes(component.getAccessor().invoke(record));
+        } catch (IllegalAccessException | InvocationTargetException ex) {
+          size += 64;
+        }
+      }
+      return size;
+    }
+    return 64;
+  }
+
+  private record Key(Type type, String json) {}
+}
@@ -0,0 +1,26 @@
+package md.fizicamd.app.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.type.format.jackson.JacksonJsonFormatMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateJsonConfig {
+
+  @Bean
+  public HibernatePropertiesCustomizer jsonFormatMapperCustomizer(
+    ObjectMapper objectMapper,
+    MeterRegistry meterRegistry,
+    @Value("${resources.json-cache.max-bytes:33554432}") long maxBytes
+  ) {
+    var mapper = new CachingJsonFormatMapper(new JacksonJsonFormatMapper(objectMapper), maxBytes);
+    CaffeineCacheMetrics.monitor(meterRegistry, mapper.cache(), "resources.json");
+    return properties -> properties.put(AvailableSettings.JSON_FORMAT_MAPPER, mapper);
+  }
+}
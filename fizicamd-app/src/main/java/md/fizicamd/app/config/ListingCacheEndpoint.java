@@ -0,0 +1,34 @@
+package md.fizicamd.app.config;
+
+import md.fizicamd.app.api.resources.PublicListingCache;
+import md.fizicamd.app.cache.StaleWhileRevalidateCache.KeyStats;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/listingcache}: per-key hit ratio and refresh latency of the public listing cache.
+ * The keys carry categories and cursor tokens, so like every actuator endpoint but health and
+ * info it is for admins only (see {@link SecurityConfig}).
+ */
+@Component
+@Endpoint(id = "listingcache")
+public class ListingCacheEndpoint {
+  private static final int MAX_KEYS = 100;
+
+  private final PublicListingCache listingCache;
+
+  public ListingCacheEndpoint(PublicListingCache listingCache) {
+    this.listingCache = listingCache;
+  }
+
+  @ReadOperation
+  public Report report() {
+    var cache = listingCache.cache();
+    return new Report(cache.name(), cache.estimatedSize(), cache.keyStats(MAX_KEYS));
+  }
+
+  public record Report(String name, long entries, List<KeyStats> keys) {}
+}
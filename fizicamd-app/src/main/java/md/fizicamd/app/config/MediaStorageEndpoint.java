@@ -0,0 +1,26 @@
+package md.fizicamd.app.config;
+
+import md.fizicamd.app.media.MediaBlobStore;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/mediastorage}: media disk usage with and without content deduplication. Every
+ * read runs five aggregates over the media tables, so it is for admins only (see
+ * {@link SecurityConfig}).
+ */
+@Component
+@Endpoint(id = "mediastorage")
+public class MediaStorageEndpoint {
+  private final MediaBlobStore blobs;
+
+  public MediaStorageEndpoint(MediaBlobStore blobs) {
+    this.blobs = blobs;
+  }
+
+  @ReadOperation
+  public MediaBlobStore.DiskUsage usage() {
+    return blobs.usage();
+  }
+}
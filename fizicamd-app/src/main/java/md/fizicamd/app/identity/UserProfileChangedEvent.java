@@ -0,0 +1,9 @@
+package md.fizicamd.app.identity;
+
+import md.fizicamd.shared.DomainEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Published whenever a user's profile is written or the user is deleted. */
+public record UserProfileChangedEvent(UUID userId, Instant occurredAt) implements DomainEvent {}
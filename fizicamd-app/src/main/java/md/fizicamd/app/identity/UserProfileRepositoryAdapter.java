@@ -2,8 +2,10 @@ package md.fizicamd.app.identity;
 
 import md.fizicamd.identity.application.UserProfileRepository;
 import md.fizicamd.identity.domain.Profile.UserProfile;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -12,9 +14,11 @@ import java.util.UUID;
 @Component
 public class UserProfileRepositoryAdapter implements UserProfileRepository {
   private final JpaUserProfileRepository repo;
+  private final ApplicationEventPublisher events;
 
-  public UserProfileRepositoryAdapter(JpaUserProfileRepository repo) {
+  public UserProfileRepositoryAdapter(JpaUserProfileRepository repo, ApplicationEventPublisher events) {
     this.repo = repo;
+    this.events = events;
   }
 
   @Override
@@ -24,12 +28,15 @@ public class UserProfileRepositoryAdapter implements UserProfileRepository {
 
   @Override
   public UserProfile save(UserProfile profile) {
-    return repo.save(profile);
+    var saved = repo.save(profile);
+    events.publishEvent(new UserProfileChangedEvent(saved.getUserId(), Instant.now()));
+    return saved;
   }
 
   @Override
   public void deleteById(UUID userId) {
     repo.deleteById(userId);
+    events.publishEvent(new UserProfileChangedEvent(userId, Instant.now()));
   }
 
   @Override
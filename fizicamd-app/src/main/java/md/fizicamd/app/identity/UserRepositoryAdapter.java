@@ -2,18 +2,24 @@ package md.fizicamd.app.identity;
 
 import md.fizicamd.identity.application.UserRepository;
 import md.fizicamd.identity.domain.User;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Component
 public class UserRepositoryAdapter implements UserRepository {
     private final JpaUserRepository repo;
+    private final ApplicationEventPublisher events;
 
-    public UserRepositoryAdapter(JpaUserRepository repo) {
+    public UserRepositoryAdapter(JpaUserRepository repo, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.events = events;
     }
 
     @Override
@@ -44,10 +50,16 @@ public class UserRepositoryAdapter implements UserRepository {
     @Override
     public void deleteById(UUID id) {
         repo.deleteById(id);
+        events.publishEvent(new UserProfileChangedEvent(id, Instant.now()));
     }
 
     @Override
     public boolean existsByEmail(String email) {
         return repo.existsByEmail(email.toLowerCase());
     }
+
+    @Override
+    public List<User> findByIds(Collection<UUID> ids) {
+        return repo.findAllById(ids);
+    }
 }
@@ -1,8 +1,18 @@
 package md.fizicamd.app.media;
 
+import jakarta.persistence.LockModeType;
 import md.fizicamd.media.domain.MediaAsset;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface MediaAssetRepository extends JpaRepository<MediaAsset, UUID> {}
+public interface MediaAssetRepository extends JpaRepository<MediaAsset, UUID> {
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<MediaAsset> findLockedById(UUID id);
+
+  List<MediaAsset> findByStatusAndExpiresAtBefore(String status, Instant cutoff);
+}
@@ -0,0 +1,142 @@
+package md.fizicamd.app.media;
+
+import md.fizicamd.app.media.MediaStorageService.StagedBlob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Reference counts of content-addressed media files ({@code media_blobs}). Acquiring and
+ * cleaning up a hash take the same transaction-scoped advisory lock, so a file is never
+ * removed while another upload is about to reuse it. Files are only removed after the
+ * releasing transaction committed; a periodic sweep catches cleanups a crash interrupted.
+ */
+@Component
+public class MediaBlobStore {
+  private static final Logger log = LoggerFactory.getLogger(MediaBlobStore.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final MediaStorageService storage;
+  private final TransactionTemplate cleanupTransaction;
+
+  public MediaBlobStore(JdbcTemplate jdbcTemplate, MediaStorageService storage, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.storage = storage;
+    this.cleanupTransaction = new TransactionTemplate(transactionManager);
+    this.cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Adds a reference to the staged content, storing it unless an identical file already is.
+   * Must run inside the transaction that saves the referencing asset.
+   */
+  public void acquire(StagedBlob staged) {
+    try {
+      lock(staged.sha256());
+      jdbcTemplate.update("""
+        INSERT INTO media_blobs (sha256, size_bytes, ref_count) VALUES (?, ?, 1)
+        ON CONFLICT (sha256) DO UPDATE SET ref_count = media_blobs.ref_count + 1, updated_at = now()
+        """, staged.sha256(), staged.size());
+      storage.place(staged);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } finally {
+      storage.discard(staged);
+    }
+    afterCompletion(staged.sha256(), false);
+  }
+
+  /** Drops a reference; the file goes once the transaction commits and nothing refers to it. */
+  public void release(String sha256) {
+    jdbcTemplate.update("UPDATE media_blobs SET ref_count = ref_count - 1, updated_at = now() WHERE sha256 = ?", sha256);
+    afterCompletion(sha256, true);
+  }
+
+  /**
+   * Bytes the assets would take stored one file each, against what is on disk: one file per
+   * distinct blob plus the assets stored before content addressing. Open upload sessions are
+   * left out: their partial files are not assets yet.
+   */
+  public DiskUsage usage() {
+    return jdbcTemplate.queryForObject("""
+      SELECT
+        (SELECT COUNT(*) FROM media_assets WHERE status <> ?) AS assets,
+        (SELECT COALESCE(SUM(size_bytes), 0) FROM media_assets WHERE status <> ?) AS logical_bytes,
+        (SELECT COUNT(*) FROM media_blobs WHERE ref_count > 0) AS blobs,
+        (SELECT COALESCE(SUM(size_bytes), 0) FROM media_blobs WHERE ref_count > 0) AS blob_bytes,
+        (SELECT COALESCE(SUM(size_bytes), 0) FROM media_assets
+          WHERE status <> ? AND (bucket <> ? OR sha256 IS NULL)) AS legacy_bytes
+      """, (rs, row) -> {
+      var logical = rs.getLong("logical_bytes");
+      var stored = rs.getLong("blob_bytes") + rs.getLong("legacy_bytes");
+      return new DiskUsage(rs.getLong("assets"), rs.getLong("blobs"), logical, stored, logical - stored);
+    }, MediaUploadSessions.UPLOADING, MediaUploadSessions.UPLOADING, MediaUploadSessions.UPLOADING,
+      MediaStorageService.BLOBS_BUCKET);
+  }
+
+  @Scheduled(
+    initialDelayString = "${media.blobs.sweep-initial-delay:PT10M}",
+    fixedDelayString = "${media.blobs.sweep-interval:PT6H}"
+  )
+  public void sweep() {
+    var unused = jdbcTemplate.queryForList("SELECT sha256 FROM media_blobs WHERE ref_count <= 0", String.class);
+    unused.forEach(this::cleanup);
+    if (!unused.isEmpty()) {
+      log.info("Swept {} unreferenced media blobs", unused.size());
+    }
+  }
+
+  void cleanup(String sha256) {
+    cleanupTransaction.executeWithoutResult(tx -> {
+      lock(sha256);
+      var counts = jdbcTemplate.queryForList("SELECT ref_count FROM media_blobs WHERE sha256 = ?", Integer.class, sha256);
+      if (!counts.isEmpty() && counts.get(0) > 0) {
+        return;
+      }
+      jdbcTemplate.update("DELETE FROM media_blobs WHERE sha256 = ?", sha256);
+      try {
+        storage.deleteBlob(sha256);
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+  }
+
+  private void lock(String sha256) {
+    jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtextextended(?, 0))", sha256);
+  }
+
+  // After a release commits, or after an acquire rolls back (its file may have just been placed).
+  private void afterCompletion(String sha256, boolean onCommit) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      if (onCommit) {
+        cleanup(sha256);
+      }
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if ((status == STATUS_COMMITTED) == onCommit) {
+          try {
+            cleanup(sha256);
+          } catch (RuntimeException ex) {
+            log.warn("Media blob {} cleanup failed; the sweep retries it", sha256, ex);
+          }
+        }
+      }
+    });
+  }
+
+  public record DiskUsage(long assets, long blobs, long logicalBytes, long storedBytes, long savedBytes) {}
+}
@@ -5,27 +5,42 @@ import md.fizicamd.identity.domain.Profile.UserProfile;
 import md.fizicamd.media.domain.MediaAsset;
 import md.fizicamd.media.domain.MediaType;
 import md.fizicamd.shared.NotFoundException;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Service
 public class MediaService {
-  private static final String USERS_BUCKET = "users";
-  private static final String RESOURCES_BUCKET = "resources";
   private final MediaAssetRepository assets;
   private final UserProfileRepository profiles;
   private final MediaStorageService storage;
+  private final MediaBlobStore blobs;
+  private final TransactionTemplate transactionTemplate;
+  private final long maxUploadBytes;
 
-  public MediaService(MediaAssetRepository assets, UserProfileRepository profiles, MediaStorageService storage) {
+  public MediaService(MediaAssetRepository assets, UserProfileRepository profiles, MediaStorageService storage,
+                      MediaBlobStore blobs, TransactionTemplate transactionTemplate,
+                      @Value("${media.upload.max-bytes:104857600}") long maxUploadBytes) {
     this.assets = assets;
     this.profiles = profiles;
     this.storage = storage;
+    this.blobs = blobs;
+    this.transactionTemplate = transactionTemplate;
+    this.maxUploadBytes = maxUploadBytes;
   }
 
   @Transactional
@@ -34,85 +49,80 @@ public class MediaService {
       throw new IllegalArgumentException("Fișierul este gol.");
     }
     var contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
-    var assetId = UUID.randomUUID();
-    var asset = new MediaAsset(
-            assetId,
-            userId,
-            MediaType.AVATAR,
-            contentType,
-            file.getSize(),
-            USERS_BUCKET,
-            assetId.toString(),
-            Instant.now()
-    );
-    asset.setFilename(file.getOriginalFilename());
-    assets.save(asset);
-
-    try {
-      storage.store(descriptor(asset), file);
-    } catch (IOException e) {
-      throw new RuntimeException("Nu am putut salva fișierul.", e);
-    }
-
-    var profile = profiles.findById(userId).orElseGet(() -> new UserProfile(userId));
-    var previousAvatar = profile.getAvatarMediaId();
-    profile.setAvatarMediaId(assetId);
-    profiles.save(profile);
-
-    removeAsset(previousAvatar);
-
+    var assetId = store(userId, MediaType.AVATAR, contentType, file.getOriginalFilename(), file::getInputStream);
+    replaceAvatar(userId, assetId);
     return new UploadResponse(assetId, buildAssetUrl(assetId));
   }
 
+  /**
+   * Avatar sent as the raw request body. The body is read once, straight into the staging file
+   * beside the blobs, before any transaction starts; see {@link #stageBody}.
+   */
+  public UploadResponse uploadAvatar(UUID userId, InputStream body, long declaredLength, String contentType, String filename) {
+    var staged = stageBody(body, declaredLength);
+    return inTransaction(staged, () -> {
+      var assetId = save(userId, MediaType.AVATAR, contentTypeOrDefault(contentType), filename, staged);
+      replaceAvatar(userId, assetId);
+      return new UploadResponse(assetId, buildAssetUrl(assetId));
+    });
+  }
+
   @Transactional
   public UploadResponse uploadResourceAsset(UUID userId, MultipartFile file) {
     if (file == null || file.isEmpty()) {
       throw new IllegalArgumentException("Fișierul este gol.");
     }
     var contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
-    var mediaType = contentType.startsWith("image/") ? MediaType.IMAGE :
-      ("application/pdf".equalsIgnoreCase(contentType) ? MediaType.DOCUMENT : MediaType.OTHER);
+    var assetId = store(userId, resourceMediaType(contentType), contentType, file.getOriginalFilename(), file::getInputStream);
+    return new UploadResponse(assetId, buildAssetUrl(assetId));
+  }
 
-    var assetId = UUID.randomUUID();
-    var asset = new MediaAsset(
-      assetId,
-      userId,
-      mediaType,
-      contentType,
-      file.getSize(),
-      RESOURCES_BUCKET,
-      assetId.toString(),
-      Instant.now()
-    );
-    asset.setFilename(file.getOriginalFilename());
-    assets.save(asset);
+  /** Resource attachment sent as the raw request body; see {@link #uploadAvatar(UUID, InputStream, long, String, String)}. */
+  public UploadResponse uploadResourceAsset(UUID userId, InputStream body, long declaredLength, String contentType, String filename) {
+    var staged = stageBody(body, declaredLength);
+    var type = contentTypeOrDefault(contentType);
+    return inTransaction(staged, () -> {
+      var assetId = save(userId, resourceMediaType(type), type, filename, staged);
+      return new UploadResponse(assetId, buildAssetUrl(assetId));
+    });
+  }
 
+  /** Copies a file already on the server (e.g. an archive's uploads folder) into the media store. */
+  @Transactional
+  public UploadResponse importResourceFile(UUID userId, Path file) {
+    if (!Files.isRegularFile(file)) {
+      throw new IllegalArgumentException("Fișierul nu există.");
+    }
+    var filename = file.getFileName().toString();
+    String contentType;
     try {
-      storage.store(descriptor(asset), file);
+      contentType = Optional.ofNullable(Files.probeContentType(file))
+        .orElseGet(() -> URLConnection.guessContentTypeFromName(filename));
     } catch (IOException e) {
-      throw new RuntimeException("Nu am putut salva fișierul.", e);
+      contentType = null;
     }
-
+    if (contentType == null) {
+      contentType = filename.toLowerCase(Locale.ROOT).endsWith(".pdf") ? "application/pdf" : "application/octet-stream";
+    }
+    var assetId = store(userId, resourceMediaType(contentType), contentType, filename, () -> Files.newInputStream(file));
     return new UploadResponse(assetId, buildAssetUrl(assetId));
   }
 
   @Transactional(readOnly = true)
   public MediaContent loadContent(UUID assetId) {
-    var asset = assets.findById(assetId).orElseThrow(() -> new NotFoundException("Media negăsită"));
-    try {
-      Resource resource = storage.load(descriptor(asset));
-      if (resource == null || !resource.exists()) {
-        throw new NotFoundException("Fișierul nu mai există");
-      }
-      return new MediaContent(asset, resource);
-    } catch (IOException e) {
-      throw new RuntimeException("Nu am putut încărca fișierul media", e);
+    var asset = assets.findById(assetId)
+      .filter(found -> !MediaUploadSessions.UPLOADING.equals(found.getStatus()))
+      .orElseThrow(() -> new NotFoundException("Media negăsită"));
+    var file = storage.locate(descriptor(asset));
+    if (file == null) {
+      throw new NotFoundException("Fișierul nu mai există");
     }
+    return new MediaContent(asset, file);
   }
 
   public record UploadResponse(UUID assetId, String url) {}
 
-  public record MediaContent(MediaAsset asset, Resource resource) {}
+  public record MediaContent(MediaAsset asset, Path file) {}
 
   public static String buildAssetUrl(UUID assetId) {
     return "/media/assets/" + assetId + "/content";
@@ -124,10 +134,104 @@ public class MediaService {
     }
     assets.findById(assetId).ifPresent(asset -> {
       assets.delete(asset);
-      storage.delete(descriptor(asset));
+      if (MediaStorageService.BLOBS_BUCKET.equals(asset.getBucket()) && asset.getSha256() != null) {
+        blobs.release(asset.getSha256());
+      } else {
+        storage.delete(descriptor(asset));
+      }
     });
   }
 
+  /**
+   * Streams the upload to disk while hashing it and saves an asset pointing at its content
+   * address; an identical earlier upload's file is reused.
+   */
+  private UUID store(UUID ownerId, MediaType type, String contentType, String filename, UploadSource source) {
+    MediaStorageService.StagedBlob staged;
+    try (var input = source.open()) {
+      staged = storage.stage(input, maxUploadBytes);
+    } catch (IOException e) {
+      throw new RuntimeException("Nu am putut salva fișierul.", e);
+    }
+    return save(ownerId, type, contentType, filename, staged);
+  }
+
+  /**
+   * Stages a request body, refusing it up front when its declared length is over the limit
+   * and otherwise as soon as the limit is crossed mid-stream.
+   */
+  private MediaStorageService.StagedBlob stageBody(InputStream body, long declaredLength) {
+    if (declaredLength > maxUploadBytes) {
+      throw new MediaTooLargeException(maxUploadBytes);
+    }
+    MediaStorageService.StagedBlob staged;
+    try {
+      staged = storage.stage(body, maxUploadBytes);
+    } catch (IOException e) {
+      throw new RuntimeException("Nu am putut salva fișierul.", e);
+    }
+    if (staged.size() == 0) {
+      storage.discard(staged);
+      throw new IllegalArgumentException("Fișierul este gol.");
+    }
+    return staged;
+  }
+
+  private <T> T inTransaction(MediaStorageService.StagedBlob staged, Supplier<T> work) {
+    try {
+      return transactionTemplate.execute(tx -> work.get());
+    } finally {
+      storage.discard(staged);
+    }
+  }
+
+  private UUID save(UUID ownerId, MediaType type, String contentType, String filename, MediaStorageService.StagedBlob staged) {
+    var assetId = UUID.randomUUID();
+    var location = MediaStorageService.blobDescriptor(assetId, staged.sha256());
+    try {
+      blobs.acquire(staged);
+    } catch (UncheckedIOException e) {
+      throw new RuntimeException("Nu am putut salva fișierul.", e);
+    }
+    var asset = new MediaAsset(
+      assetId,
+      ownerId,
+      type,
+      contentType,
+      staged.size(),
+      location.bucket(),
+      location.storageKey(),
+      Instant.now()
+    );
+    asset.setFilename(filename);
+    asset.setSha256(staged.sha256());
+    assets.save(asset);
+    return assetId;
+  }
+
+  private void replaceAvatar(UUID userId, UUID assetId) {
+    var profile = profiles.findById(userId).orElseGet(() -> new UserProfile(userId));
+    var previousAvatar = profile.getAvatarMediaId();
+    profile.setAvatarMediaId(assetId);
+    profiles.save(profile);
+
+    removeAsset(previousAvatar);
+  }
+
+  private static String contentTypeOrDefault(String contentType) {
+    return contentType != null && !contentType.isBlank() ? contentType : "application/octet-stream";
+  }
+
+  static MediaType resourceMediaType(String contentType) {
+    return contentType.startsWith("image/") ? MediaType.IMAGE :
+      ("application/pdf".equalsIgnoreCase(contentType) ? MediaType.DOCUMENT : MediaType.OTHER);
+  }
+
+  @FunctionalInterface
+  private interface UploadSource {
+    InputStream open() throws IOException;
+  }
+
   private MediaStorageService.MediaAssetDescriptor descriptor(MediaAsset asset) {
     return new MediaStorageService.MediaAssetDescriptor(
       asset.getId(),
@@ -1,47 +1,210 @@
 package md.fizicamd.app.media;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Component;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.UUID;
 
+/**
+ * Files of media assets on local disk. New uploads are content addressed: they are streamed
+ * into a staging file while being hashed, then kept once under {@code blobs/<aa>/<sha256>}.
+ * Assets from before that live under their bucket and storage key. Resumable uploads grow a
+ * partial file under {@code .uploads/} until they are finished.
+ */
 @Component
 public class MediaStorageService {
+  static final String BLOBS_BUCKET = "blobs";
+  static final String UPLOADS_BUCKET = ".uploads";
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
   private final Path baseDir;
+  private final Path stagingDir;
+  private final Path uploadsDir;
 
   public MediaStorageService(@Value("${media.storage.local-path:storage/media}") String baseDir) throws IOException {
     this.baseDir = Path.of(baseDir).toAbsolutePath().normalize();
-    Files.createDirectories(this.baseDir);
+    // Same file system as the blobs, so placing a staged file is an atomic rename.
+    this.stagingDir = this.baseDir.resolve(".staging");
+    Files.createDirectories(this.stagingDir);
+    this.uploadsDir = this.baseDir.resolve(UPLOADS_BUCKET);
+    Files.createDirectories(this.uploadsDir);
+  }
+
+  /** Copies {@code input} to a staging file, computing its SHA-256 on the way. */
+  public StagedBlob stage(InputStream input) throws IOException {
+    return stage(input, Long.MAX_VALUE);
+  }
+
+  /**
+   * Like {@link #stage(InputStream)}, but gives up as soon as more than {@code maxBytes} were
+   * read, so an oversized body is never written out in full.
+   */
+  public StagedBlob stage(InputStream input, long maxBytes) throws IOException {
+    var temp = Files.createTempFile(stagingDir, "upload-", ".tmp");
+    try {
+      var digest = sha256();
+      long size = 0;
+      try (var out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+        var buffer = new byte[COPY_BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) >= 0) {
+          size += read;
+          if (size > maxBytes) {
+            throw new MediaTooLargeException(maxBytes);
+          }
+          out.write(buffer, 0, read);
+        }
+      }
+      return new StagedBlob(temp, HexFormat.of().formatHex(digest.digest()), size);
+    } catch (IOException | RuntimeException ex) {
+      Files.deleteIfExists(temp);
+      throw ex;
+    }
   }
 
-  public String store(MediaAssetDescriptor asset, MultipartFile file) throws IOException {
-    var target = resolveTarget(asset);
+  /**
+   * Moves a staged upload to its content address, or drops it when that content is already
+   * stored. Callers serialize this per hash (see {@link MediaBlobStore}).
+   */
+  void place(StagedBlob staged) throws IOException {
+    var target = blobPath(staged.sha256());
+    if (Files.isRegularFile(target)) {
+      Files.deleteIfExists(staged.file());
+      return;
+    }
     Files.createDirectories(target.getParent());
-    try (var input = file.getInputStream()) {
-      Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
+    try {
+      Files.move(staged.file(), target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException ex) {
+      Files.deleteIfExists(staged.file());
     }
-    return target.toString();
   }
 
-  public Resource load(MediaAssetDescriptor asset) throws IOException {
-    var path = resolveTarget(asset);
-    if (!Files.exists(path)) {
-      var legacy = legacyPath(asset.assetId());
-      if (!Files.exists(legacy)) {
-        return null;
+  public void discard(StagedBlob staged) {
+    try {
+      Files.deleteIfExists(staged.file());
+    } catch (IOException ignored) {
+      // left for the staging directory cleanup
+    }
+  }
+
+  void deleteBlob(String sha256) throws IOException {
+    Files.deleteIfExists(blobPath(sha256));
+  }
+
+  /**
+   * Writes a staged chunk into the partial file of a resumable upload at {@code offset}, first
+   * cutting off anything past it (the tail of a chunk whose commit never happened), and syncs it.
+   */
+  void writeChunk(UUID assetId, long offset, StagedBlob chunk) throws IOException {
+    try (var part = FileChannel.open(partPath(assetId), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+         var source = FileChannel.open(chunk.file(), StandardOpenOption.READ)) {
+      if (part.size() < offset) {
+        throw new IOException("Fișierul parțial al încărcării " + assetId + " are doar " + part.size() + " octeți.");
+      }
+      part.truncate(offset);
+      long written = 0;
+      while (written < chunk.size()) {
+        var count = part.transferFrom(source, offset + written, chunk.size() - written);
+        if (count <= 0) {
+          throw new IOException("Fragmentul s-a scurtat în timpul scrierii.");
+        }
+        written += count;
+      }
+      part.force(false);
+    }
+  }
+
+  /**
+   * Hashes the finished partial file of a resumable upload and returns it as a staged blob,
+   * hard-linked (or, where links are unsupported, copied) into staging so placing it leaves the
+   * partial file in place until the upload's transaction commits.
+   */
+  StagedBlob sealPart(UUID assetId) throws IOException {
+    var temp = stagingDir.resolve("upload-" + UUID.randomUUID() + ".tmp");
+    try {
+      Files.createLink(temp, partPath(assetId));
+    } catch (UnsupportedOperationException | IOException ex) {
+      Files.copy(partPath(assetId), temp);
+    }
+    try {
+      var digest = sha256();
+      try (var in = Files.newInputStream(temp)) {
+        var buffer = new byte[COPY_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+          digest.update(buffer, 0, read);
+        }
+      }
+      return new StagedBlob(temp, HexFormat.of().formatHex(digest.digest()), Files.size(temp));
+    } catch (IOException | RuntimeException ex) {
+      Files.deleteIfExists(temp);
+      throw ex;
+    }
+  }
+
+  void deletePart(UUID assetId) {
+    try {
+      Files.deleteIfExists(partPath(assetId));
+    } catch (IOException ignored) {
+      // picked up again by the stale upload sweep
+    }
+  }
+
+  /** Resumable uploads whose partial file was last written before {@code cutoff}. */
+  List<UUID> partsOlderThan(Instant cutoff) throws IOException {
+    var stale = new ArrayList<UUID>();
+    try (var parts = Files.newDirectoryStream(uploadsDir, "*.part")) {
+      for (var part : parts) {
+        if (Files.getLastModifiedTime(part).toInstant().isBefore(cutoff)) {
+          var name = part.getFileName().toString();
+          try {
+            stale.add(UUID.fromString(name.substring(0, name.length() - ".part".length())));
+          } catch (IllegalArgumentException ignored) {
+            // not ours
+          }
+        }
       }
-      return new UrlResource(legacy.toUri());
     }
-    return new UrlResource(path.toUri());
+    return stale;
+  }
+
+  /** Bucket and storage key of the partial file of a resumable upload. */
+  static MediaAssetDescriptor uploadDescriptor(UUID assetId) {
+    return new MediaAssetDescriptor(assetId, UPLOADS_BUCKET, assetId + ".part");
   }
 
+  /** Bucket and storage key of an asset whose content is the blob {@code sha256}. */
+  static MediaAssetDescriptor blobDescriptor(UUID assetId, String sha256) {
+    return new MediaAssetDescriptor(assetId, BLOBS_BUCKET, blobKey(sha256));
+  }
+
+  /** Stored file of the asset, or {@code null} when it is missing on disk. */
+  public Path locate(MediaAssetDescriptor asset) {
+    var path = resolveTarget(asset);
+    if (Files.isRegularFile(path)) {
+      return path;
+    }
+    var legacy = legacyPath(asset.assetId());
+    return Files.isRegularFile(legacy) ? legacy : null;
+  }
+
+  /** Removes the file of an asset stored before content addressing. */
   public void delete(MediaAssetDescriptor asset) {
     var path = resolveTarget(asset);
     try {
@@ -52,6 +215,18 @@ public class MediaStorageService {
     }
   }
 
+  private Path blobPath(String sha256) {
+    return baseDir.resolve(BLOBS_BUCKET).resolve(blobKey(sha256));
+  }
+
+  private Path partPath(UUID assetId) {
+    return uploadsDir.resolve(assetId + ".part");
+  }
+
+  private static String blobKey(String sha256) {
+    return sha256.substring(0, 2) + "/" + sha256;
+  }
+
   private Path resolveTarget(MediaAssetDescriptor asset) {
     var bucket = (asset.bucket() == null || asset.bucket().isBlank()) ? "default" : asset.bucket();
     var storageKey = asset.storageKey() != null ? asset.storageKey() : asset.assetId().toString();
@@ -62,5 +237,16 @@ public class MediaStorageService {
     return baseDir.resolve(assetId.toString());
   }
 
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
   public record MediaAssetDescriptor(UUID assetId, String bucket, String storageKey) {}
+
+  /** An upload written to the staging directory, not yet placed under its content address. */
+  public record StagedBlob(Path file, String sha256, long size) {}
 }
@@ -0,0 +1,19 @@
+package md.fizicamd.app.media;
+
+/** An upload, or a chunk of a resumable one, went over its size limit. */
+public class MediaTooLargeException extends RuntimeException {
+  private final long maxBytes;
+
+  public MediaTooLargeException(long maxBytes) {
+    this("Fișierul depășește dimensiunea maximă de " + (maxBytes / (1024 * 1024)) + " MB.", maxBytes);
+  }
+
+  public MediaTooLargeException(String message, long maxBytes) {
+    super(message);
+    this.maxBytes = maxBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+}
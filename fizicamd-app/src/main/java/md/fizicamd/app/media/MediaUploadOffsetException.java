@@ -0,0 +1,15 @@
+package md.fizicamd.app.media;
+
+/** A resumable upload chunk did not start where the committed bytes end. */
+public class MediaUploadOffsetException extends RuntimeException {
+  private final long committedOffset;
+
+  public MediaUploadOffsetException(long committedOffset) {
+    super("Fragmentul trebuie să înceapă la octetul " + committedOffset + ".");
+    this.committedOffset = committedOffset;
+  }
+
+  public long getCommittedOffset() {
+    return committedOffset;
+  }
+}
@@ -0,0 +1,257 @@
+package md.fizicamd.app.media;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import md.fizicamd.media.domain.MediaAsset;
+import md.fizicamd.shared.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resumable uploads of large resource attachments. A session is a media asset in status
+ * {@code UPLOADING}: its {@code size_bytes} are the bytes committed so far, the announced length
+ * sits in its metadata and {@code expires_at} moves forward with every chunk. Chunks are staged
+ * and checked against their SHA-256 before they are written into the partial file, under the
+ * asset's row lock, so the committed offset is always the length of verified data. Finishing
+ * the session turns it into an ordinary content-addressed asset under the same id.
+ */
+@Service
+public class MediaUploadSessions {
+  private static final Logger log = LoggerFactory.getLogger(MediaUploadSessions.class);
+  static final String UPLOADING = "UPLOADING";
+  private static final String READY = "READY";
+
+  private final MediaAssetRepository assets;
+  private final MediaStorageService storage;
+  private final MediaBlobStore blobs;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final long maxSessionBytes;
+  private final long maxChunkBytes;
+  private final Duration sessionTtl;
+
+  public MediaUploadSessions(
+    MediaAssetRepository assets,
+    MediaStorageService storage,
+    MediaBlobStore blobs,
+    TransactionTemplate transactionTemplate,
+    ObjectMapper objectMapper,
+    @Value("${media.upload.session-max-bytes:524288000}") long maxSessionBytes,
+    @Value("${media.upload.chunk-max-bytes:16777216}") long maxChunkBytes,
+    @Value("${media.upload.session-ttl:PT24H}") Duration sessionTtl
+  ) {
+    this.assets = assets;
+    this.storage = storage;
+    this.blobs = blobs;
+    this.transactionTemplate = transactionTemplate;
+    this.objectMapper = objectMapper;
+    this.maxSessionBytes = maxSessionBytes;
+    this.maxChunkBytes = maxChunkBytes;
+    this.sessionTtl = sessionTtl;
+  }
+
+  public UploadSession open(UUID ownerId, String filename, String contentType, long length) {
+    if (length <= 0) {
+      throw new IllegalArgumentException("Fișierul este gol.");
+    }
+    if (length > maxSessionBytes) {
+      throw new MediaTooLargeException(maxSessionBytes);
+    }
+    var type = contentType != null && !contentType.isBlank() ? contentType : "application/octet-stream";
+    var assetId = UUID.randomUUID();
+    var location = MediaStorageService.uploadDescriptor(assetId);
+    var asset = new MediaAsset(assetId, ownerId, MediaService.resourceMediaType(type), type, 0,
+      location.bucket(), location.storageKey(), Instant.now());
+    asset.setFilename(filename);
+    asset.setStatus(UPLOADING);
+    asset.setExpiresAt(Instant.now().plus(sessionTtl));
+    asset.setMetadata(writeLength(length));
+    return transactionTemplate.execute(tx -> toSession(assets.save(asset)));
+  }
+
+  /** Where the session stands, e.g. to find the offset to resume from after a disconnect. */
+  public UploadSession get(UUID ownerId, UUID sessionId) {
+    return toSession(transactionTemplate.execute(tx -> session(ownerId, assets.findById(sessionId))));
+  }
+
+  /**
+   * Appends a chunk starting at {@code offset}, which must be the committed offset. The chunk is
+   * dropped unless its SHA-256 is {@code sha256} (hex).
+   */
+  public UploadSession appendChunk(UUID ownerId, UUID sessionId, long offset, String sha256, InputStream body, long declaredLength) {
+    if (sha256 == null || sha256.isBlank()) {
+      throw new IllegalArgumentException("Lipsește suma de control a fragmentului.");
+    }
+    if (declaredLength > maxChunkBytes) {
+      throw chunkTooLarge();
+    }
+    MediaStorageService.StagedBlob chunk;
+    try {
+      chunk = storage.stage(body, maxChunkBytes);
+    } catch (MediaTooLargeException ex) {
+      throw chunkTooLarge();
+    } catch (IOException ex) {
+      throw new RuntimeException("Nu am putut salva fragmentul.", ex);
+    }
+    try {
+      if (chunk.size() == 0) {
+        throw new IllegalArgumentException("Fragmentul este gol.");
+      }
+      if (!chunk.sha256().equalsIgnoreCase(sha256.trim())) {
+        throw new IllegalArgumentException("Suma de control a fragmentului nu corespunde; retrimiteți-l.");
+      }
+      return transactionTemplate.execute(tx -> {
+        var asset = session(ownerId, assets.findLockedById(sessionId));
+        if (offset != asset.getSizeBytes()) {
+          throw new MediaUploadOffsetException(asset.getSizeBytes());
+        }
+        if (offset + chunk.size() > readLength(asset)) {
+          throw new IllegalArgumentException("Fragmentul depășește lungimea anunțată a fișierului.");
+        }
+        try {
+          storage.writeChunk(sessionId, offset, chunk);
+        } catch (IOException ex) {
+          throw new UncheckedIOException("Nu am putut salva fragmentul.", ex);
+        }
+        asset.setSizeBytes(offset + chunk.size());
+        asset.setExpiresAt(Instant.now().plus(sessionTtl));
+        return toSession(asset);
+      });
+    } finally {
+      storage.discard(chunk);
+    }
+  }
+
+  /**
+   * Turns a fully uploaded session into a ready asset, deduplicated like any other upload. When
+   * {@code sha256} is given the whole file must hash to it.
+   */
+  public MediaService.UploadResponse complete(UUID ownerId, UUID sessionId, String sha256) {
+    var pending = transactionTemplate.execute(tx -> session(ownerId, assets.findById(sessionId)));
+    if (pending.getSizeBytes() != readLength(pending)) {
+      throw new IllegalArgumentException("Încărcarea nu este completă: " + pending.getSizeBytes() + " din "
+        + readLength(pending) + " octeți.");
+    }
+    MediaStorageService.StagedBlob staged;
+    try {
+      staged = storage.sealPart(sessionId);
+    } catch (IOException ex) {
+      throw new RuntimeException("Nu am putut salva fișierul.", ex);
+    }
+    try {
+      if (sha256 != null && !sha256.isBlank() && !staged.sha256().equalsIgnoreCase(sha256.trim())) {
+        throw new IllegalArgumentException("Suma de control a fișierului nu corespunde.");
+      }
+      transactionTemplate.executeWithoutResult(tx -> {
+        var asset = session(ownerId, assets.findLockedById(sessionId));
+        if (asset.getSizeBytes() != staged.size()) {
+          throw new MediaUploadOffsetException(asset.getSizeBytes());
+        }
+        blobs.acquire(staged);
+        var location = MediaStorageService.blobDescriptor(sessionId, staged.sha256());
+        asset.setLocation(location.bucket(), location.storageKey());
+        asset.setSha256(staged.sha256());
+        asset.setStatus(READY);
+        asset.setExpiresAt(null);
+        asset.setMetadata("{}");
+      });
+    } finally {
+      storage.discard(staged);
+    }
+    storage.deletePart(sessionId);
+    return new MediaService.UploadResponse(sessionId, MediaService.buildAssetUrl(sessionId));
+  }
+
+  public void abort(UUID ownerId, UUID sessionId) {
+    transactionTemplate.executeWithoutResult(tx -> assets.delete(session(ownerId, assets.findLockedById(sessionId))));
+    storage.deletePart(sessionId);
+  }
+
+  /**
+   * Drops sessions past {@code expires_at}, then partial files untouched for a whole session
+   * lifetime that no session owns any more (left by a crash between commit and file removal).
+   */
+  @Scheduled(
+    initialDelayString = "${media.upload.cleanup-initial-delay:PT15M}",
+    fixedDelayString = "${media.upload.cleanup-interval:PT1H}"
+  )
+  public void purgeExpired() {
+    var now = Instant.now();
+    var expired = assets.findByStatusAndExpiresAtBefore(UPLOADING, now);
+    for (var candidate : expired) {
+      var removed = transactionTemplate.execute(tx -> assets.findLockedById(candidate.getId())
+        .filter(asset -> UPLOADING.equals(asset.getStatus()) && asset.getExpiresAt().isBefore(now))
+        .map(asset -> {
+          assets.delete(asset);
+          return true;
+        })
+        .orElse(false));
+      if (Boolean.TRUE.equals(removed)) {
+        storage.deletePart(candidate.getId());
+      }
+    }
+    var orphans = 0;
+    try {
+      for (var id : storage.partsOlderThan(now.minus(sessionTtl))) {
+        var owned = assets.findById(id).filter(asset -> UPLOADING.equals(asset.getStatus())).isPresent();
+        if (!owned) {
+          storage.deletePart(id);
+          orphans++;
+        }
+      }
+    } catch (IOException ex) {
+      log.warn("Could not scan partial uploads", ex);
+    }
+    if (!expired.isEmpty() || orphans > 0) {
+      log.info("Purged {} expired upload sessions and {} orphaned partial files", expired.size(), orphans);
+    }
+  }
+
+  private static MediaAsset session(UUID ownerId, Optional<MediaAsset> found) {
+    return found
+      .filter(asset -> UPLOADING.equals(asset.getStatus()) && asset.getOwnerUserId().equals(ownerId))
+      .orElseThrow(() -> new NotFoundException("Sesiunea de încărcare nu există sau a expirat"));
+  }
+
+  private MediaTooLargeException chunkTooLarge() {
+    return new MediaTooLargeException(
+      "Fragmentul depășește dimensiunea maximă de " + (maxChunkBytes / (1024 * 1024)) + " MB.", maxChunkBytes);
+  }
+
+  private UploadSession toSession(MediaAsset asset) {
+    return new UploadSession(asset.getId(), asset.getFilename(), asset.getSizeBytes(), readLength(asset),
+      maxChunkBytes, asset.getExpiresAt());
+  }
+
+  private String writeLength(long length) {
+    try {
+      return objectMapper.writeValueAsString(Map.of("uploadLength", length));
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private long readLength(MediaAsset asset) {
+    try {
+      return objectMapper.readTree(asset.getMetadata()).path("uploadLength").asLong();
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /** {@code offset} is the number of bytes committed; the next chunk starts there. */
+  public record UploadSession(UUID id, String filename, long offset, long length, long maxChunkBytes, Instant expiresAt) {}
+}
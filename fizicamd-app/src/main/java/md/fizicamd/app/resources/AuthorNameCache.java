@@ -0,0 +1,56 @@
+package md.fizicamd.app.resources;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import md.fizicamd.app.identity.UserProfileChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of resolved author display names. Entries expire after the configured TTL
+ * and are dropped as soon as a profile write or user deletion commits.
+ */
+@Component
+public class AuthorNameCache {
+  private final Cache<UUID, String> names;
+
+  public AuthorNameCache(
+    MeterRegistry meterRegistry,
+    @Value("${resources.author-cache.max-size:2000}") long maxSize,
+    @Value("${resources.author-cache.ttl:10m}") Duration ttl
+  ) {
+    this.names = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterWrite(ttl)
+      .recordStats()
+      .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, names, "resources.authors");
+  }
+
+  public String get(UUID authorId, Function<UUID, String> loader) {
+    return names.get(authorId, loader);
+  }
+
+  public Map<UUID, String> getAll(Collection<UUID> authorIds, Function<Set<? extends UUID>, Map<UUID, String>> loader) {
+    return names.getAll(authorIds, loader);
+  }
+
+  public void invalidate(UUID authorId) {
+    names.invalidate(authorId);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProfileChanged(UserProfileChangedEvent event) {
+    invalidate(event.userId());
+  }
+}
@@ -0,0 +1,5 @@
+package md.fizicamd.app.resources;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> items, String nextCursor) {}
@@ -0,0 +1,77 @@
+package md.fizicamd.app.resources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Locking and loading for an in-memory index of published resources that resource events keep
+ * current. The initial query runs without the lock; events arriving meanwhile are queued and
+ * handed over with its result, since changes committed while it ran may be missing from it.
+ */
+final class EventFedIndex {
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final List<ResourceChangedEvent> pendingWhileLoading = new ArrayList<>();
+  private boolean loading;
+
+  /**
+   * Runs {@code query}, then {@code install} under the write lock with its result and the events
+   * to replay on top of it, in commit order.
+   */
+  void load(Supplier<List<ResourceCard>> query, BiConsumer<List<ResourceCard>, List<ResourceChangedEvent>> install) {
+    write(() -> loading = true);
+    List<ResourceCard> published;
+    try {
+      published = query.get();
+    } catch (RuntimeException ex) {
+      write(() -> {
+        // Nothing to replay onto; the queued events are lost with the failed load.
+        pendingWhileLoading.clear();
+        loading = false;
+      });
+      throw ex;
+    }
+    write(() -> {
+      install.accept(published, List.copyOf(pendingWhileLoading));
+      pendingWhileLoading.clear();
+      loading = false;
+    });
+  }
+
+  /** Applies {@code event} under the write lock, or queues it while a load is running. */
+  void onChange(ResourceChangedEvent event, Consumer<ResourceChangedEvent> apply) {
+    write(() -> {
+      if (loading) {
+        pendingWhileLoading.add(event);
+      } else {
+        apply.accept(event);
+      }
+    });
+  }
+
+  /** Whether a load is in progress; only meaningful while holding the lock. */
+  boolean loading() {
+    return loading;
+  }
+
+  <T> T read(Supplier<T> action) {
+    lock.readLock().lock();
+    try {
+      return action.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  void write(Runnable action) {
+    lock.writeLock().lock();
+    try {
+      action.run();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
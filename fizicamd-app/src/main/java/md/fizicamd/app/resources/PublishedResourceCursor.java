@@ -0,0 +1,100 @@
+package md.fizicamd.app.resources;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Walks published resources with a forward-only JDBC cursor, reading only the columns feeds
+ * need (no content blocks). Rows are handed to the consumer as they arrive, so a full walk
+ * holds one fetch batch in memory. Postgres only streams inside a transaction, hence the
+ * read-only one around each walk.
+ */
+@Component
+public class PublishedResourceCursor {
+  private static final int FETCH_SIZE = 500;
+
+  private static final String COLUMNS = """
+    SELECT id, slug, title, summary, category_code, published_at, updated_at
+    FROM resource_entries
+    """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnly;
+
+  public PublishedResourceCursor(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+  }
+
+  /** Oldest first, so new resources land at the end and earlier sitemap files stay stable. */
+  public void forEachPublished(long offset, int limit, Consumer<Row> consumer) {
+    walk(COLUMNS + """
+      WHERE status = 'PUBLISHED'
+      ORDER BY published_at, id
+      OFFSET ? LIMIT ?
+      """, consumer, offset, limit);
+  }
+
+  /** Newest first, like the public listing of the category. */
+  public void forEachPublishedInCategory(String categoryCode, Consumer<Row> consumer) {
+    walk(COLUMNS + """
+      WHERE category_code = ? AND status = 'PUBLISHED'
+      ORDER BY published_at DESC, id DESC
+      """, consumer, categoryCode);
+  }
+
+  /**
+   * Latest {@code updated_at} among the category's resources, unpublished ones included so that
+   * taking a resource out of the feed also moves it. Empty when the category has none.
+   */
+  public Optional<Instant> lastChangeInCategory(String categoryCode) {
+    var last = jdbcTemplate.queryForObject(
+      "SELECT max(updated_at) FROM resource_entries WHERE category_code = ?", Timestamp.class, categoryCode);
+    return Optional.ofNullable(last).map(Timestamp::toInstant);
+  }
+
+  private void walk(String sql, Consumer<Row> consumer, Object... params) {
+    readOnly.executeWithoutResult(tx -> jdbcTemplate.query(
+      connection -> {
+        var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(FETCH_SIZE);
+        for (int i = 0; i < params.length; i++) {
+          statement.setObject(i + 1, params[i]);
+        }
+        return statement;
+      },
+      rs -> {
+        var published = rs.getTimestamp("published_at");
+        consumer.accept(new Row(
+          rs.getObject("id", UUID.class),
+          rs.getString("slug"),
+          rs.getString("title"),
+          rs.getString("summary"),
+          rs.getString("category_code"),
+          published == null ? null : published.toInstant(),
+          rs.getTimestamp("updated_at").toInstant()
+        ));
+      }
+    ));
+  }
+
+  public record Row(
+    UUID id,
+    String slug,
+    String title,
+    String summary,
+    String categoryCode,
+    Instant publishedAt,
+    Instant updatedAt
+  ) {}
+}
@@ -0,0 +1,6 @@
+package md.fizicamd.app.resources;
+
+import java.util.List;
+
+/** One step of a content delta: copy {@code keep} blocks, skip {@code drop}, then add {@code insert}. */
+public record ResourceBlockEdit(int keep, int drop, List<ResourceContentBlock> insert) {}
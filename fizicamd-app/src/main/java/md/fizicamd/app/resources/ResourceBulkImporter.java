@@ -0,0 +1,311 @@
+package md.fizicamd.app.resources;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Creates resources in bulk. Lines are validated in memory (categories come from the catalog),
+ * then each chunk gets its slugs from a single prefix query and is inserted with one JDBC batch
+ * in its own transaction. A chunk the database rejects is retried line by line, so one bad line
+ * (e.g. an unknown asset id) only fails itself.
+ */
+@Service
+public class ResourceBulkImporter {
+  public static final int CHUNK_SIZE = 500;
+  private static final int MAX_REPORTED_ERRORS = 1000;
+
+  private static final String INSERT_SQL = """
+    INSERT INTO resource_entries (id, category_code, author_id, title, slug, summary, avatar_media_id,
+      content, tags, status, published_at, created_at, updated_at)
+    VALUES (?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?, ?, ?, ?)
+    """;
+  private static final String TAKEN_SLUGS = """
+    SELECT taken.slug
+    FROM unnest(?::text[]) AS b(base)
+    CROSS JOIN LATERAL (
+      SELECT slug FROM resource_entries
+      WHERE slug ~>=~ b.base AND slug ~<~ (b.base || chr(1114111))
+    ) taken
+    """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ResourceCategoryCatalog categoryCatalog;
+  private final ResourceCategoryCounts categoryCounts;
+  private final ApplicationEventPublisher events;
+  private final ObjectMapper objectMapper;
+
+  public ResourceBulkImporter(
+    JdbcTemplate jdbcTemplate,
+    TransactionTemplate transactionTemplate,
+    ResourceCategoryCatalog categoryCatalog,
+    ResourceCategoryCounts categoryCounts,
+    ApplicationEventPublisher events,
+    ObjectMapper objectMapper
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.categoryCatalog = categoryCatalog;
+    this.categoryCounts = categoryCounts;
+    this.events = events;
+    this.objectMapper = objectMapper;
+  }
+
+  /** Reads one JSON {@link ResourceImportLine} per line; blank lines are skipped. */
+  public ImportReport importNdjson(UUID authorId, InputStream input) {
+    var report = new ReportBuilder();
+    var chunk = new ArrayList<ImportItem>(CHUNK_SIZE);
+    try (var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      long lineNumber = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          chunk.add(new ImportItem(lineNumber, objectMapper.readValue(line, ResourceImportLine.class)));
+        } catch (JsonProcessingException ex) {
+          report.add(new ImportError(lineNumber, "JSON invalid: " + ex.getOriginalMessage()));
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+          report.add(importBatch(authorId, chunk));
+          chunk.clear();
+        }
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    if (!chunk.isEmpty()) {
+      report.add(importBatch(authorId, chunk));
+    }
+    return report.build();
+  }
+
+  /** Validates and inserts up to {@link #CHUNK_SIZE} items; never throws for bad items. */
+  public BatchResult importBatch(UUID authorId, List<ImportItem> items) {
+    return importBatch(authorId, items, created -> {});
+  }
+
+  /**
+   * Like {@link #importBatch(UUID, List)}; {@code recordCreated} runs inside each insert
+   * transaction with the resources it created, so the caller's bookkeeping commits with them.
+   */
+  public BatchResult importBatch(UUID authorId, List<ImportItem> items, Consumer<List<ImportedResource>> recordCreated) {
+    var errors = new ArrayList<ImportError>();
+    var rows = new ArrayList<Row>(items.size());
+    var catalog = categoryCatalog.snapshot();
+    for (var item : items) {
+      try {
+        rows.add(validate(authorId, item, catalog));
+      } catch (IllegalArgumentException ex) {
+        errors.add(new ImportError(item.line(), ex.getMessage()));
+      }
+    }
+    var created = new ArrayList<ImportedResource>(rows.size());
+    if (rows.isEmpty()) {
+      return new BatchResult(created, errors);
+    }
+    try {
+      created.addAll(insert(rows, recordCreated));
+    } catch (DataAccessException batchFailure) {
+      for (var row : rows) {
+        try {
+          created.addAll(insert(List.of(row), recordCreated));
+        } catch (DataAccessException ex) {
+          errors.add(new ImportError(row.line(), "Resursa nu a putut fi salvată: " + ex.getMostSpecificCause().getMessage()));
+        }
+      }
+    }
+    return new BatchResult(created, errors);
+  }
+
+  private Row validate(UUID authorId, ImportItem item, ResourceCategoryCatalog.Snapshot catalog) {
+    var data = item.data();
+    if (data == null) {
+      throw new IllegalArgumentException("Datele resursei lipsesc");
+    }
+    var category = catalog.find(data.categoryCode())
+      .orElseThrow(() -> new IllegalArgumentException("Categoria selectată nu există."));
+    var title = Optional.ofNullable(data.title()).map(String::trim).orElse("");
+    var summary = Optional.ofNullable(data.summary()).map(String::trim).orElse("");
+    if (title.isBlank() || summary.isBlank()) {
+      throw new IllegalArgumentException("Titlul și descrierea sunt obligatorii.");
+    }
+    var status = Optional.ofNullable(data.status()).orElse(ResourceStatus.PUBLISHED);
+    var createdAt = Optional.ofNullable(data.publishedAt()).orElseGet(Instant::now);
+    var slugBase = TextFolding.slugify(Optional.ofNullable(data.slug()).filter(s -> !s.isBlank()).orElse(title));
+    return new Row(
+      item.line(),
+      UUID.randomUUID(),
+      category.code(),
+      authorId,
+      title,
+      slugBase,
+      summary,
+      data.avatarAssetId(),
+      ResourceService.validateBlocks(data.blocks()),
+      ResourceService.cleanTags(data.tags()),
+      status,
+      status == ResourceStatus.PUBLISHED ? createdAt : null,
+      createdAt
+    );
+  }
+
+  private List<ImportedResource> insert(List<Row> rows, Consumer<List<ImportedResource>> recordCreated) {
+    return transactionTemplate.execute(tx -> {
+      var slugs = allocateSlugs(rows);
+      // Archive dates stay in published_at/created_at; updated_at is when the row was written,
+      // which is what the change feed and the revision backfill go by.
+      var now = Instant.now();
+      var params = new ArrayList<Object[]>(rows.size());
+      for (var row : rows) {
+        params.add(new Object[] {
+          row.id(),
+          row.categoryCode(),
+          row.authorId(),
+          row.title(),
+          slugs.get(row),
+          row.summary(),
+          row.avatarAssetId(),
+          toJson(row.blocks()),
+          toJson(row.tags()),
+          row.status().name(),
+          row.publishedAt() == null ? null : Timestamp.from(row.publishedAt()),
+          Timestamp.from(row.createdAt()),
+          Timestamp.from(now)
+        });
+      }
+      jdbcTemplate.batchUpdate(INSERT_SQL, params);
+
+      var publishedPerCategory = new HashMap<String, Long>();
+      var created = new ArrayList<ImportedResource>(rows.size());
+      for (var row : rows) {
+        var card = row.toCard(slugs.get(row), now);
+        if (row.status() == ResourceStatus.PUBLISHED) {
+          publishedPerCategory.merge(row.categoryCode(), 1L, Long::sum);
+        }
+        events.publishEvent(new ResourceChangedEvent(row.id(), null, card, now));
+        created.add(new ImportedResource(row.line(), row.id(), card.slug()));
+      }
+      publishedPerCategory.forEach(categoryCounts::addPublished);
+      recordCreated.accept(created);
+      return created;
+    });
+  }
+
+  // One query returns every taken slug that starts with one of the chunk's bases; suffixes are
+  // then assigned in memory, also avoiding collisions inside the chunk. Each base is a range
+  // [base, base || U+10FFFF) that idx_resource_entries_slug_pattern serves with one index scan
+  // (LIKE ANY would never use it).
+  private Map<Row, String> allocateSlugs(List<Row> rows) {
+    var bases = new LinkedHashSet<String>();
+    for (var row : rows) {
+      bases.add(row.slugBase());
+    }
+    Set<String> taken = new HashSet<>(jdbcTemplate.query(
+      connection -> {
+        var statement = connection.prepareStatement(TAKEN_SLUGS);
+        statement.setArray(1, connection.createArrayOf("text", bases.toArray()));
+        return statement;
+      },
+      (rs, rowNum) -> rs.getString(1)
+    ));
+    var slugs = new HashMap<Row, String>();
+    for (var row : rows) {
+      var candidate = row.slugBase();
+      int counter = 2;
+      while (!taken.add(candidate)) {
+        candidate = row.slugBase() + "-" + counter;
+        counter++;
+      }
+      slugs.put(row, candidate);
+    }
+    return slugs;
+  }
+
+  private String toJson(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  public record ImportItem(long line, ResourceImportLine data) {}
+
+  public record ImportError(long line, String message) {}
+
+  public record ImportedResource(long line, UUID id, String slug) {}
+
+  public record BatchResult(List<ImportedResource> created, List<ImportError> errors) {}
+
+  public record ImportReport(int imported, int failed, List<ImportError> errors) {}
+
+  private record Row(
+    long line,
+    UUID id,
+    String categoryCode,
+    UUID authorId,
+    String title,
+    String slugBase,
+    String summary,
+    UUID avatarAssetId,
+    List<ResourceContentBlock> blocks,
+    List<String> tags,
+    ResourceStatus status,
+    Instant publishedAt,
+    Instant createdAt
+  ) {
+    ResourceCard toCard(String slug, Instant updatedAt) {
+      return new ResourceCard(id, categoryCode, authorId, title, slug, summary, avatarAssetId, tags, status,
+        publishedAt, createdAt, updatedAt);
+    }
+  }
+
+  private static final class ReportBuilder {
+    private final List<ImportError> errors = new ArrayList<>();
+    private int imported;
+    private int failed;
+
+    void add(ImportError error) {
+      failed++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(error);
+      }
+    }
+
+    void add(BatchResult result) {
+      imported += result.created().size();
+      result.errors().forEach(this::add);
+    }
+
+    ImportReport build() {
+      return new ImportReport(imported, failed, List.copyOf(errors));
+    }
+  }
+}
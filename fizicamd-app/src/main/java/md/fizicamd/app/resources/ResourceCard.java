@@ -0,0 +1,41 @@
+package md.fizicamd.app.resources;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The columns of a resource needed to render a card. Listing queries select this projection
+ * so the potentially large {@code content} jsonb never leaves Postgres.
+ */
+public record ResourceCard(
+  UUID id,
+  String categoryCode,
+  UUID authorId,
+  String title,
+  String slug,
+  String summary,
+  UUID avatarMediaId,
+  List<String> tags,
+  ResourceStatus status,
+  Instant publishedAt,
+  Instant createdAt,
+  Instant updatedAt
+) {
+  public static ResourceCard of(ResourceEntry entry) {
+    return new ResourceCard(
+      entry.getId(),
+      entry.getCategoryCode(),
+      entry.getAuthorId(),
+      entry.getTitle(),
+      entry.getSlug(),
+      entry.getSummary(),
+      entry.getAvatarMediaId(),
+      entry.getTags(),
+      entry.getStatus(),
+      entry.getPublishedAt(),
+      entry.getCreatedAt(),
+      entry.getUpdatedAt()
+    );
+  }
+}
@@ -0,0 +1,33 @@
+package md.fizicamd.app.resources;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the public catalog (published resources and categories) as seen by this
+ * instance. It only moves after a committed change that is visible publicly, so documents
+ * rendered from the catalog can be cached until it moves.
+ */
+@Component
+public class ResourceCatalogVersion {
+  // Seeded from the clock so versions (and ETags built from them) differ across restarts.
+  private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+  public long current() {
+    return version.get();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onResourceChanged(ResourceChangedEvent event) {
+    if (event.publishedBefore() || event.publishedNow()) {
+      version.incrementAndGet();
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoriesChanged(ResourceCategoriesChangedEvent event) {
+    version.incrementAndGet();
+  }
+}
@@ -0,0 +1,7 @@
+package md.fizicamd.app.resources;
+
+import md.fizicamd.shared.DomainEvent;
+
+import java.time.Instant;
+
+public record ResourceCategoriesChangedEvent(Instant occurredAt) implements DomainEvent {}
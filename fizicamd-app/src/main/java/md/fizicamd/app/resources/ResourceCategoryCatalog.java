@@ -0,0 +1,75 @@
+package md.fizicamd.app.resources;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory copy of {@code resource_categories}. Readers get an immutable snapshot without
+ * locking; a fresh snapshot is loaded and swapped in after every committed category change.
+ */
+@Component
+public class ResourceCategoryCatalog {
+  private final ResourceCategoryRepository categoryRepository;
+  private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+  public ResourceCategoryCatalog(ResourceCategoryRepository categoryRepository) {
+    this.categoryRepository = categoryRepository;
+  }
+
+  public Snapshot snapshot() {
+    var snapshot = current.get();
+    return snapshot != null ? snapshot : reload();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onCategoriesChanged(ResourceCategoriesChangedEvent event) {
+    reload();
+  }
+
+  // Serialized so a slow reload can never overwrite the result of a later one.
+  synchronized Snapshot reload() {
+    var previous = current.get();
+    var version = Math.max(previous == null ? 0 : previous.version() + 1, System.currentTimeMillis());
+    var categories = categoryRepository.findAllByOrderByGroupOrderAscSortOrderAsc().stream()
+      .map(ResourceCategoryView::of)
+      .toList();
+    var snapshot = Snapshot.of(version, categories);
+    current.set(snapshot);
+    return snapshot;
+  }
+
+  public record Snapshot(
+    long version,
+    List<ResourceCategoryView> categories,
+    Map<String, ResourceCategoryView> byCode,
+    Map<String, List<ResourceCategoryView>> byGroup
+  ) {
+    static Snapshot of(long version, List<ResourceCategoryView> sorted) {
+      var byCode = new LinkedHashMap<String, ResourceCategoryView>();
+      var byGroup = new LinkedHashMap<String, List<ResourceCategoryView>>();
+      for (var category : sorted) {
+        byCode.put(category.code(), category);
+        byGroup.computeIfAbsent(category.groupLabel(), key -> new ArrayList<>()).add(category);
+      }
+      byGroup.replaceAll((group, members) -> List.copyOf(members));
+      return new Snapshot(
+        version,
+        List.copyOf(sorted),
+        Collections.unmodifiableMap(byCode),
+        Collections.unmodifiableMap(byGroup)
+      );
+    }
+
+    public Optional<ResourceCategoryView> find(String code) {
+      return code == null ? Optional.empty() : Optional.ofNullable(byCode.get(code));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package md.fizicamd.app.resources;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/** Row of {@code resource_category_counts}; written only through native upserts. */
+@Entity
+@Table(name = "resource_category_counts")
+public class ResourceCategoryCount {
+
+  @Id
+  @Column(name = "category_code", nullable = false)
+  private String categoryCode;
+
+  @Column(name = "published_count", nullable = false)
+  private long publishedCount;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  protected ResourceCategoryCount() {}
+
+  public String getCategoryCode() {
+    return categoryCode;
+  }
+
+  public long getPublishedCount() {
+    return publishedCount;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+}
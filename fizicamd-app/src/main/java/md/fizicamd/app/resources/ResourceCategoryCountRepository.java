@@ -0,0 +1,42 @@
+package md.fizicamd.app.resources;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ResourceCategoryCountRepository extends JpaRepository<ResourceCategoryCount, String> {
+
+  @Query("SELECT COALESCE(SUM(c.publishedCount), 0) FROM ResourceCategoryCount c")
+  long sumPublished();
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    INSERT INTO resource_category_counts (category_code, published_count, updated_at)
+    VALUES (:categoryCode, :delta, now())
+    ON CONFLICT (category_code) DO UPDATE
+      SET published_count = resource_category_counts.published_count + EXCLUDED.published_count,
+          updated_at = EXCLUDED.updated_at
+    """)
+  void adjust(@Param("categoryCode") String categoryCode, @Param("delta") long delta);
+
+  // Blocks concurrent adjust() calls (ROW EXCLUSIVE) until the reconciling transaction ends,
+  // so the recount cannot overwrite an increment it did not see.
+  @Modifying
+  @Query(nativeQuery = true, value = "LOCK TABLE resource_category_counts IN SHARE ROW EXCLUSIVE MODE")
+  void lockForReconcile();
+
+  @Modifying
+  @Query(nativeQuery = true, value = """
+    INSERT INTO resource_category_counts (category_code, published_count, updated_at)
+    SELECT c.code, COUNT(e.id), now()
+    FROM resource_categories c
+    LEFT JOIN resource_entries e ON e.category_code = c.code AND e.status = 'PUBLISHED'
+    GROUP BY c.code
+    ON CONFLICT (category_code) DO UPDATE
+      SET published_count = EXCLUDED.published_count,
+          updated_at = EXCLUDED.updated_at
+      WHERE resource_category_counts.published_count <> EXCLUDED.published_count
+    """)
+  int reconcile();
+}
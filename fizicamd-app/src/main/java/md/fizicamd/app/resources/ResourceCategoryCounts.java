@@ -0,0 +1,81 @@
+package md.fizicamd.app.resources;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Published resources per category, kept in {@code resource_category_counts} so listings never
+ * need {@code count(*)}. Entry writes adjust the counters in their own transaction; a scheduled
+ * recount repairs any drift (e.g. rows changed by hand in the database).
+ */
+@Component
+public class ResourceCategoryCounts {
+  private static final Logger log = LoggerFactory.getLogger(ResourceCategoryCounts.class);
+
+  private final ResourceCategoryCountRepository countRepository;
+
+  public ResourceCategoryCounts(ResourceCategoryCountRepository countRepository) {
+    this.countRepository = countRepository;
+  }
+
+  /** Applies the status/category transition between two versions of an entry. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void apply(ResourceCard previous, ResourceCard current) {
+    var before = publishedCategory(previous);
+    var after = publishedCategory(current);
+    if (before != null && before.equals(after)) {
+      return;
+    }
+    if (before != null) {
+      countRepository.adjust(before, -1);
+    }
+    if (after != null) {
+      countRepository.adjust(after, 1);
+    }
+  }
+
+  /** Bulk variant of {@link #apply}: adds {@code delta} published resources to one category. */
+  @Transactional(propagation = Propagation.MANDATORY)
+  public void addPublished(String categoryCode, long delta) {
+    if (delta != 0) {
+      countRepository.adjust(categoryCode, delta);
+    }
+  }
+
+  /** Published count of one category, or of all categories when {@code categoryCode} is blank. */
+  public long published(String categoryCode) {
+    if (categoryCode == null || categoryCode.isBlank()) {
+      return countRepository.sumPublished();
+    }
+    return countRepository.findById(categoryCode).map(ResourceCategoryCount::getPublishedCount).orElse(0L);
+  }
+
+  public Map<String, Long> all() {
+    return countRepository.findAll().stream()
+      .collect(Collectors.toMap(ResourceCategoryCount::getCategoryCode, ResourceCategoryCount::getPublishedCount));
+  }
+
+  @Scheduled(
+    initialDelayString = "${resources.counts.reconcile-initial-delay:PT1M}",
+    fixedDelayString = "${resources.counts.reconcile-interval:PT30M}"
+  )
+  @Transactional
+  public void reconcile() {
+    countRepository.lockForReconcile();
+    var corrected = countRepository.reconcile();
+    if (corrected > 0) {
+      log.warn("Reconciled published counts of {} resource categories", corrected);
+    }
+  }
+
+  private static String publishedCategory(ResourceCard card) {
+    return card != null && card.status() == ResourceStatus.PUBLISHED ? card.categoryCode() : null;
+  }
+}
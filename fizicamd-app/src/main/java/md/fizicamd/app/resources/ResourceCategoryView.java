@@ -0,0 +1,23 @@
+package md.fizicamd.app.resources;
+
+import java.util.UUID;
+
+public record ResourceCategoryView(
+  UUID id,
+  String code,
+  String label,
+  String groupLabel,
+  int sortOrder,
+  int groupOrder
+) {
+  public static ResourceCategoryView of(ResourceCategory category) {
+    return new ResourceCategoryView(
+      category.getId(),
+      category.getCode(),
+      category.getLabel(),
+      category.getGroupLabel(),
+      category.getSortOrder(),
+      category.getGroupOrder()
+    );
+  }
+}
@@ -0,0 +1,107 @@
+package md.fizicamd.app.resources;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Change feed over resources for delta sync. Rows are ordered by (change_xid, id): the
+ * transaction that last wrote a resource, or that deleted it, stamped by database triggers.
+ * Only transactions below the current snapshot's xmin are read, all of them finished, so a
+ * transaction that commits late (a bulk import chunk, a slow cascade delete) always sorts after
+ * the positions handed out before it. Long read-only transactions have no id and do not delay
+ * the feed.
+ */
+@Component
+public class ResourceChangeLog {
+  private static final Logger log = LoggerFactory.getLogger(ResourceChangeLog.class);
+  private static final UUID MIN_ID = new UUID(0, 0);
+
+  // Each branch walks its (change_xid, id) index up to the limit; merged, they give the page.
+  // pg_current_snapshot() is the statement's snapshot, so both branches share one horizon.
+  private static final String CHANGES = """
+    SELECT id, change_xid, changed_at, kind FROM (
+      (SELECT e.id, e.change_xid, e.updated_at AS changed_at,
+        CASE WHEN e.status = 'PUBLISHED' THEN 'U' ELSE 'R' END AS kind
+      FROM resource_entries e
+      WHERE (e.change_xid, e.id) > (?, ?) AND e.change_xid < (SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint)
+      ORDER BY e.change_xid, e.id
+      LIMIT ?)
+      UNION ALL
+      (SELECT d.resource_id, d.change_xid, d.deleted_at, 'D'
+      FROM resource_deletions d
+      WHERE (d.change_xid, d.resource_id) > (?, ?) AND d.change_xid < (SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint)
+      ORDER BY d.change_xid, d.resource_id
+      LIMIT ?)
+    ) changes
+    ORDER BY change_xid, id
+    LIMIT ?
+    """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Duration retention;
+
+  public ResourceChangeLog(
+    JdbcTemplate jdbcTemplate,
+    @Value("${resources.changes.tombstone-retention:P90D}") Duration retention
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.retention = retention;
+  }
+
+  /** Position before every change; where a client without a token starts. */
+  public static ResourceChangeToken origin() {
+    return new ResourceChangeToken(0, MIN_ID, Instant.EPOCH);
+  }
+
+  /**
+   * Tombstones older than the retention window are purged, so a client that last synced before
+   * it may have missed deletions and has to start over.
+   */
+  public boolean isExpired(ResourceChangeToken since) {
+    return !since.equals(origin()) && since.changedAt().isBefore(Instant.now().minus(retention));
+  }
+
+  /** Up to {@code limit} changes after {@code since}, oldest first. */
+  public Batch changesSince(ResourceChangeToken since, int limit) {
+    var rows = new ArrayList<ResourceChangeToken>(Math.min(limit + 1, 256));
+    var changes = new ArrayList<Change>(Math.min(limit + 1, 256));
+    jdbcTemplate.query(CHANGES, rs -> {
+      var id = rs.getObject("id", UUID.class);
+      var changedAt = rs.getTimestamp("changed_at").toInstant();
+      rows.add(new ResourceChangeToken(rs.getLong("change_xid"), id, changedAt));
+      changes.add(new Change(id, changedAt, "U".equals(rs.getString("kind"))));
+    }, since.xid(), since.id(), limit + 1, since.xid(), since.id(), limit + 1, limit + 1);
+    var hasMore = changes.size() > limit;
+    var page = hasMore ? changes.subList(0, limit) : changes;
+    var next = page.isEmpty() ? since : rows.get(page.size() - 1);
+    return new Batch(List.copyOf(page), next, hasMore);
+  }
+
+  @Scheduled(
+    initialDelayString = "${resources.changes.purge-initial-delay:PT5M}",
+    fixedDelayString = "${resources.changes.purge-interval:PT12H}"
+  )
+  public void purgeTombstones() {
+    var purged = jdbcTemplate.update("DELETE FROM resource_deletions WHERE deleted_at < ?",
+      Timestamp.from(Instant.now().minus(retention)));
+    if (purged > 0) {
+      log.info("Purged {} resource tombstones", purged);
+    }
+  }
+
+  /** {@code published} is false for drafts and deleted resources, which clients drop. */
+  public record Change(UUID id, Instant changedAt, boolean published) {}
+
+  public record Batch(List<Change> changes, ResourceChangeToken next, boolean hasMore) {}
+}
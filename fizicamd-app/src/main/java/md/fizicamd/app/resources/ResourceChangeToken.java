@@ -0,0 +1,40 @@
+package md.fizicamd.app.resources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the resource change feed: the writing transaction of the last change handed out,
+ * the id that breaks ties inside it, and when that change happened (for tombstone expiry).
+ * Clients only ever see the encoded, opaque form.
+ */
+public record ResourceChangeToken(long xid, UUID id, Instant changedAt) {
+
+  /**
+   * Tokens issued before the feed was ordered by transaction ({@code seconds:nanos:id}) decode
+   * as expired, so those clients start over instead of being refused.
+   */
+  public static ResourceChangeToken decode(String token) {
+    try {
+      var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      var parts = raw.split(":", 4);
+      if (parts.length == 3) {
+        return new ResourceChangeToken(0, UUID.fromString(parts[2]), Instant.EPOCH);
+      }
+      return new ResourceChangeToken(
+        Long.parseLong(parts[0]),
+        UUID.fromString(parts[3]),
+        Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]))
+      );
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Tokenul de sincronizare este invalid.");
+    }
+  }
+
+  public String encode() {
+    var raw = xid + ":" + changedAt.getEpochSecond() + ":" + changedAt.getNano() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
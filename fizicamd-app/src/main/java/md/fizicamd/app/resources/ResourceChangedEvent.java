@@ -0,0 +1,30 @@
+package md.fizicamd.app.resources;
+
+import md.fizicamd.shared.DomainEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A resource was created, updated or deleted. {@code previous} is null for creations and
+ * {@code current} is null for deletions, so listeners can patch their state without a query.
+ */
+public record ResourceChangedEvent(
+  UUID resourceId,
+  ResourceCard previous,
+  ResourceCard current,
+  Instant occurredAt
+) implements DomainEvent {
+
+  public boolean deleted() {
+    return current == null;
+  }
+
+  public boolean publishedBefore() {
+    return previous != null && previous.status() == ResourceStatus.PUBLISHED;
+  }
+
+  public boolean publishedNow() {
+    return current != null && current.status() == ResourceStatus.PUBLISHED;
+  }
+}
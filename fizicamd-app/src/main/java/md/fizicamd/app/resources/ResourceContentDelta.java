@@ -0,0 +1,131 @@
+package md.fizicamd.app.resources;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Block-level deltas between two versions of a resource's content. Blocks are compared whole,
+ * so editing one paragraph stores just that block. The middle section left after trimming the
+ * common prefix and suffix is aligned with a longest-common-subsequence table; when that table
+ * would be too large the whole middle is replaced instead.
+ */
+final class ResourceContentDelta {
+  private static final long MAX_TABLE_CELLS = 1_000_000;
+
+  private ResourceContentDelta() {}
+
+  /** Edits turning {@code base} into {@code target}; base blocks after the last edit are kept. */
+  static List<ResourceBlockEdit> diff(List<ResourceContentBlock> base, List<ResourceContentBlock> target) {
+    int prefix = 0;
+    int max = Math.min(base.size(), target.size());
+    while (prefix < max && base.get(prefix).equals(target.get(prefix))) {
+      prefix++;
+    }
+    int suffix = 0;
+    while (suffix < max - prefix
+      && base.get(base.size() - 1 - suffix).equals(target.get(target.size() - 1 - suffix))) {
+      suffix++;
+    }
+    var from = base.subList(prefix, base.size() - suffix);
+    var to = target.subList(prefix, target.size() - suffix);
+
+    var edits = new Edits();
+    edits.keep(prefix);
+    if ((long) from.size() * to.size() > MAX_TABLE_CELLS) {
+      edits.drop(from.size());
+      to.forEach(edits::insert);
+    } else {
+      align(from, to, edits);
+    }
+    return edits.build();
+  }
+
+  static List<ResourceContentBlock> apply(List<ResourceContentBlock> base, List<ResourceBlockEdit> edits) {
+    var result = new ArrayList<ResourceContentBlock>(base.size() + 8);
+    int position = 0;
+    for (var edit : edits) {
+      if (edit.keep() < 0 || edit.drop() < 0 || position + edit.keep() + edit.drop() > base.size()) {
+        throw new IllegalStateException("Delta de conținut nu corespunde revizuirii de bază.");
+      }
+      result.addAll(base.subList(position, position + edit.keep()));
+      position += edit.keep() + edit.drop();
+      if (edit.insert() != null) {
+        result.addAll(edit.insert());
+      }
+    }
+    result.addAll(base.subList(position, base.size()));
+    return result;
+  }
+
+  /** Number of blocks a delta stores; a delta is only worth keeping while it is below the full size. */
+  static int storedBlocks(List<ResourceBlockEdit> edits) {
+    return edits.stream().mapToInt(edit -> edit.insert() == null ? 0 : edit.insert().size()).sum();
+  }
+
+  private static void align(List<ResourceContentBlock> from, List<ResourceContentBlock> to, Edits edits) {
+    int n = from.size();
+    int m = to.size();
+    // lcs[i][j]: longest common subsequence of from[i..] and to[j..]
+    var lcs = new int[n + 1][m + 1];
+    for (int i = n - 1; i >= 0; i--) {
+      for (int j = m - 1; j >= 0; j--) {
+        lcs[i][j] = from.get(i).equals(to.get(j)) ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+      }
+    }
+    int i = 0;
+    int j = 0;
+    while (i < n || j < m) {
+      if (i < n && j < m && from.get(i).equals(to.get(j))) {
+        edits.keep(1);
+        i++;
+        j++;
+      } else if (j < m && (i == n || lcs[i][j + 1] >= lcs[i + 1][j])) {
+        edits.insert(to.get(j++));
+      } else {
+        edits.drop(1);
+        i++;
+      }
+    }
+  }
+
+  /** Collects keep/drop/insert steps, merging runs into as few edits as possible. */
+  private static final class Edits {
+    private final List<ResourceBlockEdit> edits = new ArrayList<>();
+    private int keep;
+    private int drop;
+    private List<ResourceContentBlock> insert = new ArrayList<>();
+
+    void keep(int count) {
+      if (count == 0) {
+        return;
+      }
+      if (drop > 0 || !insert.isEmpty()) {
+        flush();
+      }
+      keep += count;
+    }
+
+    void drop(int count) {
+      drop += count;
+    }
+
+    void insert(ResourceContentBlock block) {
+      insert.add(block);
+    }
+
+    List<ResourceBlockEdit> build() {
+      // A trailing pure keep is implied by apply().
+      if (drop > 0 || !insert.isEmpty()) {
+        flush();
+      }
+      return List.copyOf(edits);
+    }
+
+    private void flush() {
+      edits.add(new ResourceBlockEdit(keep, drop, insert.isEmpty() ? null : List.copyOf(insert)));
+      keep = 0;
+      drop = 0;
+      insert = new ArrayList<>();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package md.fizicamd.app.resources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a keyset page: the sort timestamp plus the id that breaks ties.
+ * Clients only ever see the encoded, opaque form.
+ */
+public record ResourceCursor(Instant timestamp, UUID id) {
+
+  public static ResourceCursor decode(String token) {
+    try {
+      var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      var parts = raw.split(":", 3);
+      return new ResourceCursor(
+        Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+        UUID.fromString(parts[2])
+      );
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Cursorul de paginare este invalid.");
+    }
+  }
+
+  public String encode() {
+    var raw = timestamp.getEpochSecond() + ":" + timestamp.getNano() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
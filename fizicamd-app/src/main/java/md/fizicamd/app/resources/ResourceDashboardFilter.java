@@ -0,0 +1,30 @@
+package md.fizicamd.app.resources;
+
+import java.util.UUID;
+
+/** Teacher/admin dashboard filters; null fields do not restrict. {@code authorId} is null for admins. */
+public record ResourceDashboardFilter(
+  UUID authorId,
+  ResourceStatus status,
+  String categoryCode,
+  String titlePrefix
+) {
+  public static ResourceDashboardFilter of(
+    UUID actorId,
+    boolean canManageOthers,
+    ResourceStatus status,
+    String categoryCode,
+    String titlePrefix
+  ) {
+    return new ResourceDashboardFilter(
+      canManageOthers ? null : actorId,
+      status,
+      blankToNull(categoryCode),
+      blankToNull(titlePrefix)
+    );
+  }
+
+  private static String blankToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+}
@@ -5,6 +5,7 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
@@ -35,11 +36,11 @@ public class ResourceEntry {
 
   @JdbcTypeCode(SqlTypes.JSON)
   @Column(name = "content", columnDefinition = "jsonb")
-  private String content;
+  private List<ResourceContentBlock> content;
 
   @JdbcTypeCode(SqlTypes.JSON)
   @Column(name = "tags", columnDefinition = "jsonb")
-  private String tags;
+  private List<String> tags;
 
   @Enumerated(EnumType.STRING)
   @Column(name = "status", nullable = false)
@@ -84,11 +85,11 @@ public class ResourceEntry {
     return avatarMediaId;
   }
 
-  public String getContent() {
+  public List<ResourceContentBlock> getContent() {
     return content;
   }
 
-  public String getTags() {
+  public List<String> getTags() {
     return tags;
   }
 
@@ -136,11 +137,11 @@ public class ResourceEntry {
     this.avatarMediaId = avatarMediaId;
   }
 
-  public void setContent(String content) {
+  public void setContent(List<ResourceContentBlock> content) {
     this.content = content;
   }
 
-  public void setTags(String tags) {
+  public void setTags(List<String> tags) {
     this.tags = tags;
   }
 
@@ -162,10 +163,10 @@ public class ResourceEntry {
     }
     updatedAt = createdAt;
     if (content == null) {
-      content = "[]";
+      content = List.of();
     }
     if (tags == null) {
-      tags = "[]";
+      tags = List.of();
     }
     if (status == null) {
       status = ResourceStatus.PUBLISHED;
@@ -179,10 +180,10 @@ public class ResourceEntry {
   void onUpdate() {
     updatedAt = Instant.now();
     if (content == null) {
-      content = "[]";
+      content = List.of();
     }
     if (tags == null) {
-      tags = "[]";
+      tags = List.of();
     }
   }
 }
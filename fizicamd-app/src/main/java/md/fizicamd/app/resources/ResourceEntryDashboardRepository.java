@@ -0,0 +1,14 @@
+package md.fizicamd.app.resources;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/** Dashboard queries whose WHERE clause depends on which filters are set. */
+public interface ResourceEntryDashboardRepository {
+
+  /** Up to {@code limit} cards after {@code after} (null for the first page), newest first. */
+  List<ResourceCard> findDashboardPage(ResourceDashboardFilter filter, ResourceCursor after, int limit);
+
+  /** All matching cards, newest first, fetched in chunks; must be consumed inside a transaction and closed. */
+  Stream<ResourceCard> streamDashboard(ResourceDashboardFilter filter);
+}
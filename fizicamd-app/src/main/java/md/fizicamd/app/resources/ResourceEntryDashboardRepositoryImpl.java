@@ -0,0 +1,71 @@
+package md.fizicamd.app.resources;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+class ResourceEntryDashboardRepositoryImpl implements ResourceEntryDashboardRepository {
+  private static final int STREAM_FETCH_SIZE = 500;
+
+  private final EntityManager entityManager;
+
+  ResourceEntryDashboardRepositoryImpl(EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public List<ResourceCard> findDashboardPage(ResourceDashboardFilter filter, ResourceCursor after, int limit) {
+    return query(filter, after)
+      .setMaxResults(limit)
+      .getResultList();
+  }
+
+  @Override
+  public Stream<ResourceCard> streamDashboard(ResourceDashboardFilter filter) {
+    return query(filter, null)
+      .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+      .setHint(HibernateHints.HINT_READ_ONLY, true)
+      .getResultStream();
+  }
+
+  private TypedQuery<ResourceCard> query(ResourceDashboardFilter filter, ResourceCursor after) {
+    var jpql = new StringBuilder(ResourceEntryRepository.SELECT_CARD).append("WHERE 1 = 1");
+    var params = new HashMap<String, Object>();
+    if (filter.authorId() != null) {
+      jpql.append(" AND r.authorId = :authorId");
+      params.put("authorId", filter.authorId());
+    }
+    if (filter.status() != null) {
+      jpql.append(" AND r.status = :status");
+      params.put("status", filter.status());
+    }
+    if (filter.categoryCode() != null) {
+      jpql.append(" AND r.categoryCode = :categoryCode");
+      params.put("categoryCode", filter.categoryCode());
+    }
+    if (filter.titlePrefix() != null) {
+      jpql.append(" AND LOWER(r.title) LIKE :titlePrefix ESCAPE '\\'");
+      params.put("titlePrefix", escapeLike(filter.titlePrefix().toLowerCase(Locale.ROOT)) + "%");
+    }
+    if (after != null) {
+      // Same shape as the static keyset queries, so (author_id, created_at DESC, id DESC) is range-scanned.
+      jpql.append(" AND r.createdAt <= :createdAt AND (r.createdAt < :createdAt OR r.id < :id)");
+      params.put("createdAt", after.timestamp());
+      params.put("id", after.id());
+    }
+    jpql.append(" ORDER BY r.createdAt DESC, r.id DESC");
+
+    var query = entityManager.createQuery(jpql.toString(), ResourceCard.class);
+    params.forEach(query::setParameter);
+    return query;
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -1,37 +1,94 @@
 package md.fizicamd.app.resources;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface ResourceEntryRepository extends JpaRepository<ResourceEntry, UUID> {
+public interface ResourceEntryRepository extends JpaRepository<ResourceEntry, UUID>, ResourceEntryDashboardRepository {
+  String SELECT_CARD = """
+    SELECT new md.fizicamd.app.resources.ResourceCard(
+      r.id, r.categoryCode, r.authorId, r.title, r.slug, r.summary, r.avatarMediaId,
+      r.tags, r.status, r.publishedAt, r.createdAt, r.updatedAt
+    )
+    FROM ResourceEntry r
+    """;
+
   Optional<ResourceEntry> findBySlug(String slug);
-  List<ResourceEntry> findByStatusOrderByPublishedAtDesc(ResourceStatus status);
-  List<ResourceEntry> findByCategoryCodeAndStatusOrderByPublishedAtDesc(String categoryCode, ResourceStatus status);
-  Page<ResourceEntry> findByStatusOrderByPublishedAtDesc(ResourceStatus status, Pageable pageable);
-  Page<ResourceEntry> findByCategoryCodeAndStatusOrderByPublishedAtDesc(String categoryCode, ResourceStatus status, Pageable pageable);
-  List<ResourceEntry> findByAuthorIdOrderByCreatedAtDesc(UUID authorId);
-  List<ResourceEntry> findAllByOrderByCreatedAtDesc();
+
+  // Edits hold the row lock until commit, so revision numbers are handed out one save at a time.
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<ResourceEntry> findLockedById(UUID id);
+
   boolean existsBySlug(String slug);
   boolean existsByCategoryCode(String categoryCode);
-  @Query("""
-    SELECT r FROM ResourceEntry r
-    WHERE r.status = :status AND (
-      LOWER(r.title) LIKE LOWER(CONCAT('%', :term, '%'))
-      OR LOWER(r.summary) LIKE LOWER(CONCAT('%', :term, '%'))
-      OR LOWER(COALESCE(CAST(r.tags AS string), '')) LIKE LOWER(CONCAT('%', :term, '%'))
-    )
-    ORDER BY r.publishedAt DESC
-  """)
-  List<ResourceEntry> searchByTerm(
+
+  @Query(nativeQuery = true, value = """
+    WITH q AS (SELECT to_tsquery('fizicamd_search', :query) AS query)
+    SELECT hit.id AS id, hit.title AS title, hit.slug AS slug, hit.rank AS rank,
+      ts_headline('fizicamd_search', hit.title || ' — ' || hit.summary, q.query,
+        'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxWords=30, MinWords=12, MaxFragments=2') AS snippet
+    FROM (
+      SELECT e.id, e.title, e.slug, e.summary, e.published_at,
+        ts_rank(e.search_vector, q.query)::float8 AS rank
+      FROM resource_entries e, q
+      WHERE e.status = 'PUBLISHED' AND e.search_vector @@ q.query
+      ORDER BY rank DESC, e.published_at DESC
+      LIMIT :limit
+    ) hit, q
+    ORDER BY hit.rank DESC, hit.published_at DESC
+    """)
+  List<ResourceSearchHit> searchPublished(@Param("query") String tsQuery, @Param("limit") int limit);
+
+  // Keyset pages. The redundant "<=" bound lets Postgres range-scan the (…, published_at DESC) indexes.
+  @Query(SELECT_CARD + """
+    WHERE r.status = :status
+    ORDER BY r.publishedAt DESC, r.id DESC
+    """)
+  List<ResourceCard> findPublishedFirstPage(@Param("status") ResourceStatus status, Pageable pageable);
+
+  @Query(SELECT_CARD + """
+    WHERE r.status = :status
+      AND r.publishedAt <= :publishedAt
+      AND (r.publishedAt < :publishedAt OR r.id < :id)
+    ORDER BY r.publishedAt DESC, r.id DESC
+    """)
+  List<ResourceCard> findPublishedAfter(
+    @Param("status") ResourceStatus status,
+    @Param("publishedAt") Instant publishedAt,
+    @Param("id") UUID id,
+    Pageable pageable
+  );
+
+  @Query(SELECT_CARD + """
+    WHERE r.categoryCode = :categoryCode AND r.status = :status
+    ORDER BY r.publishedAt DESC, r.id DESC
+    """)
+  List<ResourceCard> findPublishedInCategoryFirstPage(
+    @Param("categoryCode") String categoryCode,
+    @Param("status") ResourceStatus status,
+    Pageable pageable
+  );
+
+  @Query(SELECT_CARD + """
+    WHERE r.categoryCode = :categoryCode AND r.status = :status
+      AND r.publishedAt <= :publishedAt
+      AND (r.publishedAt < :publishedAt OR r.id < :id)
+    ORDER BY r.publishedAt DESC, r.id DESC
+    """)
+  List<ResourceCard> findPublishedInCategoryAfter(
+    @Param("categoryCode") String categoryCode,
     @Param("status") ResourceStatus status,
-    @Param("term") String term,
+    @Param("publishedAt") Instant publishedAt,
+    @Param("id") UUID id,
     Pageable pageable
   );
 }
@@ -0,0 +1,21 @@
+package md.fizicamd.app.resources;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One resource of a bulk import. Besides the fields of {@link ResourceCreateCommand} an archive
+ * may keep its original publication date and a preferred slug (used as the slug base).
+ */
+public record ResourceImportLine(
+  String categoryCode,
+  String title,
+  String summary,
+  UUID avatarAssetId,
+  List<String> tags,
+  List<ResourceContentBlock> blocks,
+  ResourceStatus status,
+  Instant publishedAt,
+  String slug
+) {}
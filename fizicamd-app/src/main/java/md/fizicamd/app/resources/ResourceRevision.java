@@ -0,0 +1,155 @@
+package md.fizicamd.app.resources;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One saved state of a resource. Snapshots ({@code revision == baseRevision}) carry the full
+ * {@code content}; the others carry a {@code delta} against the previous revision.
+ */
+@Entity
+@Table(name = "resource_revisions")
+public class ResourceRevision {
+
+  @Id
+  @Column(name = "id", nullable = false)
+  private UUID id;
+
+  @Column(name = "resource_id", nullable = false)
+  private UUID resourceId;
+
+  @Column(name = "revision", nullable = false)
+  private int revision;
+
+  @Column(name = "base_revision", nullable = false)
+  private int baseRevision;
+
+  @Column(name = "category_code", nullable = false)
+  private String categoryCode;
+
+  @Column(name = "title", nullable = false)
+  private String title;
+
+  @Column(name = "summary", nullable = false)
+  private String summary;
+
+  @Column(name = "avatar_media_id")
+  private UUID avatarMediaId;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(name = "tags", columnDefinition = "jsonb")
+  private List<String> tags;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private ResourceStatus status;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(name = "content", columnDefinition = "jsonb")
+  private List<ResourceContentBlock> content;
+
+  @JdbcTypeCode(SqlTypes.JSON)
+  @Column(name = "delta", columnDefinition = "jsonb")
+  private List<ResourceBlockEdit> delta;
+
+  @Column(name = "edited_by")
+  private UUID editedBy;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  protected ResourceRevision() {}
+
+  private ResourceRevision(ResourceEntry entry, int revision, int baseRevision, UUID editedBy, Instant createdAt) {
+    this.id = UUID.randomUUID();
+    this.resourceId = entry.getId();
+    this.revision = revision;
+    this.baseRevision = baseRevision;
+    this.categoryCode = entry.getCategoryCode();
+    this.title = entry.getTitle();
+    this.summary = entry.getSummary();
+    this.avatarMediaId = entry.getAvatarMediaId();
+    this.tags = entry.getTags();
+    this.status = entry.getStatus();
+    this.editedBy = editedBy;
+    this.createdAt = createdAt;
+  }
+
+  static ResourceRevision snapshot(ResourceEntry entry, int revision, UUID editedBy, Instant createdAt) {
+    var snapshot = new ResourceRevision(entry, revision, revision, editedBy, createdAt);
+    snapshot.content = entry.getContent() == null ? List.of() : entry.getContent();
+    return snapshot;
+  }
+
+  static ResourceRevision delta(ResourceEntry entry, int revision, int baseRevision, List<ResourceBlockEdit> delta,
+                                UUID editedBy, Instant createdAt) {
+    var revised = new ResourceRevision(entry, revision, baseRevision, editedBy, createdAt);
+    revised.delta = delta;
+    return revised;
+  }
+
+  public boolean isSnapshot() {
+    return revision == baseRevision;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public UUID getResourceId() {
+    return resourceId;
+  }
+
+  public int getRevision() {
+    return revision;
+  }
+
+  public int getBaseRevision() {
+    return baseRevision;
+  }
+
+  public String getCategoryCode() {
+    return categoryCode;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public String getSummary() {
+    return summary;
+  }
+
+  public UUID getAvatarMediaId() {
+    return avatarMediaId;
+  }
+
+  public List<String> getTags() {
+    return tags;
+  }
+
+  public ResourceStatus getStatus() {
+    return status;
+  }
+
+  public List<ResourceContentBlock> getContent() {
+    return content;
+  }
+
+  public List<ResourceBlockEdit> getDelta() {
+    return delta;
+  }
+
+  public UUID getEditedBy() {
+    return editedBy;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+}
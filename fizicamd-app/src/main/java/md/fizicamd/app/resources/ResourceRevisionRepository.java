@@ -0,0 +1,30 @@
+package md.fizicamd.app.resources;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ResourceRevisionRepository extends JpaRepository<ResourceRevision, UUID> {
+  Optional<ResourceRevision> findTopByResourceIdOrderByRevisionDesc(UUID resourceId);
+
+  List<ResourceRevisionSummary> findByResourceIdOrderByRevisionDesc(UUID resourceId);
+
+  Optional<ResourceRevisionSummary> findTopByResourceIdAndCreatedAtLessThanEqualOrderByRevisionDesc(UUID resourceId, Instant at);
+
+  /** The revision and every row back to the snapshot its chain starts at, oldest first. */
+  @Query("""
+    SELECT r FROM ResourceRevision r
+    WHERE r.resourceId = :resourceId AND r.revision <= :revision
+      AND r.revision >= (
+        SELECT t.baseRevision FROM ResourceRevision t
+        WHERE t.resourceId = :resourceId AND t.revision = :revision
+      )
+    ORDER BY r.revision
+    """)
+  List<ResourceRevision> findChain(@Param("resourceId") UUID resourceId, @Param("revision") int revision);
+}
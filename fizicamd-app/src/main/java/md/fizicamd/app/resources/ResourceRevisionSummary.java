@@ -0,0 +1,19 @@
+package md.fizicamd.app.resources;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** Revision list entry; leaves out the content columns. */
+public interface ResourceRevisionSummary {
+  int getRevision();
+
+  int getBaseRevision();
+
+  String getTitle();
+
+  ResourceStatus getStatus();
+
+  UUID getEditedBy();
+
+  Instant getCreatedAt();
+}
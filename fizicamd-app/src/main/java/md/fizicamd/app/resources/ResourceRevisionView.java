@@ -0,0 +1,20 @@
+package md.fizicamd.app.resources;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/** A resource as it was at one revision, rebuilt from its snapshot and deltas. */
+public record ResourceRevisionView(
+  UUID resourceId,
+  int revision,
+  UUID editedBy,
+  Instant createdAt,
+  String categoryCode,
+  String title,
+  String summary,
+  UUID avatarMediaId,
+  List<String> tags,
+  ResourceStatus status,
+  List<ResourceContentBlock> blocks
+) {}
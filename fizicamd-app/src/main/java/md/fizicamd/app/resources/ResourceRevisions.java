@@ -0,0 +1,119 @@
+package md.fizicamd.app.resources;
+
+import md.fizicamd.shared.NotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Records a revision for every saved change of a resource. A full snapshot is written for the
+ * first revision and then every {@code snapshot-interval} revisions, or earlier when a delta
+ * would not be smaller than the content itself; everything else is a block delta against the
+ * previous revision. Called from {@link ResourceService} inside its write transactions.
+ */
+@Service
+public class ResourceRevisions {
+  private final ResourceRevisionRepository revisionRepository;
+  private final int snapshotInterval;
+
+  public ResourceRevisions(
+    ResourceRevisionRepository revisionRepository,
+    @Value("${resources.revisions.snapshot-interval:10}") int snapshotInterval
+  ) {
+    this.revisionRepository = revisionRepository;
+    this.snapshotInterval = Math.max(1, snapshotInterval);
+  }
+
+  /**
+   * Latest revision of a resource about to be edited. Resources created before revisions
+   * existed (or by the bulk importers) get their current state recorded first, so the edit
+   * can be rolled back. The caller holds the entry's row lock until commit, otherwise two saves
+   * would pick the same revision number.
+   */
+  public ResourceRevision latest(ResourceEntry entry) {
+    return revisionRepository.findTopByResourceIdOrderByRevisionDesc(entry.getId())
+      .orElseGet(() -> revisionRepository.save(
+        ResourceRevision.snapshot(entry, 1, entry.getAuthorId(), entry.getUpdatedAt())));
+  }
+
+  public void recordCreated(ResourceEntry entry, UUID editorId) {
+    revisionRepository.save(ResourceRevision.snapshot(entry, 1, editorId, entry.getUpdatedAt()));
+  }
+
+  /** {@code previous} is {@link #latest} as read before the edit; unchanged saves are not recorded. */
+  public void recordUpdated(ResourceRevision previous, List<ResourceContentBlock> previousContent,
+                            ResourceEntry entry, UUID editorId) {
+    var content = Optional.ofNullable(entry.getContent()).orElse(List.of());
+    var before = Optional.ofNullable(previousContent).orElse(List.<ResourceContentBlock>of());
+    if (sameFields(previous, entry) && before.equals(content)) {
+      return;
+    }
+    var revision = previous.getRevision() + 1;
+    if (revision - previous.getBaseRevision() >= snapshotInterval) {
+      revisionRepository.save(ResourceRevision.snapshot(entry, revision, editorId, entry.getUpdatedAt()));
+      return;
+    }
+    var delta = ResourceContentDelta.diff(before, content);
+    if (!content.isEmpty() && ResourceContentDelta.storedBlocks(delta) >= content.size()) {
+      revisionRepository.save(ResourceRevision.snapshot(entry, revision, editorId, entry.getUpdatedAt()));
+      return;
+    }
+    revisionRepository.save(ResourceRevision.delta(entry, revision, previous.getBaseRevision(), delta,
+      editorId, entry.getUpdatedAt()));
+  }
+
+  public List<ResourceRevisionSummary> list(UUID resourceId) {
+    return revisionRepository.findByResourceIdOrderByRevisionDesc(resourceId);
+  }
+
+  /** Rebuilds a revision from its snapshot, replaying fewer than {@code snapshot-interval} deltas. */
+  public ResourceRevisionView reconstruct(UUID resourceId, int revision) {
+    var chain = revisionRepository.findChain(resourceId, revision);
+    if (chain.isEmpty() || chain.get(chain.size() - 1).getRevision() != revision) {
+      throw new NotFoundException("Revizuirea nu a fost găsită.");
+    }
+    if (!chain.get(0).isSnapshot()) {
+      throw new IllegalStateException("Revizuirea " + revision + " nu pornește de la o copie completă.");
+    }
+    var blocks = chain.get(0).getContent();
+    for (var step : chain.subList(1, chain.size())) {
+      blocks = ResourceContentDelta.apply(blocks, step.getDelta());
+    }
+    var target = chain.get(chain.size() - 1);
+    return new ResourceRevisionView(
+      resourceId,
+      target.getRevision(),
+      target.getEditedBy(),
+      target.getCreatedAt(),
+      target.getCategoryCode(),
+      target.getTitle(),
+      target.getSummary(),
+      target.getAvatarMediaId(),
+      Optional.ofNullable(target.getTags()).orElse(List.of()),
+      target.getStatus(),
+      List.copyOf(blocks)
+    );
+  }
+
+  /** The resource as it was at {@code at}: the last revision saved at or before that moment. */
+  public ResourceRevisionView reconstructAt(UUID resourceId, Instant at) {
+    var revision = revisionRepository.findTopByResourceIdAndCreatedAtLessThanEqualOrderByRevisionDesc(resourceId, at)
+      .orElseThrow(() -> new NotFoundException("Nu există nicio revizuire până la momentul indicat."));
+    return reconstruct(resourceId, revision.getRevision());
+  }
+
+  private static boolean sameFields(ResourceRevision revision, ResourceEntry entry) {
+    return Objects.equals(revision.getCategoryCode(), entry.getCategoryCode())
+      && Objects.equals(revision.getTitle(), entry.getTitle())
+      && Objects.equals(revision.getSummary(), entry.getSummary())
+      && Objects.equals(revision.getAvatarMediaId(), entry.getAvatarMediaId())
+      && Objects.equals(Optional.ofNullable(revision.getTags()).orElse(List.of()),
+        Optional.ofNullable(entry.getTags()).orElse(List.of()))
+      && revision.getStatus() == entry.getStatus();
+  }
+}
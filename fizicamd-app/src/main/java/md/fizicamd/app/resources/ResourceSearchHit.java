@@ -0,0 +1,12 @@
+package md.fizicamd.app.resources;
+
+import java.util.UUID;
+
+/** Row of the ranked full-text search; the snippet marks matches with \u0002 … \u0003. */
+public interface ResourceSearchHit {
+  UUID getId();
+  String getTitle();
+  String getSlug();
+  Double getRank();
+  String getSnippet();
+}
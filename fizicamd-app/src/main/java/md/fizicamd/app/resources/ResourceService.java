@@ -1,45 +1,72 @@
 package md.fizicamd.app.resources;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import md.fizicamd.app.cache.SingleFlight;
 import md.fizicamd.identity.application.UserProfileRepository;
 import md.fizicamd.identity.application.UserRepository;
 import md.fizicamd.identity.domain.Profile.UserProfile;
 import md.fizicamd.shared.NotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 
-import java.text.Normalizer;
 import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ResourceService {
-  private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
-  private static final TypeReference<List<ResourceContentBlock>> BLOCK_LIST = new TypeReference<>() {};
-
   private final ResourceCategoryRepository categoryRepository;
   private final ResourceEntryRepository entryRepository;
   private final UserRepository userRepository;
   private final UserProfileRepository profileRepository;
-  private final ObjectMapper objectMapper;
+  private final ResourceCategoryCatalog categoryCatalog;
+  private final ApplicationEventPublisher events;
+  private final AuthorNameCache authorNames;
+  private final ResourceCategoryCounts categoryCounts;
+  private final ResourceRevisions revisions;
+  // Identical concurrent public reads share one query (e.g. a link posted to a whole class).
+  // Detail reads need none: ResourceDetailCache already loads each slug once.
+  private final SingleFlight<PageKey, Page<ResourceCard>> pageFlights;
+  private final SingleFlight<PageKey, CursorPage<ResourceCard>> cursorFlights;
+  private final SingleFlight<String, List<ResourceSearchHit>> searchFlights;
 
   public ResourceService(ResourceCategoryRepository categoryRepository,
                          ResourceEntryRepository entryRepository,
                          UserRepository userRepository,
                          UserProfileRepository profileRepository,
-                         ObjectMapper objectMapper) {
+                         ResourceCategoryCatalog categoryCatalog,
+                         ApplicationEventPublisher events,
+                         AuthorNameCache authorNames,
+                         ResourceCategoryCounts categoryCounts,
+                         ResourceRevisions revisions,
+                         MeterRegistry meterRegistry) {
     this.categoryRepository = categoryRepository;
     this.entryRepository = entryRepository;
     this.userRepository = userRepository;
     this.profileRepository = profileRepository;
-    this.objectMapper = objectMapper;
+    this.categoryCatalog = categoryCatalog;
+    this.events = events;
+    this.authorNames = authorNames;
+    this.categoryCounts = categoryCounts;
+    this.revisions = revisions;
+    this.pageFlights = new SingleFlight<>("resources.pages", meterRegistry);
+    this.cursorFlights = new SingleFlight<>("resources.cursor-pages", meterRegistry);
+    this.searchFlights = new SingleFlight<>("resources.search", meterRegistry);
+  }
+
+  public List<ResourceCategoryView> listCategories() {
+    return categoryCatalog.snapshot().categories();
   }
 
-  public List<ResourceCategory> listCategories() {
-    return categoryRepository.findAllByOrderByGroupOrderAscSortOrderAsc();
+  public ResourceCategoryCatalog.Snapshot categoryCatalog() {
+    return categoryCatalog.snapshot();
   }
 
   @Transactional
@@ -52,7 +79,29 @@ public class ResourceService {
     category.setCode(resolveCategoryCode(normalizedLabel));
     category.setGroupOrder(resolveGroupOrder(normalizedGroup, groupOrder, null));
     category.setSortOrder(resolveSortOrder(normalizedGroup, sortOrder, null));
-    return categoryRepository.save(category);
+    var saved = categoryRepository.save(category);
+    publishCategoriesChanged();
+    return saved;
+  }
+
+  /** Category with a fixed code (e.g. from an imported archive); an existing one is kept as-is. */
+  @Transactional
+  public ResourceCategory ensureCategory(String code, String label, String groupLabel) {
+    var existing = categoryRepository.findByCode(code);
+    if (existing.isPresent()) {
+      return existing.get();
+    }
+    var normalizedLabel = normalizeRequired(label, "Denumirea categoriei este obligatorie.");
+    var normalizedGroup = normalizeRequired(groupLabel, "Denumirea grupului este obligatorie.");
+    var category = new ResourceCategory();
+    category.setLabel(normalizedLabel);
+    category.setGroupLabel(normalizedGroup);
+    category.setCode(code);
+    category.setGroupOrder(resolveGroupOrder(normalizedGroup, null, null));
+    category.setSortOrder(resolveSortOrder(normalizedGroup, null, null));
+    var saved = categoryRepository.save(category);
+    publishCategoriesChanged();
+    return saved;
   }
 
   @Transactional
@@ -74,7 +123,9 @@ public class ResourceService {
     category.setGroupLabel(normalizedGroup);
     category.setGroupOrder(resolvedGroupOrder);
     category.setSortOrder(resolvedSortOrder);
-    return categoryRepository.save(category);
+    var saved = categoryRepository.save(category);
+    publishCategoriesChanged();
+    return saved;
   }
 
   @Transactional
@@ -84,6 +135,7 @@ public class ResourceService {
       throw new IllegalStateException("Nu poți șterge această categorie deoarece există resurse asociate.");
     }
     categoryRepository.delete(category);
+    publishCategoriesChanged();
   }
 
   @Transactional
@@ -99,55 +151,104 @@ public class ResourceService {
       category.setGroupLabel(normalizedNew);
       category.setGroupOrder(resolvedOrder);
     }
-    return categoryRepository.saveAll(categories);
+    var saved = categoryRepository.saveAll(categories);
+    publishCategoriesChanged();
+    return saved;
   }
 
-  public List<ResourceEntry> listPublished(String categoryCode, int limit) {
-    List<ResourceEntry> items;
+  public List<ResourceCard> listPublished(String categoryCode, int limit) {
+    var pageable = limit > 0 ? PageRequest.of(0, limit) : Pageable.unpaged();
     if (categoryCode != null && !categoryCode.isBlank()) {
-      items = entryRepository.findByCategoryCodeAndStatusOrderByPublishedAtDesc(categoryCode, ResourceStatus.PUBLISHED);
-    } else {
-      items = entryRepository.findByStatusOrderByPublishedAtDesc(ResourceStatus.PUBLISHED);
+      return entryRepository.findPublishedInCategoryFirstPage(categoryCode, ResourceStatus.PUBLISHED, pageable);
     }
-    if (limit > 0 && items.size() > limit) {
-      return items.subList(0, limit);
-    }
-    return items;
+    return entryRepository.findPublishedFirstPage(ResourceStatus.PUBLISHED, pageable);
   }
 
-  public Page<ResourceEntry> listPublishedPage(String categoryCode, int page, int size) {
+  public Page<ResourceCard> listPublishedPage(String categoryCode, int page, int size) {
+    var key = new PageKey(categoryCode, String.valueOf(page), size);
+    return pageFlights.execute(key, () -> loadPublishedPage(categoryCode, page, size));
+  }
+
+  /** {@link #listPublishedPage} without coalescing, for writers that must see the latest commit. */
+  public Page<ResourceCard> readPublishedPage(String categoryCode, int page, int size) {
+    return loadPublishedPage(categoryCode, page, size);
+  }
+
+  // The total comes from the maintained per-category counters instead of a count(*).
+  private Page<ResourceCard> loadPublishedPage(String categoryCode, int page, int size) {
     var pageable = PageRequest.of(page, size);
+    var rows = categoryCode != null && !categoryCode.isBlank()
+      ? entryRepository.findPublishedInCategoryFirstPage(categoryCode, ResourceStatus.PUBLISHED, pageable)
+      : entryRepository.findPublishedFirstPage(ResourceStatus.PUBLISHED, pageable);
+    return new PageImpl<>(rows, pageable, categoryCounts.published(categoryCode));
+  }
+
+  public CursorPage<ResourceCard> listPublishedAfter(String categoryCode, String cursor, int size) {
+    var after = decodeCursor(cursor);
+    var key = new PageKey(categoryCode, Optional.ofNullable(cursor).orElse(""), size);
+    return cursorFlights.execute(key, () -> loadPublishedAfter(categoryCode, after, size));
+  }
+
+  private CursorPage<ResourceCard> loadPublishedAfter(String categoryCode, ResourceCursor after, int size) {
+    var pageable = PageRequest.of(0, size + 1);
+    List<ResourceCard> rows;
     if (categoryCode != null && !categoryCode.isBlank()) {
-      return entryRepository.findByCategoryCodeAndStatusOrderByPublishedAtDesc(
-        categoryCode,
-        ResourceStatus.PUBLISHED,
-        pageable
-      );
+      rows = after == null
+        ? entryRepository.findPublishedInCategoryFirstPage(categoryCode, ResourceStatus.PUBLISHED, pageable)
+        : entryRepository.findPublishedInCategoryAfter(categoryCode, ResourceStatus.PUBLISHED, after.timestamp(), after.id(), pageable);
+    } else {
+      rows = after == null
+        ? entryRepository.findPublishedFirstPage(ResourceStatus.PUBLISHED, pageable)
+        : entryRepository.findPublishedAfter(ResourceStatus.PUBLISHED, after.timestamp(), after.id(), pageable);
     }
-    return entryRepository.findByStatusOrderByPublishedAtDesc(ResourceStatus.PUBLISHED, pageable);
+    return toCursorPage(rows, size, ResourceCard::publishedAt, ResourceCard::id);
   }
 
-  public List<ResourceEntry> searchPublished(String term, int limit) {
-    var cleaned = Optional.ofNullable(term).map(String::trim).orElse("");
-    if (cleaned.isBlank()) {
+  public long countPublished(String categoryCode) {
+    return categoryCounts.published(categoryCode);
+  }
+
+  public Map<String, Long> publishedCountsByCategory() {
+    return categoryCounts.all();
+  }
+
+  public List<ResourceSearchHit> searchPublished(String term, int limit) {
+    var query = toPrefixTsQuery(term);
+    if (query.isEmpty()) {
       return List.of();
     }
-    var size = Math.max(1, Math.min(limit, 20));
-    return entryRepository.searchByTerm(ResourceStatus.PUBLISHED, cleaned, PageRequest.of(0, size));
+    var safeLimit = Math.max(1, Math.min(limit, 20));
+    return searchFlights.execute(safeLimit + "|" + query, () -> entryRepository.searchPublished(query, safeLimit));
   }
 
-  public Optional<ResourceCategory> findCategory(String code) {
-    if (code == null) {
-      return Optional.empty();
-    }
-    return categoryRepository.findByCode(code);
+  public Optional<ResourceCategoryView> findCategory(String code) {
+    return categoryCatalog.snapshot().find(code);
   }
 
-  public List<ResourceEntry> listByAuthor(UUID authorId, boolean canManageOthers) {
-    if (canManageOthers) {
-      return entryRepository.findAllByOrderByCreatedAtDesc();
+  public CursorPage<ResourceCard> listDashboard(ResourceDashboardFilter filter, String cursor, int size) {
+    var rows = entryRepository.findDashboardPage(filter, decodeCursor(cursor), size + 1);
+    return toCursorPage(rows, size, ResourceCard::createdAt, ResourceCard::id);
+  }
+
+  /**
+   * Feeds every matching card to {@code consumer} in batches of {@code batchSize} while the rows
+   * are read through a database cursor, so memory stays bounded however large the catalog is.
+   */
+  @Transactional(readOnly = true)
+  public void forEachDashboardBatch(ResourceDashboardFilter filter, int batchSize, Consumer<List<ResourceCard>> consumer) {
+    try (var rows = entryRepository.streamDashboard(filter)) {
+      var batch = new ArrayList<ResourceCard>(batchSize);
+      rows.forEach(card -> {
+        batch.add(card);
+        if (batch.size() == batchSize) {
+          consumer.accept(List.copyOf(batch));
+          batch.clear();
+        }
+      });
+      if (!batch.isEmpty()) {
+        consumer.accept(List.copyOf(batch));
+      }
     }
-    return entryRepository.findByAuthorIdOrderByCreatedAtDesc(authorId);
   }
 
   public ResourceEntry findPublishedBySlug(String slug) {
@@ -163,6 +264,15 @@ public class ResourceService {
     return entryRepository.findById(resourceId).orElseThrow(() -> new NotFoundException("Resursa nu există"));
   }
 
+  private ResourceEntry findLockedById(UUID resourceId) {
+    return entryRepository.findLockedById(resourceId).orElseThrow(() -> new NotFoundException("Resursa nu există"));
+  }
+
+  public Map<UUID, ResourceEntry> findByIds(Collection<UUID> resourceIds) {
+    return entryRepository.findAllById(resourceIds).stream()
+      .collect(Collectors.toMap(ResourceEntry::getId, entry -> entry));
+  }
+
   @Transactional
   public ResourceEntry createResource(UUID authorId, ResourceCreateCommand cmd) {
     if (cmd == null) {
@@ -183,18 +293,21 @@ public class ResourceService {
     entry.setTitle(title);
     entry.setSummary(summary);
     entry.setAvatarMediaId(cmd.avatarAssetId());
-    entry.setTags(writeJson(cleanTags(cmd.tags())));
-    entry.setContent(writeJson(validateBlocks(cmd.blocks())));
+    entry.setTags(cleanTags(cmd.tags()));
+    entry.setContent(validateBlocks(cmd.blocks()));
     entry.setStatus(status);
     entry.setPublishedAt(status == ResourceStatus.PUBLISHED ? Instant.now() : null);
     entry.setSlug(resolveSlug(title));
 
-    return entryRepository.save(entry);
+    var saved = entryRepository.save(entry);
+    revisions.recordCreated(saved, authorId);
+    recordResourceChange(null, saved);
+    return saved;
   }
 
   @Transactional
   public ResourceEntry updateResource(UUID resourceId, UUID actorId, boolean canManageOthers, ResourceCreateCommand cmd) {
-    var entry = findById(resourceId);
+    var entry = findLockedById(resourceId);
     if (!canManageOthers && !entry.getAuthorId().equals(actorId)) {
       throw new NotFoundException("Resursa nu a fost găsită.");
     }
@@ -207,13 +320,16 @@ public class ResourceService {
       throw new IllegalArgumentException("Titlul și descrierea sunt obligatorii.");
     }
 
+    var previous = ResourceCard.of(entry);
+    var previousRevision = revisions.latest(entry);
+    var previousContent = entry.getContent();
     var status = Optional.ofNullable(cmd.status()).orElse(entry.getStatus());
     entry.setCategoryCode(category.getCode());
     entry.setTitle(title);
     entry.setSummary(summary);
     entry.setAvatarMediaId(cmd.avatarAssetId());
-    entry.setTags(writeJson(cleanTags(cmd.tags())));
-    entry.setContent(writeJson(validateBlocks(cmd.blocks())));
+    entry.setTags(cleanTags(cmd.tags()));
+    entry.setContent(validateBlocks(cmd.blocks()));
     entry.setStatus(status);
     if (status == ResourceStatus.PUBLISHED) {
       if (entry.getPublishedAt() == null) {
@@ -222,7 +338,30 @@ public class ResourceService {
     } else {
       entry.setPublishedAt(null);
     }
-    return entryRepository.save(entry);
+    // Flushed so updatedAt is final before listeners see the change.
+    var saved = entryRepository.saveAndFlush(entry);
+    revisions.recordUpdated(previousRevision, previousContent, saved, actorId);
+    recordResourceChange(previous, saved);
+    return saved;
+  }
+
+  /**
+   * Brings back the title, texts, tags and blocks of an earlier revision as a new revision.
+   * The publication status stays as it is now.
+   */
+  @Transactional
+  public ResourceEntry restoreRevision(UUID resourceId, int revision, UUID actorId, boolean canManageOthers) {
+    var current = findLockedById(resourceId);
+    var old = revisions.reconstruct(resourceId, revision);
+    return updateResource(resourceId, actorId, canManageOthers, new ResourceCreateCommand(
+      old.categoryCode(),
+      old.title(),
+      old.summary(),
+      old.avatarMediaId(),
+      old.tags(),
+      old.blocks(),
+      current.getStatus()
+    ));
   }
 
   @Transactional
@@ -231,42 +370,92 @@ public class ResourceService {
     if (!canManageOthers && !entry.getAuthorId().equals(actorId)) {
       throw new NotFoundException("Resursa nu a fost găsită.");
     }
+    var previous = ResourceCard.of(entry);
     entryRepository.delete(entry);
+    recordResourceChange(previous, null);
   }
 
   public List<String> readTags(ResourceEntry entry) {
-    var raw = Optional.ofNullable(entry.getTags()).orElse("[]");
-    try {
-      return objectMapper.readValue(raw, STRING_LIST);
-    } catch (Exception e) {
-      return List.of();
-    }
+    return Optional.ofNullable(entry.getTags()).orElse(List.of());
   }
 
   public List<ResourceContentBlock> readBlocks(ResourceEntry entry) {
-    var raw = Optional.ofNullable(entry.getContent()).orElse("[]");
-    try {
-      return objectMapper.readValue(raw, BLOCK_LIST);
-    } catch (Exception e) {
-      return List.of();
-    }
+    return Optional.ofNullable(entry.getContent()).orElse(List.of());
   }
 
   public String authorDisplayName(UUID authorId) {
+    return authorNames.get(authorId, this::loadAuthorDisplayName);
+  }
+
+  /**
+   * Resolves display names for a whole page of authors. Cache misses are loaded with one
+   * profile query and, only for authors without a filled-in profile, one user query.
+   */
+  public Map<UUID, String> authorDisplayNames(Collection<UUID> authorIds) {
+    var ids = new HashSet<>(authorIds);
+    ids.remove(null);
+    if (ids.isEmpty()) {
+      return Map.of();
+    }
+    return authorNames.getAll(ids, this::loadAuthorDisplayNames);
+  }
+
+  private String loadAuthorDisplayName(UUID authorId) {
     UserProfile profile = profileRepository.findById(authorId).orElse(null);
-    if (profile != null) {
-      var first = profile.getFirstName();
-      var last = profile.getLastName();
-      if ((first != null && !first.isBlank()) || (last != null && !last.isBlank())) {
-        return (Optional.ofNullable(first).orElse("") + " " + Optional.ofNullable(last).orElse("")).trim();
-      }
+    var name = profileDisplayName(profile);
+    if (name != null) {
+      return name;
     }
     return userRepository.findById(authorId)
       .map(u -> u.getEmail())
       .orElse("Profesor");
   }
 
-  private List<String> cleanTags(List<String> tags) {
+  private Map<UUID, String> loadAuthorDisplayNames(Set<? extends UUID> requested) {
+    Set<UUID> ids = Set.copyOf(requested);
+    var names = new HashMap<UUID, String>();
+    for (var profile : profileRepository.findByIds(ids)) {
+      var name = profileDisplayName(profile);
+      if (name != null) {
+        names.put(profile.getUserId(), name);
+      }
+    }
+    var missing = ids.stream().filter(id -> !names.containsKey(id)).toList();
+    if (!missing.isEmpty()) {
+      for (var user : userRepository.findByIds(missing)) {
+        names.put(user.getId(), user.getEmail());
+      }
+      for (var id : missing) {
+        names.putIfAbsent(id, "Profesor");
+      }
+    }
+    return names;
+  }
+
+  public Map<String, ResourceCategoryView> findCategories(Collection<String> codes) {
+    var byCode = categoryCatalog.snapshot().byCode();
+    var categories = new HashMap<String, ResourceCategoryView>();
+    for (var code : codes) {
+      if (code != null && byCode.containsKey(code)) {
+        categories.put(code, byCode.get(code));
+      }
+    }
+    return categories;
+  }
+
+  private String profileDisplayName(UserProfile profile) {
+    if (profile == null) {
+      return null;
+    }
+    var first = profile.getFirstName();
+    var last = profile.getLastName();
+    if ((first != null && !first.isBlank()) || (last != null && !last.isBlank())) {
+      return (Optional.ofNullable(first).orElse("") + " " + Optional.ofNullable(last).orElse("")).trim();
+    }
+    return null;
+  }
+
+  static List<String> cleanTags(List<String> tags) {
     if (tags == null) return List.of();
     return tags.stream()
       .map(tag -> tag == null ? "" : tag.trim())
@@ -276,7 +465,7 @@ public class ResourceService {
       .toList();
   }
 
-  private List<ResourceContentBlock> validateBlocks(List<ResourceContentBlock> blocks) {
+  static List<ResourceContentBlock> validateBlocks(List<ResourceContentBlock> blocks) {
     if (blocks == null) {
       return List.of();
     }
@@ -369,15 +558,22 @@ public class ResourceService {
   }
 
   private String slugify(String raw) {
-    var normalized = Normalizer.normalize(raw, Normalizer.Form.NFD)
-      .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
-      .toLowerCase(Locale.ROOT)
-      .replaceAll("[^a-z0-9]+", "-")
-      .replaceAll("(^-|-$)", "");
-    if (normalized.isBlank()) {
-      return UUID.randomUUID().toString();
-    }
-    return normalized;
+    return TextFolding.slugify(raw);
+  }
+
+  /**
+   * Turns free text into a prefix tsquery ("stiin fiz" -> "stiin:* & fiz:*"). Only letters and
+   * digits survive, so user input can never inject tsquery operators.
+   */
+  static String toPrefixTsQuery(String term) {
+    if (term == null) {
+      return "";
+    }
+    return Arrays.stream(term.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+      .filter(token -> !token.isBlank())
+      .limit(8)
+      .map(token -> token + ":*")
+      .collect(Collectors.joining(" & "));
   }
 
   private String normalizeRequired(String value, String message) {
@@ -388,11 +584,30 @@ public class ResourceService {
     return trimmed;
   }
 
-  private <T> String writeJson(T value) {
-    try {
-      return objectMapper.writeValueAsString(value == null ? List.of() : value);
-    } catch (Exception e) {
-      throw new RuntimeException("Nu am putut serializa conținutul resursei", e);
+  private ResourceCursor decodeCursor(String cursor) {
+    return cursor == null || cursor.isBlank() ? null : ResourceCursor.decode(cursor);
+  }
+
+  private <T> CursorPage<T> toCursorPage(List<T> rows, int size, Function<T, Instant> sortKey, Function<T, UUID> id) {
+    if (rows.size() <= size) {
+      return new CursorPage<>(rows, null);
     }
+    var items = rows.subList(0, size);
+    var last = items.get(size - 1);
+    return new CursorPage<>(List.copyOf(items), new ResourceCursor(sortKey.apply(last), id.apply(last)).encode());
   }
+
+  // Runs inside the writing transaction: counters move with the entry, listeners fire after commit.
+  private void recordResourceChange(ResourceCard previous, ResourceEntry current) {
+    var card = current == null ? null : ResourceCard.of(current);
+    var id = card != null ? card.id() : previous.id();
+    categoryCounts.apply(previous, card);
+    events.publishEvent(new ResourceChangedEvent(id, previous, card, Instant.now()));
+  }
+
+  private void publishCategoriesChanged() {
+    events.publishEvent(new ResourceCategoriesChangedEvent(Instant.now()));
+  }
+
+  private record PageKey(String categoryCode, String position, int size) {}
 }
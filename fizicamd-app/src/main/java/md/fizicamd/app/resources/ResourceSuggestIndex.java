@@ -0,0 +1,391 @@
+package md.fizicamd.app.resources;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Typeahead over published resources. Folded tokens of titles, tags and category labels live
+ * in a character trie whose nodes carry the postings (resource id -> field weight); lookups
+ * walk the trie with a Levenshtein row so prefixes within a small edit distance also match.
+ * Resource events patch the trie in place, a category change re-weights the stored documents.
+ */
+@Component
+public class ResourceSuggestIndex {
+  private static final float TITLE_WEIGHT = 3f;
+  private static final float TAG_WEIGHT = 2f;
+  private static final float CATEGORY_WEIGHT = 1f;
+  private static final int MAX_QUERY_TOKENS = 6;
+  private static final int MAX_TERMS_PER_TOKEN = 256;
+
+  private final ResourceEntryRepository entryRepository;
+  private final ResourceCategoryCatalog categoryCatalog;
+  private final EventFedIndex feed = new EventFedIndex();
+  private final Map<UUID, Document> documents = new HashMap<>();
+  private Node root = new Node();
+  private long catalogVersion = -1;
+  private volatile Stats stats = new Stats(0, 0, 0, 0);
+  private volatile boolean statsDirty;
+
+  public ResourceSuggestIndex(
+    ResourceEntryRepository entryRepository,
+    ResourceCategoryCatalog categoryCatalog,
+    MeterRegistry meterRegistry
+  ) {
+    this.entryRepository = entryRepository;
+    this.categoryCatalog = categoryCatalog;
+    Gauge.builder("resources.suggest.documents", this, index -> index.stats().documents()).register(meterRegistry);
+    Gauge.builder("resources.suggest.terms", this, index -> index.stats().terms()).register(meterRegistry);
+    Gauge.builder("resources.suggest.memory", this, index -> index.stats().estimatedBytes())
+      .baseUnit("bytes")
+      .register(meterRegistry);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    feed.load(
+      () -> entryRepository.findPublishedFirstPage(ResourceStatus.PUBLISHED, Pageable.unpaged()),
+      (cards, missed) -> {
+        documents.clear();
+        for (var card : cards) {
+          documents.put(card.id(), Document.of(card));
+        }
+        missed.forEach(this::applyToDocuments);
+        rebuildTrie(categoryCatalog.snapshot());
+      }
+    );
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onResourceChanged(ResourceChangedEvent event) {
+    feed.onChange(event, changed -> {
+      var previous = documents.get(changed.resourceId());
+      if (previous != null) {
+        unindex(previous);
+      }
+      applyToDocuments(changed);
+      var current = documents.get(changed.resourceId());
+      if (current != null) {
+        index(current, categoryCatalog.snapshot());
+      }
+      statsDirty = true;
+    });
+  }
+
+  public List<Suggestion> suggest(String query, int limit) {
+    var tokens = TextFolding.tokens(query);
+    if (tokens.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    if (tokens.size() > MAX_QUERY_TOKENS) {
+      tokens = tokens.subList(0, MAX_QUERY_TOKENS);
+    }
+    ensureCategoryLabelsCurrent();
+
+    var queryTokens = tokens;
+    return feed.read(() -> {
+      Map<UUID, Float> scores = null;
+      for (var token : queryTokens) {
+        var matches = match(token);
+        if (scores == null) {
+          scores = matches;
+        } else {
+          scores.keySet().retainAll(matches.keySet());
+          for (var entry : scores.entrySet()) {
+            entry.setValue(entry.getValue() + matches.get(entry.getKey()));
+          }
+        }
+        if (scores.isEmpty()) {
+          return List.of();
+        }
+      }
+      return scores.entrySet().stream()
+        .map(entry -> {
+          var document = documents.get(entry.getKey());
+          return new Suggestion(document.id(), document.title(), document.slug(), document.categoryCode(), entry.getValue());
+        })
+        .sorted(Comparator.comparingDouble(Suggestion::score).reversed()
+          .thenComparingInt(suggestion -> suggestion.title().length())
+          .thenComparing(Suggestion::title))
+        .limit(limit)
+        .toList();
+    });
+  }
+
+  public Stats stats() {
+    if (statsDirty) {
+      stats = feed.read(() -> {
+        statsDirty = false;
+        return measure();
+      });
+    }
+    return stats;
+  }
+
+  // Best score per resource for one query token: field weight, halved for each edit needed.
+  private Map<UUID, Float> match(String token) {
+    var maxEdits = token.length() <= 3 ? 0 : token.length() <= 6 ? 1 : 2;
+    var query = token.toCharArray();
+    var row = new int[query.length + 1];
+    for (int i = 0; i < row.length; i++) {
+      row[i] = i;
+    }
+    var matchedNodes = new HashMap<Node, Integer>();
+    walk(root, query, row, maxEdits, matchedNodes);
+
+    var scores = new HashMap<UUID, Float>();
+    var budget = new int[] {MAX_TERMS_PER_TOKEN};
+    var closestFirst = matchedNodes.entrySet().stream()
+      .sorted(Map.Entry.comparingByValue())
+      .toList();
+    for (var matched : closestFirst) {
+      var penalty = (float) Math.pow(2, matched.getValue());
+      collect(matched.getKey(), penalty, scores, budget);
+    }
+    return scores;
+  }
+
+  // Depth-first walk with one Levenshtein row per trie level; a node whose row ends within
+  // the edit budget is a fuzzy prefix of the query and its whole subtree matches.
+  private void walk(Node node, char[] query, int[] row, int maxEdits, Map<Node, Integer> matches) {
+    for (int c = 0; c < node.size; c++) {
+      var letter = node.letters[c];
+      var next = new int[row.length];
+      next[0] = row[0] + 1;
+      int best = next[0];
+      for (int j = 1; j < row.length; j++) {
+        var substitution = row[j - 1] + (query[j - 1] == letter ? 0 : 1);
+        next[j] = Math.min(substitution, Math.min(row[j] + 1, next[j - 1] + 1));
+        best = Math.min(best, next[j]);
+      }
+      var child = node.children[c];
+      if (next[query.length] <= maxEdits) {
+        matches.merge(child, next[query.length], Math::min);
+      }
+      // Keep descending: a longer prefix may need fewer edits ("fizic" vs "fizica").
+      if (best <= maxEdits) {
+        walk(child, query, next, maxEdits, matches);
+      }
+    }
+  }
+
+  private void collect(Node node, float penalty, Map<UUID, Float> scores, int[] budget) {
+    if (budget[0] <= 0) {
+      return;
+    }
+    if (node.postings != null) {
+      budget[0]--;
+      for (var posting : node.postings.entrySet()) {
+        scores.merge(posting.getKey(), posting.getValue() / penalty, Math::max);
+      }
+    }
+    for (int c = 0; c < node.size; c++) {
+      collect(node.children[c], penalty, scores, budget);
+    }
+  }
+
+  private void ensureCategoryLabelsCurrent() {
+    var snapshot = categoryCatalog.snapshot();
+    if (feed.read(() -> snapshot.version() == catalogVersion)) {
+      return;
+    }
+    feed.write(() -> {
+      if (snapshot.version() != catalogVersion && !feed.loading()) {
+        rebuildTrie(snapshot);
+      }
+    });
+  }
+
+  private void applyToDocuments(ResourceChangedEvent event) {
+    if (event.publishedNow()) {
+      documents.put(event.resourceId(), Document.of(event.current()));
+    } else {
+      documents.remove(event.resourceId());
+    }
+  }
+
+  private void rebuildTrie(ResourceCategoryCatalog.Snapshot snapshot) {
+    root = new Node();
+    for (var document : documents.values()) {
+      index(document, snapshot);
+    }
+    catalogVersion = snapshot.version();
+    statsDirty = true;
+  }
+
+  private void index(Document document, ResourceCategoryCatalog.Snapshot snapshot) {
+    var terms = new HashMap<String, Float>();
+    for (var token : TextFolding.tokens(document.title())) {
+      terms.merge(token, TITLE_WEIGHT, Math::max);
+    }
+    for (var tag : document.tags()) {
+      for (var token : TextFolding.tokens(tag)) {
+        terms.merge(token, TAG_WEIGHT, Math::max);
+      }
+    }
+    snapshot.find(document.categoryCode()).ifPresent(category -> {
+      for (var token : TextFolding.tokens(category.label())) {
+        terms.merge(token, CATEGORY_WEIGHT, Math::max);
+      }
+    });
+    terms.forEach((term, weight) -> root.insert(term, document.id(), weight));
+    document.indexedTerms = terms.keySet().toArray(String[]::new);
+  }
+
+  private void unindex(Document document) {
+    for (var term : document.indexedTerms) {
+      root.remove(term, 0, document.id());
+    }
+    document.indexedTerms = new String[0];
+  }
+
+  // Walks the whole trie, so it runs lazily when stats are read rather than after every change.
+  private Stats measure() {
+    var counter = new long[4];
+    root.measure(counter);
+    var nodes = counter[0];
+    var terms = counter[1];
+    var postings = counter[2];
+    var childSlots = counter[3];
+    // Rough compressed-oops estimate: node header + arrays, HashMap entries with UUID/Float values,
+    // and per-document strings; good enough to watch growth, not an exact heap dump.
+    var bytes = nodes * 48 + childSlots * 6 + terms * 64 + postings * 80;
+    for (var document : documents.values()) {
+      bytes += 120 + 2L * (document.title().length() + document.slug().length());
+      for (var tag : document.tags()) {
+        bytes += 40 + 2L * tag.length();
+      }
+    }
+    return new Stats(documents.size(), (int) terms, (int) nodes, bytes);
+  }
+
+  public record Suggestion(UUID id, String title, String slug, String categoryCode, double score) {}
+
+  public record Stats(int documents, int terms, int nodes, long estimatedBytes) {}
+
+  private static final class Document {
+    private final UUID id;
+    private final String title;
+    private final String slug;
+    private final String categoryCode;
+    private final List<String> tags;
+    private String[] indexedTerms = new String[0];
+
+    private Document(UUID id, String title, String slug, String categoryCode, List<String> tags) {
+      this.id = id;
+      this.title = title;
+      this.slug = slug;
+      this.categoryCode = categoryCode;
+      this.tags = tags;
+    }
+
+    static Document of(ResourceCard card) {
+      return new Document(card.id(), card.title(), card.slug(), card.categoryCode(),
+        card.tags() == null ? List.of() : List.copyOf(card.tags()));
+    }
+
+    UUID id() {
+      return id;
+    }
+
+    String title() {
+      return title;
+    }
+
+    String slug() {
+      return slug;
+    }
+
+    String categoryCode() {
+      return categoryCode;
+    }
+
+    List<String> tags() {
+      return tags;
+    }
+  }
+
+  /** Trie node with sorted parallel child arrays, which cost far less than a map per node. */
+  private static final class Node {
+    private char[] letters = new char[0];
+    private Node[] children = new Node[0];
+    private int size;
+    private Map<UUID, Float> postings;
+
+    void insert(String term, UUID id, float weight) {
+      var node = this;
+      for (int i = 0; i < term.length(); i++) {
+        node = node.childOrCreate(term.charAt(i));
+      }
+      if (node.postings == null) {
+        node.postings = new HashMap<>(4);
+      }
+      node.postings.merge(id, weight, Math::max);
+    }
+
+    // Returns true when this node became empty and can be unlinked by its parent.
+    boolean remove(String term, int depth, UUID id) {
+      if (depth == term.length()) {
+        if (postings != null) {
+          postings.remove(id);
+          if (postings.isEmpty()) {
+            postings = null;
+          }
+        }
+      } else {
+        var index = Arrays.binarySearch(letters, 0, size, term.charAt(depth));
+        if (index >= 0 && children[index].remove(term, depth + 1, id)) {
+          System.arraycopy(letters, index + 1, letters, index, size - index - 1);
+          System.arraycopy(children, index + 1, children, index, size - index - 1);
+          size--;
+          children[size] = null;
+        }
+      }
+      return postings == null && size == 0;
+    }
+
+    private Node childOrCreate(char letter) {
+      var index = Arrays.binarySearch(letters, 0, size, letter);
+      if (index >= 0) {
+        return children[index];
+      }
+      var insertAt = -index - 1;
+      if (size == letters.length) {
+        var capacity = Math.max(2, size * 2);
+        letters = Arrays.copyOf(letters, capacity);
+        children = Arrays.copyOf(children, capacity);
+      }
+      System.arraycopy(letters, insertAt, letters, insertAt + 1, size - insertAt);
+      System.arraycopy(children, insertAt, children, insertAt + 1, size - insertAt);
+      var child = new Node();
+      letters[insertAt] = letter;
+      children[insertAt] = child;
+      size++;
+      return child;
+    }
+
+    // counter: nodes, terms, postings, allocated child slots.
+    void measure(long[] counter) {
+      counter[0]++;
+      counter[3] += letters.length;
+      if (postings != null) {
+        counter[1]++;
+        counter[2] += postings.size();
+      }
+      for (int c = 0; c < size; c++) {
+        children[c].measure(counter);
+      }
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package md.fizicamd.app.resources;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tag -> published resource posting lists, kept in memory and patched from resource events.
+ * Tags are compared folded ("Mecanică" == "mecanica"). Besides AND/OR tag filters it ranks
+ * related resources by how many tags they share, rarer tags counting more on ties.
+ */
+@Component
+public class ResourceTagIndex {
+  private static final Comparator<ResourceCard> NEWEST_FIRST = Comparator
+    .comparing(ResourceCard::publishedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+    .thenComparing(ResourceCard::id, Comparator.reverseOrder());
+
+  private final ResourceEntryRepository entryRepository;
+  private final EventFedIndex feed = new EventFedIndex();
+  private final Map<UUID, ResourceCard> cards = new HashMap<>();
+  private final Map<String, UUID> idsBySlug = new HashMap<>();
+  private final Map<String, Set<UUID>> postings = new HashMap<>();
+
+  public ResourceTagIndex(ResourceEntryRepository entryRepository) {
+    this.entryRepository = entryRepository;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    feed.load(
+      () -> entryRepository.findPublishedFirstPage(ResourceStatus.PUBLISHED, Pageable.unpaged()),
+      (published, missed) -> {
+        cards.clear();
+        idsBySlug.clear();
+        postings.clear();
+        published.forEach(this::add);
+        missed.forEach(this::apply);
+      }
+    );
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onResourceChanged(ResourceChangedEvent event) {
+    feed.onChange(event, this::apply);
+  }
+
+  /** Published resources carrying all (or any) of {@code tags}, newest first. */
+  public TagMatches findByTags(Collection<String> tags, boolean matchAll, int offset, int limit) {
+    var keys = tags.stream().map(ResourceTagIndex::key).filter(key -> !key.isEmpty()).distinct().toList();
+    if (keys.isEmpty()) {
+      return new TagMatches(List.of(), 0);
+    }
+    return feed.read(() -> {
+      var lists = keys.stream()
+        .map(key -> postings.getOrDefault(key, Set.of()))
+        .sorted(Comparator.comparingInt(Set::size))
+        .toList();
+      Set<UUID> ids;
+      if (matchAll) {
+        // Start from the rarest tag so the intersection never grows past it.
+        ids = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !ids.isEmpty(); i++) {
+          ids.retainAll(lists.get(i));
+        }
+      } else {
+        ids = new HashSet<>();
+        lists.forEach(ids::addAll);
+      }
+      var items = ids.stream()
+        .map(cards::get)
+        .sorted(NEWEST_FIRST)
+        .skip(offset)
+        .limit(limit)
+        .toList();
+      return new TagMatches(items, ids.size());
+    });
+  }
+
+  /**
+   * Other published resources sharing tags with {@code slug}, most shared tags first. Only the
+   * posting lists of the resource's own tags are visited. Empty when the slug is not published.
+   */
+  public Optional<List<ResourceCard>> related(String slug, int limit) {
+    return feed.read(() -> {
+      var id = idsBySlug.get(slug);
+      if (id == null) {
+        return Optional.empty();
+      }
+      var overlap = new HashMap<UUID, Integer>();
+      var weight = new HashMap<UUID, Double>();
+      for (var key : keys(cards.get(id))) {
+        var posting = postings.getOrDefault(key, Set.of());
+        var idf = Math.log(1 + (double) cards.size() / posting.size());
+        for (var other : posting) {
+          if (!other.equals(id)) {
+            overlap.merge(other, 1, Integer::sum);
+            weight.merge(other, idf, Double::sum);
+          }
+        }
+      }
+      var ranked = overlap.keySet().stream()
+        .sorted(Comparator.<UUID>comparingInt(overlap::get).reversed()
+          .thenComparing(Comparator.<UUID>comparingDouble(weight::get).reversed())
+          .thenComparing(cards::get, NEWEST_FIRST))
+        .limit(limit)
+        .map(cards::get)
+        .toList();
+      return Optional.of(ranked);
+    });
+  }
+
+  private void apply(ResourceChangedEvent event) {
+    remove(event.resourceId());
+    if (event.publishedNow()) {
+      add(event.current());
+    }
+  }
+
+  private void add(ResourceCard card) {
+    cards.put(card.id(), card);
+    idsBySlug.put(card.slug(), card.id());
+    for (var key : keys(card)) {
+      postings.computeIfAbsent(key, ignored -> new HashSet<>()).add(card.id());
+    }
+  }
+
+  private void remove(UUID id) {
+    var card = cards.remove(id);
+    if (card == null) {
+      return;
+    }
+    idsBySlug.remove(card.slug(), id);
+    for (var key : keys(card)) {
+      var posting = postings.get(key);
+      if (posting != null && posting.remove(id) && posting.isEmpty()) {
+        postings.remove(key);
+      }
+    }
+  }
+
+  private static Set<String> keys(ResourceCard card) {
+    var keys = new LinkedHashSet<String>();
+    if (card.tags() != null) {
+      for (var tag : card.tags()) {
+        var key = key(tag);
+        if (!key.isEmpty()) {
+          keys.add(key);
+        }
+      }
+    }
+    return keys;
+  }
+
+  private static String key(String tag) {
+    return TextFolding.fold(tag).trim();
+  }
+
+  public record TagMatches(List<ResourceCard> items, int total) {}
+}
@@ -0,0 +1,70 @@
+package md.fizicamd.app.resources;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/** Diacritic-insensitive normalisation shared by slugs and the in-memory search indexes. */
+public final class TextFolding {
+  private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  // Russian letters after folding (й/ё have lost their marks); "Журнал Квант" -> "zhurnal-kvant".
+  private static final String CYRILLIC = "абвгдежзийклмнопрстуфхцчшщъыьэюя";
+  private static final String[] LATIN = {
+    "a", "b", "v", "g", "d", "e", "zh", "z", "i", "i", "k", "l", "m", "n", "o", "p", "r", "s", "t", "u",
+    "f", "kh", "ts", "ch", "sh", "shch", "", "y", "", "e", "iu", "ia"
+  };
+
+  private TextFolding() {}
+
+  /** "Științe ale Naturii" -> "stiinte ale naturii". */
+  public static String fold(String raw) {
+    if (raw == null || raw.isEmpty()) {
+      return "";
+    }
+    return COMBINING_MARKS.matcher(Normalizer.normalize(raw, Normalizer.Form.NFD))
+      .replaceAll("")
+      .toLowerCase(Locale.ROOT);
+  }
+
+  public static List<String> tokens(String raw) {
+    var tokens = new ArrayList<String>();
+    for (var token : TOKEN_SEPARATOR.split(fold(raw))) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  public static String slugify(String raw) {
+    var normalized = transliterate(fold(raw))
+      .replaceAll("[^a-z0-9]+", "-")
+      .replaceAll("(^-|-$)", "");
+    if (normalized.isBlank()) {
+      return UUID.randomUUID().toString();
+    }
+    return normalized;
+  }
+
+  private static String transliterate(String folded) {
+    StringBuilder out = null;
+    for (int i = 0; i < folded.length(); i++) {
+      var index = CYRILLIC.indexOf(folded.charAt(i));
+      if (index >= 0 && out == null) {
+        out = new StringBuilder(folded.length() + 8).append(folded, 0, i);
+      }
+      if (out != null) {
+        if (index >= 0) {
+          out.append(LATIN[index]);
+        } else {
+          out.append(folded.charAt(i));
+        }
+      }
+    }
+    return out == null ? folded : out.toString();
+  }
+}
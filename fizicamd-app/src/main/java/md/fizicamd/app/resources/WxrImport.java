@@ -0,0 +1,144 @@
+package md.fizicamd.app.resources;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** One WXR import job; {@code itemsDone} is its resume checkpoint. */
+@Entity
+@Table(name = "resource_wxr_imports")
+public class WxrImport {
+
+  @Id
+  @Column(name = "id", nullable = false)
+  private UUID id;
+
+  @Column(name = "source_file", nullable = false)
+  private String sourceFile;
+
+  @Column(name = "requested_by", nullable = false)
+  private UUID requestedBy;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false)
+  private WxrImportStatus status;
+
+  @Column(name = "items_done", nullable = false)
+  private long itemsDone;
+
+  @Column(name = "imported_count", nullable = false)
+  private long importedCount;
+
+  @Column(name = "skipped_count", nullable = false)
+  private long skippedCount;
+
+  @Column(name = "duplicate_count", nullable = false)
+  private long duplicateCount;
+
+  @Column(name = "failed_count", nullable = false)
+  private long failedCount;
+
+  @Column(name = "last_error")
+  private String lastError;
+
+  @Column(name = "started_at", nullable = false)
+  private Instant startedAt;
+
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  @Column(name = "finished_at")
+  private Instant finishedAt;
+
+  protected WxrImport() {}
+
+  public WxrImport(UUID id, String sourceFile, UUID requestedBy, Instant startedAt) {
+    this.id = id;
+    this.sourceFile = sourceFile;
+    this.requestedBy = requestedBy;
+    this.status = WxrImportStatus.RUNNING;
+    this.startedAt = startedAt;
+    this.updatedAt = startedAt;
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public String getSourceFile() {
+    return sourceFile;
+  }
+
+  public UUID getRequestedBy() {
+    return requestedBy;
+  }
+
+  public WxrImportStatus getStatus() {
+    return status;
+  }
+
+  public long getItemsDone() {
+    return itemsDone;
+  }
+
+  public long getImportedCount() {
+    return importedCount;
+  }
+
+  public long getSkippedCount() {
+    return skippedCount;
+  }
+
+  public long getDuplicateCount() {
+    return duplicateCount;
+  }
+
+  public long getFailedCount() {
+    return failedCount;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  void restart(Instant now) {
+    status = WxrImportStatus.RUNNING;
+    lastError = null;
+    finishedAt = null;
+    updatedAt = now;
+  }
+
+  void checkpoint(long itemsDone, long imported, long skipped, long duplicates, long failed, String lastError, Instant now) {
+    this.itemsDone = itemsDone;
+    this.importedCount += imported;
+    this.skippedCount += skipped;
+    this.duplicateCount += duplicates;
+    this.failedCount += failed;
+    if (lastError != null) {
+      this.lastError = lastError;
+    }
+    this.updatedAt = now;
+  }
+
+  void finish(WxrImportStatus status, String error, Instant now) {
+    this.status = status;
+    if (error != null) {
+      this.lastError = error;
+    }
+    this.finishedAt = now;
+    this.updatedAt = now;
+  }
+}
@@ -0,0 +1,28 @@
+package md.fizicamd.app.resources;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface WxrImportRepository extends JpaRepository<WxrImport, UUID> {
+  List<WxrImport> findTop20ByOrderByStartedAtDesc();
+
+  boolean existsByStatus(WxrImportStatus status);
+
+  @Modifying
+  @Query("""
+    UPDATE WxrImport i SET i.status = :to, i.lastError = :reason, i.updatedAt = :now
+    WHERE i.status = :from
+    """)
+  int changeStatus(
+    @Param("from") WxrImportStatus from,
+    @Param("to") WxrImportStatus to,
+    @Param("reason") String reason,
+    @Param("now") Instant now
+  );
+}
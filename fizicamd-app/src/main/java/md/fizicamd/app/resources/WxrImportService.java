@@ -0,0 +1,327 @@
+package md.fizicamd.app.resources;
+
+import jakarta.annotation.PreDestroy;
+import md.fizicamd.app.media.MediaService;
+import md.fizicamd.app.resources.ResourceBulkImporter.ImportItem;
+import md.fizicamd.app.resources.ResourceBulkImporter.ImportedResource;
+import md.fizicamd.shared.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Imports WordPress (WXR) exports placed in the import directory, one job at a time on a
+ * background thread. Posts are streamed in chunks through {@link ResourceBulkImporter}; after
+ * each committed chunk the job's checkpoint advances, and a resumed job skips what is behind
+ * it. Imported posts are remembered by {@code wp:post_id} in the chunk's transaction and skipped
+ * as duplicates later, so re-running an export is harmless.
+ */
+@Service
+public class WxrImportService {
+  private static final Logger log = LoggerFactory.getLogger(WxrImportService.class);
+  static final int CHUNK_SIZE = 100;
+  private static final String ROOT_GROUP = "Categorii";
+  private static final String UPLOADS_MARKER = "/wp-content/uploads/";
+  private static final Pattern RESIZED_SUFFIX = Pattern.compile("-\\d+x\\d+(?=\\.[A-Za-z0-9]+$)");
+
+  private final WxrImportRepository importRepository;
+  private final ResourceService resourceService;
+  private final ResourceBulkImporter bulkImporter;
+  private final MediaService mediaService;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final Path importDir;
+  private final Path uploadsDir;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(
+    Thread.ofPlatform().name("wxr-import").daemon().factory()
+  );
+
+  public WxrImportService(
+    WxrImportRepository importRepository,
+    ResourceService resourceService,
+    ResourceBulkImporter bulkImporter,
+    MediaService mediaService,
+    JdbcTemplate jdbcTemplate,
+    TransactionTemplate transactionTemplate,
+    @Value("${resources.wxr.import-dir:storage/wxr}") String importDir,
+    @Value("${resources.wxr.uploads-dir:storage/wxr/uploads}") String uploadsDir
+  ) {
+    this.importRepository = importRepository;
+    this.resourceService = resourceService;
+    this.bulkImporter = bulkImporter;
+    this.mediaService = mediaService;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = transactionTemplate;
+    this.importDir = Path.of(importDir).toAbsolutePath().normalize();
+    this.uploadsDir = Path.of(uploadsDir).toAbsolutePath().normalize();
+  }
+
+  /** Starts importing {@code file} (relative to the import directory) as {@code adminId}. */
+  public synchronized WxrImport start(UUID adminId, String file) {
+    var source = resolveSource(file);
+    ensureIdle();
+    var job = importRepository.save(new WxrImport(UUID.randomUUID(), importDir.relativize(source).toString(), adminId, Instant.now()));
+    submit(job.getId());
+    return job;
+  }
+
+  /** Continues a failed or interrupted job from its last checkpoint. */
+  public synchronized WxrImport resume(UUID importId) {
+    var job = find(importId);
+    if (job.getStatus() == WxrImportStatus.COMPLETED) {
+      throw new IllegalArgumentException("Importul este deja finalizat.");
+    }
+    ensureIdle();
+    resolveSource(job.getSourceFile());
+    job.restart(Instant.now());
+    job = importRepository.save(job);
+    submit(job.getId());
+    return job;
+  }
+
+  public WxrImport find(UUID importId) {
+    return importRepository.findById(importId).orElseThrow(() -> new NotFoundException("Importul nu a fost găsit."));
+  }
+
+  public List<WxrImport> recent() {
+    return importRepository.findTop20ByOrderByStartedAtDesc();
+  }
+
+  // A job still marked RUNNING at startup died with the previous process.
+  @EventListener(ApplicationReadyEvent.class)
+  public void markAbandonedJobs() {
+    transactionTemplate.executeWithoutResult(tx -> importRepository.changeStatus(
+      WxrImportStatus.RUNNING, WxrImportStatus.INTERRUPTED, "Aplicația a fost repornită.", Instant.now()));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void ensureIdle() {
+    if (importRepository.existsByStatus(WxrImportStatus.RUNNING)) {
+      throw new IllegalArgumentException("Un import este deja în curs.");
+    }
+  }
+
+  private void submit(UUID importId) {
+    executor.execute(() -> run(importId));
+  }
+
+  private Path resolveSource(String file) {
+    if (file == null || file.isBlank()) {
+      throw new IllegalArgumentException("Fișierul de import este obligatoriu.");
+    }
+    var source = importDir.resolve(file).normalize();
+    if (!source.startsWith(importDir) || !Files.isRegularFile(source)) {
+      throw new IllegalArgumentException("Fișierul de import nu există.");
+    }
+    return source;
+  }
+
+  void run(UUID importId) {
+    var job = importRepository.findById(importId).orElseThrow();
+    var run = new Run(job.getRequestedBy());
+    log.info("WXR import {} of {} starting after item {}", importId, job.getSourceFile(), job.getItemsDone());
+    try (
+      var input = new BufferedInputStream(Files.newInputStream(importDir.resolve(job.getSourceFile())), 1 << 16);
+      var reader = new WxrReader(input, job.getItemsDone())
+    ) {
+      WxrReader.Entry entry;
+      while ((entry = reader.next()) != null) {
+        if (Thread.currentThread().isInterrupted()) {
+          finish(job, WxrImportStatus.INTERRUPTED, "Importul a fost oprit.");
+          return;
+        }
+        switch (entry) {
+          case WxrReader.Category category -> run.category(category);
+          case WxrReader.Item item -> run.item(item);
+        }
+        if (reader.position() - job.getItemsDone() >= CHUNK_SIZE) {
+          job = run.flush(job, reader.position());
+        }
+      }
+      job = run.flush(job, reader.position());
+      finish(job, WxrImportStatus.COMPLETED, null);
+      log.info("WXR import {} completed: {} imported, {} already imported, {} skipped, {} failed", importId,
+        job.getImportedCount(), job.getDuplicateCount(), job.getSkippedCount(), job.getFailedCount());
+    } catch (IOException | XMLStreamException | RuntimeException ex) {
+      log.warn("WXR import {} failed after item {}", importId, job.getItemsDone(), ex);
+      finish(job, WxrImportStatus.FAILED, "Importul a eșuat după elementul " + job.getItemsDone() + ": " + ex.getMessage());
+    }
+  }
+
+  private void finish(WxrImport job, WxrImportStatus status, String error) {
+    job.finish(status, error, Instant.now());
+    importRepository.save(job);
+  }
+
+  /** Per-run state; only the current chunk of posts is kept in memory. */
+  private final class Run {
+    private final UUID authorId;
+    private final Map<String, String> categoryNames = new HashMap<>();
+    private final List<ImportItem> chunk = new ArrayList<>(CHUNK_SIZE);
+    private final Map<Long, Long> postIds = new HashMap<>();
+    private long skipped;
+    private long duplicates;
+    private long failed;
+    private String lastError;
+
+    private Run(UUID authorId) {
+      this.authorId = authorId;
+    }
+
+    // Seeded categories keep their labels; new ones go under their parent's name as group.
+    void category(WxrReader.Category category) {
+      if (category.nicename() == null || category.nicename().isBlank()) {
+        return;
+      }
+      var label = category.name() == null || category.name().isBlank() ? category.nicename() : category.name();
+      categoryNames.put(category.nicename(), label);
+      var group = category.parentNicename() == null ? ROOT_GROUP
+        : categoryNames.getOrDefault(category.parentNicename(), ROOT_GROUP);
+      resourceService.ensureCategory(WxrPostMapper.categoryCode(category.nicename()), label, group);
+    }
+
+    void item(WxrReader.Item item) {
+      if (!WxrPostMapper.isImportable(item)) {
+        skipped++;
+        return;
+      }
+      try {
+        var line = WxrPostMapper.toImportLine(item, url -> resolveAsset(authorId, url));
+        ensureItemCategory(item, line.categoryCode());
+        chunk.add(new ImportItem(item.position(), line));
+        var postId = WxrPostMapper.postId(item);
+        if (postId != null) {
+          postIds.put(item.position(), postId);
+        }
+      } catch (RuntimeException ex) {
+        fail(item.position(), ex.getMessage());
+      }
+    }
+
+    WxrImport flush(WxrImport job, long position) {
+      long imported = 0;
+      if (!chunk.isEmpty()) {
+        var known = importedPosts(postIds.values());
+        var fresh = chunk.stream().filter(item -> !known.contains(postIds.get(item.line()))).toList();
+        duplicates += chunk.size() - fresh.size();
+        if (!fresh.isEmpty()) {
+          var result = bulkImporter.importBatch(authorId, fresh, this::recordPosts);
+          imported = result.created().size();
+          result.errors().forEach(error -> fail(error.line(), error.message()));
+        }
+        chunk.clear();
+        postIds.clear();
+      }
+      job.checkpoint(position, imported, skipped, duplicates, failed, lastError, Instant.now());
+      skipped = 0;
+      duplicates = 0;
+      failed = 0;
+      lastError = null;
+      return importRepository.save(job);
+    }
+
+    private Set<Long> importedPosts(Collection<Long> ids) {
+      if (ids.isEmpty()) {
+        return Set.of();
+      }
+      return new HashSet<>(jdbcTemplate.query(
+        connection -> {
+          var statement = connection.prepareStatement("SELECT post_id FROM resource_wxr_posts WHERE post_id = ANY(?)");
+          statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+          return statement;
+        },
+        (rs, rowNum) -> rs.getLong(1)
+      ));
+    }
+
+    private void recordPosts(List<ImportedResource> created) {
+      var rows = created.stream()
+        .filter(resource -> postIds.containsKey(resource.line()))
+        .map(resource -> new Object[] {postIds.get(resource.line()), resource.id()})
+        .toList();
+      jdbcTemplate.batchUpdate("INSERT INTO resource_wxr_posts (post_id, resource_id) VALUES (?, ?)", rows);
+    }
+
+    private void ensureItemCategory(WxrReader.Item item, String code) {
+      if (resourceService.categoryCatalog().find(code).isPresent()) {
+        return;
+      }
+      var label = item.categories().stream().findFirst().map(WxrReader.Term::label).orElse("Uncategorized");
+      resourceService.ensureCategory(code, label, ROOT_GROUP);
+    }
+
+    private void fail(long position, String message) {
+      failed++;
+      lastError = "Elementul " + position + ": " + message;
+      log.warn("WXR item {} not imported: {}", position, message);
+    }
+  }
+
+  // Files under wp-content/uploads are copied once; later references reuse the same asset.
+  private UUID resolveAsset(UUID ownerId, String url) {
+    var file = locateUpload(url);
+    if (file == null) {
+      return null;
+    }
+    var key = uploadsDir.relativize(file).toString();
+    var known = jdbcTemplate.queryForList("SELECT media_id FROM resource_wxr_media WHERE source_path = ?", UUID.class, key);
+    if (!known.isEmpty()) {
+      return known.get(0);
+    }
+    var uploaded = mediaService.importResourceFile(ownerId, file);
+    jdbcTemplate.update(
+      "INSERT INTO resource_wxr_media (source_path, media_id) VALUES (?, ?) ON CONFLICT (source_path) DO NOTHING",
+      key, uploaded.assetId());
+    return uploaded.assetId();
+  }
+
+  // Missing resized variants ("photo-300x200.jpg") fall back to the original upload.
+  private Path locateUpload(String url) {
+    var marker = url.indexOf(UPLOADS_MARKER);
+    if (marker < 0) {
+      return null;
+    }
+    var relative = url.substring(marker + UPLOADS_MARKER.length()).replaceFirst("[?#].*$", "");
+    try {
+      relative = URLDecoder.decode(relative.replace("+", "%2B"), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+    for (var candidate : List.of(relative, RESIZED_SUFFIX.matcher(relative).replaceFirst(""))) {
+      var path = uploadsDir.resolve(candidate).normalize();
+      if (path.startsWith(uploadsDir) && Files.isRegularFile(path)) {
+        return path;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,8 @@
+package md.fizicamd.app.resources;
+
+public enum WxrImportStatus {
+  RUNNING,
+  COMPLETED,
+  FAILED,
+  INTERRUPTED
+}
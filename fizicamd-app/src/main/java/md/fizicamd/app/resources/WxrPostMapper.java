@@ -0,0 +1,299 @@
+package md.fizicamd.app.resources;
+
+import md.fizicamd.app.media.MediaService;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a WordPress post into a {@link ResourceImportLine}. Post HTML is split around links and
+ * images: uploaded images become IMAGE blocks, uploaded PDFs PDF blocks, other links LINK blocks
+ * and everything in between plain TEXT. Files are looked up through an {@link AssetResolver}.
+ */
+final class WxrPostMapper {
+  static final String FALLBACK_CATEGORY = "uncategorized";
+  private static final int SUMMARY_LENGTH = 240;
+  private static final DateTimeFormatter WP_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.ROOT);
+
+  private static final Pattern EMBED = Pattern.compile(
+    "<a\\b([^>]*)>(.*?)</a\\s*>|<img\\b([^>]*)>",
+    Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+  );
+  private static final Pattern ATTRIBUTE = Pattern.compile("([a-zA-Z-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+  private static final Pattern NOISE = Pattern.compile(
+    "<!--.*?-->|<script\\b.*?</script\\s*>|<style\\b.*?</style\\s*>|\\[/?(?:caption|embed|gallery)[^\\]]*\\]",
+    Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+  );
+  private static final Pattern LINE_BREAK = Pattern.compile("<br\\s*/?>", Pattern.CASE_INSENSITIVE);
+  private static final Pattern BLOCK_END = Pattern.compile("</(?:p|div|li|h[1-6]|tr|blockquote|table|ul|ol)\\s*>", Pattern.CASE_INSENSITIVE);
+  private static final Pattern TAG = Pattern.compile("<[^>]*>");
+  private static final Pattern ENTITY = Pattern.compile("&(#x[0-9a-fA-F]+|#[0-9]+|[a-zA-Z]+);");
+  private static final Map<String, String> NAMED_ENTITIES = Map.ofEntries(
+    Map.entry("amp", "&"), Map.entry("lt", "<"), Map.entry("gt", ">"), Map.entry("quot", "\""),
+    Map.entry("apos", "'"), Map.entry("nbsp", " "), Map.entry("hellip", "…"), Map.entry("ndash", "–"),
+    Map.entry("mdash", "—"), Map.entry("laquo", "«"), Map.entry("raquo", "»"), Map.entry("bdquo", "„"),
+    Map.entry("ldquo", "“"), Map.entry("rdquo", "”"), Map.entry("lsquo", "‘"), Map.entry("rsquo", "’")
+  );
+
+  private WxrPostMapper() {}
+
+  /** Resolves a URL from the old site to an imported media asset, or {@code null}. */
+  @FunctionalInterface
+  interface AssetResolver {
+    UUID resolve(String url);
+  }
+
+  static boolean isImportable(WxrReader.Item item) {
+    var type = item.postType();
+    var status = item.status();
+    return ("post".equals(type) || "page".equals(type))
+      && status != null && !"trash".equals(status) && !"auto-draft".equals(status) && !"inherit".equals(status);
+  }
+
+  static ResourceImportLine toImportLine(WxrReader.Item item, AssetResolver assets) {
+    var title = plainText(item.title());
+    var blocks = toBlocks(item.content(), assets);
+    var status = "publish".equals(item.status()) ? ResourceStatus.PUBLISHED : ResourceStatus.DRAFT;
+    var category = item.categories().stream()
+      .map(term -> categoryCode(term.nicename()))
+      .findFirst()
+      .orElse(FALLBACK_CATEGORY);
+    var avatar = blocks.stream()
+      .filter(block -> block.type() == ResourceBlockType.IMAGE)
+      .map(ResourceContentBlock::assetId)
+      .findFirst()
+      .orElse(null);
+    return new ResourceImportLine(
+      category,
+      title,
+      summary(item.excerpt(), blocks, title),
+      avatar,
+      item.tags(),
+      blocks,
+      status,
+      parseDate(item.dateGmt()),
+      slug(item)
+    );
+  }
+
+  /** WordPress percent-encodes non-ASCII nicenames ("%d0%ba%d0%b2...") and slugs. */
+  static String categoryCode(String nicename) {
+    return TextFolding.slugify(decode(nicename));
+  }
+
+  /** {@code wp:post_id}, or {@code null} when the export lacks a usable one. */
+  static Long postId(WxrReader.Item item) {
+    try {
+      return item.postId() == null ? null : Long.valueOf(item.postId());
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+  }
+
+  static String slug(WxrReader.Item item) {
+    var name = decode(item.postName());
+    return TextFolding.slugify(name.isBlank() ? plainText(item.title()) : name);
+  }
+
+  static List<ResourceContentBlock> toBlocks(String html, AssetResolver assets) {
+    var blocks = new ArrayList<ResourceContentBlock>();
+    if (html == null || html.isBlank()) {
+      return blocks;
+    }
+    var cleaned = NOISE.matcher(html).replaceAll("");
+    var matcher = EMBED.matcher(cleaned);
+    int textStart = 0;
+    while (matcher.find()) {
+      addText(blocks, cleaned.substring(textStart, matcher.start()));
+      textStart = matcher.end();
+      if (matcher.group(3) != null) {
+        addImage(blocks, matcher.group(3), null, assets);
+        continue;
+      }
+      var href = attribute(matcher.group(1), "href");
+      var inner = matcher.group(2);
+      var image = EMBED.matcher(inner);
+      if (image.find() && image.group(3) != null) {
+        addImage(blocks, image.group(3), isImage(href) ? href : null, assets);
+        continue;
+      }
+      addLink(blocks, href, plainText(inner), assets);
+    }
+    addText(blocks, cleaned.substring(textStart));
+    return blocks;
+  }
+
+  static String plainText(String html) {
+    if (html == null) {
+      return "";
+    }
+    var text = LINE_BREAK.matcher(html).replaceAll("\n");
+    text = BLOCK_END.matcher(text).replaceAll("\n\n");
+    text = unescape(TAG.matcher(text).replaceAll(""));
+    return text.replace("\r", "")
+      .replaceAll("[ \\t\\u00A0]+", " ")
+      .replaceAll(" *\n *", "\n")
+      .replaceAll("\n{3,}", "\n\n")
+      .trim();
+  }
+
+  private static void addText(List<ResourceContentBlock> blocks, String html) {
+    var text = plainText(html);
+    if (text.isEmpty()) {
+      return;
+    }
+    var last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+    if (last != null && last.type() == ResourceBlockType.TEXT) {
+      blocks.set(blocks.size() - 1, text(last.text() + " " + text));
+    } else {
+      blocks.add(text(text));
+    }
+  }
+
+  // Linked thumbnails point at the full-size file, which is preferred when it was uploaded.
+  private static void addImage(List<ResourceContentBlock> blocks, String attributes, String fullSizeUrl, AssetResolver assets) {
+    var src = attribute(attributes, "src");
+    var alt = plainText(attribute(attributes, "alt"));
+    var assetId = fullSizeUrl != null ? assets.resolve(fullSizeUrl) : null;
+    if (assetId == null && !src.isEmpty()) {
+      assetId = assets.resolve(src);
+    }
+    if (assetId != null) {
+      blocks.add(new ResourceContentBlock(ResourceBlockType.IMAGE, null, null, assetId, alt.isEmpty() ? null : alt, null));
+    } else if (!src.isEmpty()) {
+      blocks.add(new ResourceContentBlock(ResourceBlockType.LINK, null, src, null, null, alt.isEmpty() ? "Imagine" : alt));
+    }
+  }
+
+  private static void addLink(List<ResourceContentBlock> blocks, String href, String label, AssetResolver assets) {
+    if (href.isEmpty() || href.startsWith("#") || href.startsWith("javascript:")) {
+      addText(blocks, label);
+      return;
+    }
+    var title = label.isEmpty() ? href : label;
+    var assetId = assets.resolve(href);
+    if (assetId != null && isPdf(href)) {
+      blocks.add(new ResourceContentBlock(ResourceBlockType.PDF, null, null, assetId, null, title));
+    } else if (assetId != null && isImage(href)) {
+      blocks.add(new ResourceContentBlock(ResourceBlockType.IMAGE, null, null, assetId, label.isEmpty() ? null : label, null));
+    } else {
+      // Other uploads (.doc, .zip, ...) are served from the media store once the old site is gone.
+      var url = assetId != null ? MediaService.buildAssetUrl(assetId) : href;
+      blocks.add(new ResourceContentBlock(ResourceBlockType.LINK, null, url, null, null, title));
+    }
+  }
+
+  private static String summary(String excerpt, List<ResourceContentBlock> blocks, String title) {
+    var text = plainText(excerpt);
+    if (text.isEmpty()) {
+      text = blocks.stream()
+        .filter(block -> block.type() == ResourceBlockType.TEXT)
+        .map(ResourceContentBlock::text)
+        .findFirst()
+        .orElse(title);
+    }
+    text = text.replace('\n', ' ');
+    if (text.length() <= SUMMARY_LENGTH) {
+      return text;
+    }
+    var cut = text.lastIndexOf(' ', SUMMARY_LENGTH);
+    return text.substring(0, cut > SUMMARY_LENGTH / 2 ? cut : SUMMARY_LENGTH).trim() + "…";
+  }
+
+  // Drafts carry "0000-00-00 00:00:00"; the importer then falls back to the import time.
+  private static Instant parseDate(String value) {
+    if (value == null || value.isBlank() || value.startsWith("0000")) {
+      return null;
+    }
+    try {
+      return LocalDateTime.parse(value, WP_DATE).toInstant(ZoneOffset.UTC);
+    } catch (DateTimeParseException ex) {
+      return null;
+    }
+  }
+
+  private static ResourceContentBlock text(String text) {
+    return new ResourceContentBlock(ResourceBlockType.TEXT, text, null, null, null, null);
+  }
+
+  private static String attribute(String attributes, String name) {
+    var matcher = ATTRIBUTE.matcher(attributes);
+    while (matcher.find()) {
+      if (matcher.group(1).equalsIgnoreCase(name)) {
+        var value = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+        return unescape(value).trim();
+      }
+    }
+    return "";
+  }
+
+  private static boolean isPdf(String url) {
+    return extension(url).equals("pdf");
+  }
+
+  private static boolean isImage(String url) {
+    return switch (extension(url)) {
+      case "jpg", "jpeg", "png", "gif", "webp", "bmp", "svg" -> true;
+      default -> false;
+    };
+  }
+
+  private static String extension(String url) {
+    if (url == null) {
+      return "";
+    }
+    var path = url.replaceFirst("[?#].*$", "");
+    var dot = path.lastIndexOf('.');
+    return dot < 0 || dot < path.lastIndexOf('/') ? "" : path.substring(dot + 1).toLowerCase(Locale.ROOT);
+  }
+
+  private static String decode(String value) {
+    if (value == null) {
+      return "";
+    }
+    try {
+      return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException ex) {
+      return value;
+    }
+  }
+
+  private static String unescape(String text) {
+    if (text.indexOf('&') < 0) {
+      return text;
+    }
+    var matcher = ENTITY.matcher(text);
+    var out = new StringBuilder(text.length());
+    while (matcher.find()) {
+      matcher.appendReplacement(out, Matcher.quoteReplacement(entity(matcher.group(1), matcher.group())));
+    }
+    matcher.appendTail(out);
+    return out.toString();
+  }
+
+  private static String entity(String name, String raw) {
+    try {
+      if (name.startsWith("#x") || name.startsWith("#X")) {
+        return Character.toString(Integer.parseInt(name.substring(2), 16));
+      }
+      if (name.startsWith("#")) {
+        return Character.toString(Integer.parseInt(name.substring(1)));
+      }
+    } catch (IllegalArgumentException ex) {
+      return raw;
+    }
+    return NAMED_ENTITIES.getOrDefault(name.toLowerCase(Locale.ROOT), raw);
+  }
+}
@@ -0,0 +1,184 @@
+package md.fizicamd.app.resources;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull parser for WordPress export (WXR) files. Only the current {@code <item>} is held in
+ * memory, so exports of any size stream in constant space. Items up to {@code skipItems} are
+ * skipped without reading their text, which is how a resumed import fast-forwards.
+ */
+final class WxrReader implements AutoCloseable {
+  private static final String WP_NAMESPACE = "http://wordpress.org/export/";
+  private static final String CONTENT_NAMESPACE = "http://purl.org/rss/1.0/modules/content/";
+
+  private final XMLStreamReader xml;
+  private final long skipItems;
+  private long position;
+
+  WxrReader(InputStream input, long skipItems) throws XMLStreamException {
+    var factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    this.xml = factory.createXMLStreamReader(input, "UTF-8");
+    this.skipItems = skipItems;
+  }
+
+  /** Next channel category or item, or {@code null} at the end of the document. */
+  Entry next() throws XMLStreamException {
+    while (xml.hasNext()) {
+      if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      var name = xml.getLocalName();
+      if ("item".equals(name) && noNamespace(xml.getNamespaceURI())) {
+        position++;
+        if (position <= skipItems) {
+          skipElement();
+          continue;
+        }
+        return readItem();
+      }
+      if ("category".equals(name) && isWp(xml.getNamespaceURI())) {
+        return readCategory();
+      }
+    }
+    return null;
+  }
+
+  /** 1-based position of the last item returned or skipped. */
+  long position() {
+    return position;
+  }
+
+  @Override
+  public void close() throws XMLStreamException {
+    xml.close();
+  }
+
+  private Category readCategory() throws XMLStreamException {
+    String nicename = null;
+    String name = null;
+    String parent = null;
+    while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      switch (xml.getLocalName()) {
+        case "category_nicename" -> nicename = xml.getElementText().trim();
+        case "cat_name" -> name = xml.getElementText().trim();
+        case "category_parent" -> parent = xml.getElementText().trim();
+        default -> skipElement();
+      }
+    }
+    return new Category(nicename, name, parent == null || parent.isEmpty() ? null : parent);
+  }
+
+  private Item readItem() throws XMLStreamException {
+    var item = new ItemBuilder();
+    while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+      var namespace = xml.getNamespaceURI();
+      var name = xml.getLocalName();
+      if (noNamespace(namespace)) {
+        switch (name) {
+          case "title" -> item.title = xml.getElementText();
+          case "link" -> item.link = xml.getElementText().trim();
+          case "category" -> {
+            var domain = xml.getAttributeValue(null, "domain");
+            var nicename = xml.getAttributeValue(null, "nicename");
+            var label = xml.getElementText().trim();
+            if ("category".equals(domain)) {
+              item.categories.add(new Term(nicename, label));
+            } else if ("post_tag".equals(domain)) {
+              item.tags.add(label);
+            }
+          }
+          default -> skipElement();
+        }
+      } else if ("encoded".equals(name)) {
+        if (CONTENT_NAMESPACE.equals(namespace)) {
+          item.content = xml.getElementText();
+        } else {
+          item.excerpt = xml.getElementText();
+        }
+      } else if (isWp(namespace)) {
+        switch (name) {
+          case "post_id" -> item.postId = xml.getElementText().trim();
+          case "post_name" -> item.postName = xml.getElementText().trim();
+          case "post_type" -> item.postType = xml.getElementText().trim();
+          case "status" -> item.status = xml.getElementText().trim();
+          case "post_date_gmt" -> item.dateGmt = xml.getElementText().trim();
+          default -> skipElement();
+        }
+      } else {
+        skipElement();
+      }
+    }
+    return item.build(position);
+  }
+
+  // Called on a START_ELEMENT; returns positioned on its matching END_ELEMENT.
+  private void skipElement() throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      var event = xml.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  // Excerpts live in ".../export/1.2/excerpt/", which must not be mistaken for wp: elements.
+  private static boolean isWp(String namespace) {
+    return namespace != null && namespace.startsWith(WP_NAMESPACE) && !namespace.endsWith("/excerpt/");
+  }
+
+  private static boolean noNamespace(String namespace) {
+    return namespace == null || namespace.isEmpty();
+  }
+
+  sealed interface Entry permits Category, Item {}
+
+  record Category(String nicename, String name, String parentNicename) implements Entry {}
+
+  record Term(String nicename, String label) {}
+
+  record Item(
+    long position,
+    String postId,
+    String postType,
+    String status,
+    String title,
+    String postName,
+    String link,
+    String dateGmt,
+    String content,
+    String excerpt,
+    List<Term> categories,
+    List<String> tags
+  ) implements Entry {}
+
+  private static final class ItemBuilder {
+    private final List<Term> categories = new ArrayList<>();
+    private final List<String> tags = new ArrayList<>();
+    private String postId;
+    private String postType;
+    private String status;
+    private String title;
+    private String postName;
+    private String link;
+    private String dateGmt;
+    private String content;
+    private String excerpt;
+
+    private Item build(long position) {
+      return new Item(position, postId, postType, status, title, postName, link, dateGmt, content, excerpt,
+        List.copyOf(categories), List.copyOf(tags));
+    }
+  }
+}
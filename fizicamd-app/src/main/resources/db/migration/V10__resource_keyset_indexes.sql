@@ -0,0 +1,3 @@
+-- Keyset pagination of a single category, ordered like the public listing.
+CREATE INDEX IF NOT EXISTS idx_resource_entries_category_published
+  ON resource_entries(category_code, status, published_at DESC, id DESC);
@@ -0,0 +1,24 @@
+-- Accent-insensitive full-text search over resource titles, summaries and tags.
+-- The "simple" parser/dictionary keeps Romanian and Russian words as-is (no stemming),
+-- unaccent folds ă/â/î/ș/ț and ё so queries typed without diacritics still match.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+DO $$
+BEGIN
+  IF NOT EXISTS (SELECT 1 FROM pg_ts_config WHERE cfgname = 'fizicamd_search') THEN
+    CREATE TEXT SEARCH CONFIGURATION fizicamd_search (COPY = simple);
+    ALTER TEXT SEARCH CONFIGURATION fizicamd_search
+      ALTER MAPPING FOR asciiword, asciihword, hword_asciipart, word, hword, hword_part
+      WITH unaccent, simple;
+  END IF;
+END
+$$;
+
+ALTER TABLE resource_entries
+  ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('fizicamd_search'::regconfig, coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('fizicamd_search'::regconfig, coalesce(summary, '')), 'B') ||
+    setweight(to_tsvector('fizicamd_search'::regconfig, coalesce(tags::text, '')), 'C')
+  ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_resource_entries_search ON resource_entries USING GIN (search_vector);
@@ -0,0 +1,14 @@
+-- Published resources per category, maintained by the application in the same transaction
+-- as the entry change and periodically reconciled against resource_entries.
+CREATE TABLE IF NOT EXISTS resource_category_counts (
+  category_code TEXT PRIMARY KEY REFERENCES resource_categories(code) ON DELETE CASCADE,
+  published_count BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+INSERT INTO resource_category_counts (category_code, published_count)
+SELECT c.code, COUNT(e.id)
+FROM resource_categories c
+LEFT JOIN resource_entries e ON e.category_code = c.code AND e.status = 'PUBLISHED'
+GROUP BY c.code
+ON CONFLICT (category_code) DO NOTHING;
@@ -0,0 +1,7 @@
+-- Teacher dashboard: one author's resources newest first, keyset-paginated on (created_at, id).
+CREATE INDEX IF NOT EXISTS idx_resource_entries_author_created
+  ON resource_entries(author_id, created_at DESC, id DESC);
+
+-- Admin dashboard walks every resource in the same order.
+CREATE INDEX IF NOT EXISTS idx_resource_entries_created
+  ON resource_entries(created_at DESC, id DESC);
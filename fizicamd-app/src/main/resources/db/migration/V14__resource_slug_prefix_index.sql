@@ -0,0 +1,3 @@
+-- Lets bulk imports find every taken "<base>%" slug in one index range scan.
+CREATE INDEX IF NOT EXISTS idx_resource_entries_slug_pattern
+  ON resource_entries(slug text_pattern_ops);
@@ -0,0 +1,23 @@
+-- WordPress (WXR) archive imports. items_done is the resume checkpoint: the number of <item>
+-- elements whose resources were committed, so a restarted job skips them without reparsing.
+CREATE TABLE IF NOT EXISTS resource_wxr_imports (
+  id UUID PRIMARY KEY,
+  source_file TEXT NOT NULL,
+  requested_by UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+  status TEXT NOT NULL,
+  items_done BIGINT NOT NULL DEFAULT 0,
+  imported_count BIGINT NOT NULL DEFAULT 0,
+  skipped_count BIGINT NOT NULL DEFAULT 0,
+  failed_count BIGINT NOT NULL DEFAULT 0,
+  last_error TEXT NULL,
+  started_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  finished_at TIMESTAMPTZ NULL
+);
+
+-- Files copied from the WordPress uploads directory, so re-runs and resumed jobs reuse them.
+CREATE TABLE IF NOT EXISTS resource_wxr_media (
+  source_path TEXT PRIMARY KEY,
+  media_id UUID NOT NULL REFERENCES media_assets(id) ON DELETE CASCADE,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,27 @@
+-- Delta sync: clients ask for rows changed after a (timestamp, id) position.
+CREATE INDEX IF NOT EXISTS idx_resource_entries_updated
+  ON resource_entries(updated_at, id);
+
+-- Tombstones of deleted resources, written by the database so every delete path
+-- (including ON DELETE CASCADE from users) is recorded. Old rows are purged by the app.
+CREATE TABLE IF NOT EXISTS resource_deletions (
+  resource_id UUID PRIMARY KEY,
+  deleted_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_resource_deletions_deleted
+  ON resource_deletions(deleted_at, resource_id);
+
+CREATE OR REPLACE FUNCTION record_resource_deletion() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO resource_deletions (resource_id, deleted_at)
+  VALUES (OLD.id, now())
+  ON CONFLICT (resource_id) DO UPDATE SET deleted_at = EXCLUDED.deleted_at;
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_resource_entries_deleted ON resource_entries;
+CREATE TRIGGER trg_resource_entries_deleted
+  AFTER DELETE ON resource_entries
+  FOR EACH ROW EXECUTE FUNCTION record_resource_deletion();
@@ -0,0 +1,25 @@
+-- Edit history of resources. Every snapshot-interval revisions (and for the first one) the full
+-- block list is stored in content; the revisions in between only store a block-level delta
+-- against the previous revision, so rebuilding one replays at most interval - 1 deltas from
+-- base_revision, the snapshot its chain starts at.
+CREATE TABLE IF NOT EXISTS resource_revisions (
+  id UUID PRIMARY KEY,
+  resource_id UUID NOT NULL REFERENCES resource_entries(id) ON DELETE CASCADE,
+  revision INT NOT NULL,
+  base_revision INT NOT NULL,
+  category_code TEXT NOT NULL,
+  title TEXT NOT NULL,
+  summary TEXT NOT NULL,
+  avatar_media_id UUID NULL,
+  tags JSONB NULL,
+  status TEXT NOT NULL,
+  content JSONB NULL,
+  delta JSONB NULL,
+  edited_by UUID NULL REFERENCES users(id) ON DELETE SET NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  CONSTRAINT uq_resource_revisions UNIQUE (resource_id, revision),
+  CONSTRAINT chk_resource_revisions_body CHECK ((revision = base_revision) = (content IS NOT NULL))
+);
+
+CREATE INDEX IF NOT EXISTS idx_resource_revisions_created
+  ON resource_revisions(resource_id, created_at);
@@ -0,0 +1,12 @@
+-- Content-addressed media: identical uploads share one file under blobs/<aa>/<sha256>.
+-- ref_count is the number of media_assets rows pointing at the blob; the file is removed
+-- once it drops to zero.
+CREATE TABLE IF NOT EXISTS media_blobs (
+  sha256 TEXT PRIMARY KEY,
+  size_bytes BIGINT NOT NULL,
+  ref_count INT NOT NULL DEFAULT 0,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_media_assets_sha256 ON media_assets(sha256);
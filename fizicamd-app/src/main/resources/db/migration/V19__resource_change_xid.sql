@@ -0,0 +1,38 @@
+-- Delta sync orders changes by the transaction that wrote them. Every transaction id below
+-- pg_snapshot_xmin(pg_current_snapshot()) has finished, so rows up to there are final and no
+-- later commit can land behind a client's position. Read-only transactions never get an id
+-- and do not hold that bound back. Rows written before this migration keep 0.
+ALTER TABLE resource_entries ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE resource_deletions ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION stamp_resource_change_xid() RETURNS trigger AS $$
+BEGIN
+  NEW.change_xid := pg_current_xact_id()::text::bigint;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_resource_entries_change_xid ON resource_entries;
+CREATE TRIGGER trg_resource_entries_change_xid
+  BEFORE INSERT OR UPDATE ON resource_entries
+  FOR EACH ROW EXECUTE FUNCTION stamp_resource_change_xid();
+
+-- deleted_at is the time of the delete itself rather than of its transaction's start, so it
+-- never sorts before the transaction got its id.
+CREATE OR REPLACE FUNCTION record_resource_deletion() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO resource_deletions (resource_id, deleted_at, change_xid)
+  VALUES (OLD.id, clock_timestamp(), pg_current_xact_id()::text::bigint)
+  ON CONFLICT (resource_id) DO UPDATE
+    SET deleted_at = EXCLUDED.deleted_at, change_xid = EXCLUDED.change_xid;
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP INDEX IF EXISTS idx_resource_entries_updated;
+
+CREATE INDEX IF NOT EXISTS idx_resource_entries_change
+  ON resource_entries(change_xid, id);
+
+CREATE INDEX IF NOT EXISTS idx_resource_deletions_change
+  ON resource_deletions(change_xid, resource_id);
@@ -0,0 +1,11 @@
+-- WordPress posts already turned into resources, keyed by their wp:post_id, so re-runs and
+-- resumed jobs skip exactly those posts. Written in the transaction that inserts the resource.
+CREATE TABLE IF NOT EXISTS resource_wxr_posts (
+  post_id BIGINT PRIMARY KEY,
+  resource_id UUID NOT NULL REFERENCES resource_entries(id) ON DELETE CASCADE,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Posts skipped because an earlier run imported them; skipped_count keeps the non-importable
+-- items (attachments, revisions, trash).
+ALTER TABLE resource_wxr_imports ADD COLUMN IF NOT EXISTS duplicate_count BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,86 @@
+package md.fizicamd.app.api.feeds;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import md.fizicamd.app.resources.PublishedResourceCursor;
+import md.fizicamd.app.resources.ResourceCatalogVersion;
+import md.fizicamd.app.resources.ResourceCategoryView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogDocumentWriterTest {
+  private static final ResourceCategoryView FTM = new ResourceCategoryView(UUID.randomUUID(), "revista-ftm", "Revista FTM", "Reviste", 3, 3);
+
+  @Mock
+  private PublishedResourceCursor cursor;
+
+  @Test
+  void writesEscapedAtomEntriesFromTheCursor() throws Exception {
+    var id = UUID.randomUUID();
+    var published = Instant.parse("2019-05-01T10:00:00Z");
+    doAnswer(invocation -> {
+      Consumer<PublishedResourceCursor.Row> consumer = invocation.getArgument(1);
+      consumer.accept(new PublishedResourceCursor.Row(id, "legea-ohm", "Ohm & Kirchhoff", "U = R·I <b>", "revista-ftm", published, published));
+      return null;
+    }).when(cursor).forEachPublishedInCategory(eq("revista-ftm"), any());
+    var writer = new CatalogDocumentWriter(cursor, "https://fizica.md/", "FizicaMD", "/resources");
+
+    var out = new ByteArrayOutputStream();
+    writer.writeCategoryFeed(out, FTM);
+
+    var xml = out.toString(StandardCharsets.UTF_8);
+    assertThat(xml).contains("<feed xmlns=\"http://www.w3.org/2005/Atom\">");
+    assertThat(xml).contains("<id>urn:uuid:" + id + "</id>");
+    assertThat(xml).contains("<title>Ohm &amp; Kirchhoff</title>");
+    assertThat(xml).contains("<link href=\"https://fizica.md/resources/legea-ohm\"");
+    assertThat(xml).contains("<summary>U = R·I &lt;b&gt;</summary>");
+    assertThat(xml).contains("<published>2019-05-01T10:00:00Z</published>");
+  }
+
+  @Test
+  void feedIsUpdatedWhenItsCategoryLastChanged() throws Exception {
+    when(cursor.lastChangeInCategory("revista-ftm")).thenReturn(Optional.of(Instant.parse("2024-03-02T08:30:00Z")));
+    var writer = new CatalogDocumentWriter(cursor, "https://fizica.md", "FizicaMD", "/resources");
+
+    var out = new ByteArrayOutputStream();
+    writer.writeCategoryFeed(out, FTM);
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).contains("<updated>2024-03-02T08:30:00Z</updated>");
+  }
+
+  @Test
+  void cachesARenderedDocumentOnlyForItsCatalogVersion() throws Exception {
+    var version = new ResourceCatalogVersion();
+    var cache = new FeedDocumentCache(version, new SimpleMeterRegistry(), 1 << 20, 1 << 16);
+    var writer = new CatalogDocumentWriter(cursor, "https://fizica.md", "FizicaMD", "/resources");
+    var atVersion = version.current();
+
+    var first = new ByteArrayOutputStream();
+    cache.render("sitemap", atVersion, first, out -> writer.writeUrlSet(out, List.of(FTM), 0, 10));
+
+    assertThat(cache.get("sitemap", atVersion)).isEqualTo(first.toByteArray());
+    assertThat(first.toString(StandardCharsets.UTF_8)).contains("<loc>https://fizica.md/resources?category=revista-ftm</loc>");
+    verify(cursor, times(1)).forEachPublished(eq(0L), eq(10), any());
+
+    version.onCategoriesChanged(null);
+    assertThat(cache.get("sitemap", version.current())).isNull();
+  }
+}
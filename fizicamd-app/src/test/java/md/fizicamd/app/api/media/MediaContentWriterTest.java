@@ -0,0 +1,124 @@
+package md.fizicamd.app.api.media;
+
+import md.fizicamd.app.media.MediaService.MediaContent;
+import md.fizicamd.media.domain.MediaAsset;
+import md.fizicamd.media.domain.MediaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaContentWriterTest {
+  private static final String CONTENT = "0123456789abcdefghij";
+
+  @TempDir
+  Path dir;
+
+  private final MediaContentWriter writer = new MediaContentWriter(true, 8);
+  private MediaContent content;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    var file = Files.writeString(dir.resolve("barem.pdf"), CONTENT);
+    var asset = new MediaAsset(UUID.randomUUID(), null, MediaType.DOCUMENT, "application/pdf", CONTENT.length(),
+      "resources", "barem", Instant.now());
+    content = new MediaContent(asset, file);
+  }
+
+  @Test
+  void withoutRangeSendsWholeFile() throws Exception {
+    var response = send(new MockHttpServletRequest("GET", "/"));
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+    assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void singleRangeIsPartialContent() throws Exception {
+    var request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("Range", "bytes=-5");
+
+    var response = send(request);
+
+    assertThat(response.getStatus()).isEqualTo(206);
+    assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 15-19/20");
+    assertThat(response.getContentAsString()).isEqualTo("fghij");
+  }
+
+  @Test
+  void severalRangesAreSentAsMultipartWithOverlapsMerged() throws Exception {
+    var request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("Range", "bytes=0-1, 10-12, 1-3");
+
+    var response = send(request);
+
+    assertThat(response.getStatus()).isEqualTo(206);
+    assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+    var body = response.getContentAsString(StandardCharsets.US_ASCII);
+    assertThat(body).contains("Content-Range: bytes 0-3/20\r\n\r\n0123\r\n--");
+    assertThat(body).contains("Content-Range: bytes 10-12/20\r\n\r\nabc\r\n--");
+    assertThat(body).endsWith("--\r\n");
+    assertThat(response.getContentLengthLong()).isEqualTo(response.getContentAsByteArray().length);
+  }
+
+  @Test
+  void unsatisfiableRangeIs416() throws Exception {
+    var request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("Range", "bytes=50-");
+
+    var response = send(request);
+
+    assertThat(response.getStatus()).isEqualTo(416);
+    assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */20");
+  }
+
+  @Test
+  void staleIfRangeGetsWholeFile() throws Exception {
+    var etag = send(new MockHttpServletRequest("GET", "/")).getHeader("ETag");
+    var request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("Range", "bytes=0-4");
+    request.addHeader("If-Range", "\"changed\"");
+
+    var stale = send(request);
+    request = new MockHttpServletRequest("GET", "/");
+    request.addHeader("Range", "bytes=0-4");
+    request.addHeader("If-Range", etag);
+    var current = send(request);
+
+    assertThat(stale.getStatus()).isEqualTo(200);
+    assertThat(stale.getContentAsString()).isEqualTo(CONTENT);
+    assertThat(current.getStatus()).isEqualTo(206);
+    assertThat(current.getContentAsString()).isEqualTo("01234");
+  }
+
+  @Test
+  void handsLargeEnoughBodiesToContainerSendfile() throws Exception {
+    var request = new MockHttpServletRequest("GET", "/");
+    request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+    request.addHeader("Range", "bytes=5-14");
+
+    var response = send(request);
+
+    assertThat(response.getStatus()).isEqualTo(206);
+    assertThat(response.getContentAsByteArray()).isEmpty();
+    assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(content.file().toAbsolutePath().toString());
+    assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(5L);
+    assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(15L);
+  }
+
+  private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+    var response = new MockHttpServletResponse();
+    writer.write(content, request, response);
+    return response;
+  }
+}
@@ -1,7 +1,16 @@
 package md.fizicamd.app.api.resources;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import md.fizicamd.app.resources.CursorPage;
+import md.fizicamd.app.resources.ResourceCard;
+import md.fizicamd.app.resources.ResourceChangeLog;
+import md.fizicamd.app.resources.ResourceChangeToken;
 import md.fizicamd.app.resources.ResourceEntry;
 import md.fizicamd.app.resources.ResourceService;
+import md.fizicamd.app.resources.ResourceStatus;
+import md.fizicamd.app.resources.ResourceSuggestIndex;
+import md.fizicamd.app.resources.ResourceTagIndex;
 import md.fizicamd.app.security.JwtAuthFilter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,23 +20,32 @@ import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfigurat
 import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static md.fizicamd.app.api.resources.ResourceDtos.ResourceCardDto;
-import static org.mockito.Mockito.mock;
+import static md.fizicamd.app.api.resources.ResourceDtos.ResourceDetailDto;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -38,33 +56,55 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
   HibernateJpaAutoConfiguration.class,
   JpaRepositoriesAutoConfiguration.class
 })
-@ContextConfiguration(classes = PublicResourcesController.class)
+@ContextConfiguration(classes = {
+  PublicResourcesController.class,
+  PublicResourcesControllerTest.ListingCacheConfig.class
+})
 class PublicResourcesControllerTest {
 
+  @TestConfiguration
+  static class ListingCacheConfig {
+    @Bean
+    PublicListingCache publicListingCache(ResourceService resourceService, ResourceMapper mapper, ObjectMapper objectMapper) {
+      return new PublicListingCache(resourceService, mapper, objectMapper, new SimpleMeterRegistry(),
+        Duration.ofMinutes(1), Duration.ofMinutes(5), 1 << 20, 1);
+    }
+  }
+
   @Autowired
   private MockMvc mockMvc;
 
   @MockBean
   private ResourceService resourceService;
 
+  @MockBean
+  private ResourceSuggestIndex suggestIndex;
+
+  @MockBean
+  private ResourceDetailCache detailCache;
+
+  @MockBean
+  private ResourceTagIndex tagIndex;
+
   @MockBean
   private ResourceMapper resourceMapper;
 
+  @MockBean
+  private ResourceChangeLog changeLog;
+
   @MockBean
   private JwtAuthFilter jwtAuthFilter;
 
   @Test
   void returnsPagedResourcesWithMetadata() throws Exception {
-    var first = mock(ResourceEntry.class);
-    var second = mock(ResourceEntry.class);
     var firstId = UUID.randomUUID();
     var secondId = UUID.randomUUID();
-    when(first.getId()).thenReturn(firstId);
-    when(second.getId()).thenReturn(secondId);
+    var first = card(firstId);
+    var second = card(secondId);
     var page = new PageImpl<>(List.of(first, second), PageRequest.of(1, 5), 12);
 
     when(resourceService.listPublishedPage(eq("cat-1"), eq(1), eq(5))).thenReturn(page);
-    when(resourceMapper.toCard(first)).thenReturn(new ResourceCardDto(
+    when(resourceMapper.toCards(List.of(first, second))).thenReturn(List.of(new ResourceCardDto(
       firstId,
       "Resursa 1",
       "resursa-1",
@@ -75,8 +115,7 @@ class PublicResourcesControllerTest {
       "Autor",
       null,
       null
-    ));
-    when(resourceMapper.toCard(second)).thenReturn(new ResourceCardDto(
+    ), new ResourceCardDto(
       secondId,
       "Resursa 2",
       "resursa-2",
@@ -87,7 +126,7 @@ class PublicResourcesControllerTest {
       "Autor",
       null,
       null
-    ));
+    )));
 
     mockMvc.perform(get("/api/public/resources")
         .queryParam("category", "cat-1")
@@ -117,4 +156,85 @@ class PublicResourcesControllerTest {
 
     verify(resourceService).listPublishedPage(null, 0, 30);
   }
+
+  @Test
+  void taggedPagesFarPastTheEndAreEmpty() throws Exception {
+    when(tagIndex.findByTags(List.of("optica"), true, Integer.MAX_VALUE, 30))
+      .thenReturn(new ResourceTagIndex.TagMatches(List.of(), 4));
+
+    mockMvc.perform(get("/api/public/resources/tagged")
+        .queryParam("tag", "optica")
+        .queryParam("limit", "30")
+        .queryParam("page", String.valueOf(Integer.MAX_VALUE))
+        .accept(MediaType.APPLICATION_JSON))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.items.length()").value(0))
+      .andExpect(jsonPath("$.total").value(4));
+  }
+
+  @Test
+  void cursorModeReturnsNextCursorWithoutCounting() throws Exception {
+    when(resourceService.listPublishedAfter(eq("cat-1"), eq("abc"), eq(5)))
+      .thenReturn(new CursorPage<>(List.of(card(UUID.randomUUID())), "next-token"));
+
+    mockMvc.perform(get("/api/public/resources")
+        .queryParam("category", "cat-1")
+        .queryParam("limit", "5")
+        .queryParam("cursor", "abc")
+        .accept(MediaType.APPLICATION_JSON))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.nextCursor").value("next-token"))
+      .andExpect(jsonPath("$.total").doesNotExist())
+      .andExpect(jsonPath("$.size").value(5));
+
+    verify(resourceService, never()).countPublished(any());
+  }
+
+  @Test
+  void detailAnswersMatchingEtagWithNotModified() throws Exception {
+    var body = "{\"slug\":\"resursa\"}".getBytes(StandardCharsets.UTF_8);
+    when(detailCache.get("resursa")).thenReturn(
+      new ResourceDetailCache.RenderedDetail(body, "\"abc\"", UUID.randomUUID(), Instant.now())
+    );
+
+    mockMvc.perform(get("/api/public/resources/resursa"))
+      .andExpect(status().isOk())
+      .andExpect(header().string("ETag", "\"abc\""))
+      .andExpect(jsonPath("$.slug").value("resursa"));
+
+    mockMvc.perform(get("/api/public/resources/resursa").header("If-None-Match", "\"abc\""))
+      .andExpect(status().isNotModified());
+    verify(resourceService, never()).findPublishedBySlug(any());
+  }
+
+  @Test
+  void changesSplitsUpdatesFromTombstones() throws Exception {
+    var publishedId = UUID.randomUUID();
+    var deletedId = UUID.randomUUID();
+    var since = new ResourceChangeToken(1200, UUID.randomUUID(), Instant.parse("2026-01-01T00:00:00Z"));
+    var deletedAt = Instant.parse("2026-01-02T00:00:00Z");
+    var next = new ResourceChangeToken(1300, deletedId, deletedAt);
+    var entry = mock(ResourceEntry.class);
+    when(entry.getStatus()).thenReturn(ResourceStatus.PUBLISHED);
+    when(changeLog.changesSince(since, 100)).thenReturn(new ResourceChangeLog.Batch(List.of(
+      new ResourceChangeLog.Change(publishedId, Instant.parse("2026-01-01T12:00:00Z"), true),
+      new ResourceChangeLog.Change(deletedId, deletedAt, false)
+    ), next, true));
+    when(resourceService.findByIds(List.of(publishedId))).thenReturn(Map.of(publishedId, entry));
+    when(resourceMapper.toDetail(entry)).thenReturn(new ResourceDetailDto(
+      publishedId, "Titlu", "titlu", "Sumar", null, null, null, List.of(), "Autor", null, ResourceStatus.PUBLISHED, List.of()
+    ));
+
+    mockMvc.perform(get("/api/public/resources/changes").queryParam("since", since.encode()))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.updated[0].id").value(publishedId.toString()))
+      .andExpect(jsonPath("$.removed[0].id").value(deletedId.toString()))
+      .andExpect(jsonPath("$.nextToken").value(next.encode()))
+      .andExpect(jsonPath("$.hasMore").value(true))
+      .andExpect(jsonPath("$.resetRequired").value(false));
+  }
+
+  private static ResourceCard card(UUID id) {
+    return new ResourceCard(id, "cat-1", UUID.randomUUID(), "Titlu", "titlu", "Sumar", null, List.of(), null, null, null, null);
+  }
 }
@@ -0,0 +1,123 @@
+package md.fizicamd.app.api.resources;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import md.fizicamd.app.resources.AuthorNameCache;
+import md.fizicamd.app.resources.ResourceCard;
+import md.fizicamd.app.resources.ResourceCategory;
+import md.fizicamd.app.resources.ResourceCategoryCatalog;
+import md.fizicamd.app.resources.ResourceCategoryCountRepository;
+import md.fizicamd.app.resources.ResourceCategoryCounts;
+import md.fizicamd.app.resources.ResourceCategoryRepository;
+import md.fizicamd.app.resources.ResourceEntryRepository;
+import md.fizicamd.app.resources.ResourceRevisions;
+import md.fizicamd.app.resources.ResourceService;
+import md.fizicamd.app.resources.ResourceStatus;
+import md.fizicamd.identity.application.UserProfileRepository;
+import md.fizicamd.identity.application.UserRepository;
+import md.fizicamd.identity.domain.Profile.UserProfile;
+import md.fizicamd.identity.domain.User;
+import md.fizicamd.identity.domain.UserStatus;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceMapperTest {
+
+  @Mock
+  private ResourceCategoryRepository categoryRepository;
+
+  @Mock
+  private ResourceEntryRepository entryRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private UserProfileRepository profileRepository;
+
+  @Mock
+  private ResourceCategoryCountRepository countRepository;
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 9, 30})
+  void toCardsUsesFixedQueryCountPerPageAndServesRepeatsFromMemory(int pageSize) {
+    var service = new ResourceService(
+      categoryRepository,
+      entryRepository,
+      userRepository,
+      profileRepository,
+      new ResourceCategoryCatalog(categoryRepository),
+      event -> {},
+      new AuthorNameCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)),
+      new ResourceCategoryCounts(countRepository),
+      mock(ResourceRevisions.class),
+      new SimpleMeterRegistry()
+    );
+    var mapper = new ResourceMapper(service);
+
+    var namedAuthor = UUID.randomUUID();
+    var anonymousAuthor = UUID.randomUUID();
+    var profile = new UserProfile(namedAuthor);
+    profile.setFirstName("Ion");
+    profile.setLastName("Popescu");
+    var user = new User(anonymousAuthor, "profesor@fizica.md", "hash", UserStatus.ACTIVE, Instant.now());
+    var category = mock(ResourceCategory.class);
+    when(category.getCode()).thenReturn("metodica");
+    when(category.getLabel()).thenReturn("Metodica");
+
+    when(profileRepository.findByIds(anyCollection())).thenReturn(List.of(profile));
+    lenient().when(userRepository.findByIds(anyCollection())).thenReturn(List.of(user));
+    when(categoryRepository.findAllByOrderByGroupOrderAscSortOrderAsc()).thenReturn(List.of(category));
+
+    var entries = new ArrayList<ResourceCard>();
+    for (int i = 0; i < pageSize; i++) {
+      entries.add(new ResourceCard(
+        UUID.randomUUID(),
+        "metodica",
+        i % 2 == 0 ? namedAuthor : anonymousAuthor,
+        "Resursa " + i,
+        "resursa-" + i,
+        "Sumar",
+        null,
+        List.of("mecanica"),
+        ResourceStatus.PUBLISHED,
+        Instant.now(),
+        Instant.now(),
+        Instant.now()
+      ));
+    }
+
+    var cards = mapper.toCards(entries);
+    mapper.toCards(entries);
+
+    assertThat(cards).hasSize(pageSize);
+    assertThat(cards.get(0).authorName()).isEqualTo("Ion Popescu");
+    assertThat(cards.get(0).category().label()).isEqualTo("Metodica");
+    assertThat(cards.get(0).tags()).containsExactly("mecanica");
+    if (pageSize > 1) {
+      assertThat(cards.get(1).authorName()).isEqualTo("profesor@fizica.md");
+    }
+    verify(profileRepository, times(1)).findByIds(anyCollection());
+    verify(userRepository, times(pageSize > 1 ? 1 : 0)).findByIds(anyCollection());
+    verify(categoryRepository, times(1)).findAllByOrderByGroupOrderAscSortOrderAsc();
+    verifyNoMoreInteractions(profileRepository, userRepository, categoryRepository, entryRepository);
+  }
+}
@@ -0,0 +1,128 @@
+package md.fizicamd.app.api.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import md.fizicamd.app.api.resources.ResourceDtos.ResourceDetailDto;
+import md.fizicamd.app.resources.ResourceCard;
+import md.fizicamd.app.resources.ResourceCategoryCatalog;
+import md.fizicamd.app.resources.ResourceChangedEvent;
+import md.fizicamd.app.resources.ResourceEntry;
+import md.fizicamd.app.resources.ResourceService;
+import md.fizicamd.app.resources.ResourceStatus;
+import md.fizicamd.shared.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StaticCatalogPublisherTest {
+
+  @Mock
+  private ResourceService resourceService;
+
+  @Mock
+  private ResourceMapper mapper;
+
+  @TempDir
+  private Path root;
+
+  private StaticCatalogPublisher publisher;
+  private ObjectMapper objectMapper;
+  private ResourceCard card;
+
+  @BeforeEach
+  void setUp() {
+    card = new ResourceCard(UUID.randomUUID(), "metodica", UUID.randomUUID(), "Optica", "optica", "Lentile",
+      null, List.of(), ResourceStatus.PUBLISHED, Instant.now(), Instant.now(), Instant.now());
+    objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    lenient().when(resourceService.categoryCatalog()).thenReturn(new ResourceCategoryCatalog.Snapshot(1, List.of(), Map.of(), Map.of()));
+    lenient().when(resourceService.publishedCountsByCategory()).thenReturn(Map.of());
+    lenient().when(resourceService.readPublishedPage(any(), anyInt(), anyInt()))
+      .thenAnswer(invocation -> {
+        int page = invocation.getArgument(1);
+        return new PageImpl<>(page == 0 ? List.of(card) : List.of(), PageRequest.of(page, 9), 1);
+      });
+    publisher = new StaticCatalogPublisher(resourceService, mapper, objectMapper, root, 9, 3, Runnable::run);
+  }
+
+  @Test
+  void writesDetailAndFirstListingPageWithGzipTwins() throws Exception {
+    var detail = detail("Optica");
+    var entry = mock(ResourceEntry.class);
+    when(resourceService.findPublishedBySlug("optica")).thenReturn(entry);
+    when(mapper.toDetail(entry)).thenReturn(detail);
+    var body = objectMapper.writeValueAsBytes(detail);
+
+    publisher.onResourceChanged(new ResourceChangedEvent(card.id(), null, card, Instant.now()));
+
+    assertThat(Files.readAllBytes(root.resolve("resources/optica.json"))).isEqualTo(body);
+    try (var gzip = new GZIPInputStream(new ByteArrayInputStream(Files.readAllBytes(root.resolve("resources/optica.json.gz"))))) {
+      assertThat(gzip.readAllBytes()).isEqualTo(body);
+    }
+    assertThat(root.resolve("pages/_all/1.json")).exists();
+    assertThat(root.resolve("pages/_all/2.json")).doesNotExist();
+    assertThat(root.resolve("categories-with-counts.json")).exists();
+  }
+
+  @Test
+  void removesTheDetailOfAnUnpublishedResource() throws Exception {
+    Files.createDirectories(root.resolve("resources"));
+    Files.writeString(root.resolve("resources/optica.json"), "{}");
+    Files.writeString(root.resolve("resources/optica.json.gz"), "");
+    when(resourceService.findPublishedBySlug("optica")).thenThrow(new NotFoundException("Resursa nu există"));
+    var draft = new ResourceCard(card.id(), card.categoryCode(), card.authorId(), card.title(), card.slug(), card.summary(),
+      null, List.of(), ResourceStatus.DRAFT, null, card.createdAt(), Instant.now());
+
+    publisher.onResourceChanged(new ResourceChangedEvent(card.id(), card, draft, Instant.now()));
+
+    assertThat(root.resolve("resources/optica.json")).doesNotExist();
+    assertThat(root.resolve("resources/optica.json.gz")).doesNotExist();
+  }
+
+  @Test
+  void exportsTheCommittedDetailEvenWhileTheDetailCacheIsStale() throws Exception {
+    var before = mock(ResourceEntry.class);
+    when(before.getAuthorId()).thenReturn(card.authorId());
+    var after = mock(ResourceEntry.class);
+    when(mapper.toDetail(before)).thenReturn(detail("Optica"));
+    when(mapper.toDetail(after)).thenReturn(detail("Optica geometrică"));
+    var detailCache = new ResourceDetailCache(resourceService, mapper, objectMapper, new SimpleMeterRegistry(), 1 << 20);
+    when(resourceService.findPublishedBySlug("optica")).thenReturn(before);
+    detailCache.get("optica");
+    when(resourceService.findPublishedBySlug("optica")).thenReturn(after);
+
+    // The export listener runs before the cache's own listener has evicted the old body.
+    publisher.onResourceChanged(new ResourceChangedEvent(card.id(), card, card, Instant.now()));
+
+    assertThat(objectMapper.readValue(detailCache.get("optica").body(), ResourceDetailDto.class).title()).isEqualTo("Optica");
+    assertThat(objectMapper.readValue(root.resolve("resources/optica.json").toFile(), ResourceDetailDto.class).title())
+      .isEqualTo("Optica geometrică");
+  }
+
+  private ResourceDetailDto detail(String title) {
+    return new ResourceDetailDto(card.id(), title, card.slug(), card.summary(), null, null, null, List.of(), "Autor",
+      card.publishedAt(), ResourceStatus.PUBLISHED, List.of());
+  }
+}
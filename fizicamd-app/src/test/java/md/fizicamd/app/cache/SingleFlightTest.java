@@ -0,0 +1,66 @@
+package md.fizicamd.app.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+  @Test
+  void concurrentCallersShareOneLoad() throws Exception {
+    var registry = new SimpleMeterRegistry();
+    var flight = new SingleFlight<String, String>("test", registry);
+    var loads = new AtomicInteger();
+    var release = new CountDownLatch(1);
+    var callers = 8;
+    var executor = Executors.newFixedThreadPool(callers);
+    try {
+      var results = new ArrayList<Future<String>>();
+      for (int i = 0; i < callers; i++) {
+        results.add(executor.submit(() -> flight.execute("slug", () -> {
+          loads.incrementAndGet();
+          await(release);
+          return "value";
+        })));
+      }
+      // Let every caller reach the in-flight load before it completes.
+      for (int i = 0; i < 1000 && registry.get("singleflight.coalesced").counter().count() < callers - 1; i++) {
+        Thread.sleep(5);
+      }
+      release.countDown();
+      for (var result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(loads).hasValue(1);
+    assertThat(registry.get("singleflight.loads").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void failedLoadIsNotRemembered() {
+    var flight = new SingleFlight<String, String>("test", new SimpleMeterRegistry());
+    assertThatThrownBy(() -> flight.execute("slug", () -> {
+      throw new IllegalStateException("boom");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(flight.execute("slug", () -> "value")).isEqualTo("value");
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package md.fizicamd.app.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaleWhileRevalidateCacheTest {
+
+  @Test
+  void servesStaleValueAndRefreshesInBackground() {
+    var loads = new AtomicInteger();
+    var pending = new ArrayDeque<Runnable>();
+    var cache = new StaleWhileRevalidateCache<String, String>(
+      "test",
+      key -> key + "-" + loads.incrementAndGet(),
+      String::length,
+      1024,
+      Duration.ofHours(1),
+      Duration.ofHours(2),
+      pending::add,
+      new SimpleMeterRegistry()
+    );
+
+    assertThat(cache.get("page")).isEqualTo("page-1");
+    assertThat(cache.get("page")).isEqualTo("page-1");
+    assertThat(pending).isEmpty();
+
+    cache.markAllStale();
+    assertThat(cache.get("page")).isEqualTo("page-1");
+    assertThat(cache.get("page")).isEqualTo("page-1");
+    assertThat(pending).hasSize(1);
+
+    pending.poll().run();
+    assertThat(cache.get("page")).isEqualTo("page-2");
+    assertThat(pending).isEmpty();
+
+    var stats = cache.keyStats(10);
+    assertThat(stats).singleElement().satisfies(key -> {
+      assertThat(key.requests()).isEqualTo(5);
+      assertThat(key.hitRatio()).isEqualTo(0.8);
+      assertThat(key.refreshes()).isEqualTo(1);
+      assertThat(key.stale()).isFalse();
+    });
+  }
+}
@@ -0,0 +1,27 @@
+package md.fizicamd.app.config;
+
+import md.fizicamd.app.resources.ResourceBlockType;
+import md.fizicamd.app.resources.ResourceContentBlock;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingJsonFormatMapperTest {
+
+  @Test
+  void parsedContentWeighsItsStringsAndObjects() {
+    var text = "Un corp de masă m alunecă pe un plan înclinat. ".repeat(20);
+    var block = new ResourceContentBlock(ResourceBlockType.TEXT, text, null, null, null, "Enunț");
+    var pdf = new ResourceContentBlock(ResourceBlockType.PDF, null, null, UUID.randomUUID(), "Barem", null);
+
+    var one = CachingJsonFormatMapper.estimateBytes(List.of(block));
+    var two = CachingJsonFormatMapper.estimateBytes(List.of(block, pdf));
+
+    assertThat(one).isGreaterThan(2L * text.length());
+    assertThat(two).isGreaterThan(one + 32);
+    assertThat(CachingJsonFormatMapper.estimateBytes(ResourceBlockType.TEXT)).isZero();
+  }
+}
@@ -0,0 +1,82 @@
+package md.fizicamd.app.config;
+
+import md.fizicamd.app.security.JwtAuthFilter;
+import md.fizicamd.app.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest
+@ImportAutoConfiguration(exclude = {
+  DataSourceAutoConfiguration.class,
+  HibernateJpaAutoConfiguration.class,
+  JpaRepositoriesAutoConfiguration.class
+})
+@ContextConfiguration(classes = {
+  SecurityConfig.class,
+  JwtAuthFilter.class,
+  SecurityConfigTest.ActuatorStub.class
+})
+class SecurityConfigTest {
+
+  // Stands in for the actuator endpoints, which a web slice does not register.
+  @RestController
+  static class ActuatorStub {
+    @GetMapping({"/actuator/health", "/actuator/info", "/actuator/metrics", "/actuator/listingcache", "/actuator/mediastorage"})
+    String ok() {
+      return "ok";
+    }
+  }
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockBean
+  private JwtService jwtService;
+
+  @Test
+  void healthAndInfoArePublic() throws Exception {
+    mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    mockMvc.perform(get("/actuator/info")).andExpect(status().isOk());
+  }
+
+  @Test
+  void otherActuatorEndpointsNeedAnAdmin() throws Exception {
+    mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+  }
+
+  @Test
+  void listingCacheKeysAreNotPublic() throws Exception {
+    mockMvc.perform(get("/actuator/listingcache")).andExpect(status().isForbidden());
+  }
+
+  @Test
+  void mediaStorageUsageIsNotPublic() throws Exception {
+    mockMvc.perform(get("/actuator/mediastorage")).andExpect(status().isForbidden());
+  }
+
+  @Test
+  @WithMockUser(roles = "TEACHER")
+  void teachersCannotReadActuatorEndpoints() throws Exception {
+    mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+  }
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void adminsCanReadActuatorEndpoints() throws Exception {
+    mockMvc.perform(get("/actuator/metrics")).andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,76 @@
+package md.fizicamd.app.media;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MediaStorageServiceTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void identicalUploadsAreStoredOnce() throws Exception {
+    var storage = new MediaStorageService(dir.toString());
+    var bytes = "%PDF-1.4 barem olimpiada".getBytes(StandardCharsets.UTF_8);
+
+    var first = storage.stage(new ByteArrayInputStream(bytes));
+    var second = storage.stage(new ByteArrayInputStream(bytes));
+    storage.place(first);
+    storage.place(second);
+
+    assertThat(first.sha256()).isEqualTo(second.sha256()).hasSize(64);
+    assertThat(first.size()).isEqualTo(bytes.length);
+    assertThat(Files.exists(second.file())).isFalse();
+    var stored = storage.locate(MediaStorageService.blobDescriptor(UUID.randomUUID(), first.sha256()));
+    assertThat(stored).isNotNull();
+    assertThat(Files.readAllBytes(stored)).isEqualTo(bytes);
+    try (var blobs = Files.walk(dir.resolve("blobs"))) {
+      assertThat(blobs.filter(Files::isRegularFile).count()).isEqualTo(1);
+    }
+
+    storage.deleteBlob(first.sha256());
+    assertThat(storage.locate(MediaStorageService.blobDescriptor(UUID.randomUUID(), first.sha256()))).isNull();
+  }
+
+  @Test
+  void stagingStopsOnceTheLimitIsCrossed() throws Exception {
+    var storage = new MediaStorageService(dir.toString());
+    var body = new ByteArrayInputStream(new byte[200 * 1024]);
+
+    assertThatThrownBy(() -> storage.stage(body, 100 * 1024)).isInstanceOf(MediaTooLargeException.class);
+
+    assertThat(body.available()).isGreaterThan(0);
+    try (var staging = Files.list(dir.resolve(".staging"))) {
+      assertThat(staging.count()).isZero();
+    }
+  }
+
+  @Test
+  void chunkRewriteDropsAnUncommittedTailAndSealsTheWholeFile() throws Exception {
+    var storage = new MediaStorageService(dir.toString());
+    var upload = UUID.randomUUID();
+    var head = "%PDF-1.4 ".getBytes(StandardCharsets.UTF_8);
+    var tail = "revista de fizică".getBytes(StandardCharsets.UTF_8);
+
+    storage.writeChunk(upload, 0, storage.stage(new ByteArrayInputStream(head)));
+    storage.writeChunk(upload, head.length, storage.stage(new ByteArrayInputStream("interrupted chunk".getBytes(StandardCharsets.UTF_8))));
+    storage.writeChunk(upload, head.length, storage.stage(new ByteArrayInputStream(tail)));
+    var sealed = storage.sealPart(upload);
+
+    var whole = new byte[head.length + tail.length];
+    System.arraycopy(head, 0, whole, 0, head.length);
+    System.arraycopy(tail, 0, whole, head.length, tail.length);
+    assertThat(sealed.size()).isEqualTo(whole.length);
+    assertThat(sealed.sha256()).isEqualTo(storage.stage(new ByteArrayInputStream(whole)).sha256());
+    assertThat(Files.readAllBytes(sealed.file())).isEqualTo(whole);
+  }
+}
@@ -0,0 +1,51 @@
+package md.fizicamd.app.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventFedIndexTest {
+
+  private final EventFedIndex feed = new EventFedIndex();
+  private final List<ResourceChangedEvent> applied = new ArrayList<>();
+
+  @Test
+  void eventsCommittedDuringTheLoadAreReplayedAfterItsResult() {
+    var during = event();
+    var replayed = new ArrayList<ResourceChangedEvent>();
+
+    feed.load(() -> {
+      feed.onChange(during, applied::add);
+      return List.of();
+    }, (published, missed) -> replayed.addAll(missed));
+
+    assertThat(applied).isEmpty();
+    assertThat(replayed).containsExactly(during);
+
+    var after = event();
+    feed.onChange(after, applied::add);
+    assertThat(applied).containsExactly(after);
+  }
+
+  @Test
+  void aFailedLoadStopsQueueing() {
+    assertThatThrownBy(() -> feed.load(() -> {
+      feed.onChange(event(), applied::add);
+      throw new IllegalStateException("db down");
+    }, (published, missed) -> {})).isInstanceOf(IllegalStateException.class);
+
+    var after = event();
+    feed.onChange(after, applied::add);
+    assertThat(applied).containsExactly(after);
+  }
+
+  private static ResourceChangedEvent event() {
+    return new ResourceChangedEvent(UUID.randomUUID(), null, null, Instant.now());
+  }
+}
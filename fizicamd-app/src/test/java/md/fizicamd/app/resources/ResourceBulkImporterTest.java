@@ -0,0 +1,108 @@
+package md.fizicamd.app.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceBulkImporterTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @Mock
+  private ResourceCategoryRepository categoryRepository;
+
+  @Mock
+  private ResourceCategoryCounts categoryCounts;
+
+  @Mock
+  private ApplicationEventPublisher events;
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void importsValidLinesWithBatchAllocatedSlugsAndReportsBadOnes() {
+    var category = mock(ResourceCategory.class);
+    when(category.getCode()).thenReturn("metodica");
+    when(categoryRepository.findAllByOrderByGroupOrderAscSortOrderAsc()).thenReturn(List.of(category));
+    when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+    when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of("optica", "optica-2"));
+    var importer = new ResourceBulkImporter(jdbcTemplate, transactionTemplate, new ResourceCategoryCatalog(categoryRepository),
+      categoryCounts, events, new ObjectMapper().findAndRegisterModules());
+
+    var ndjson = String.join("\n",
+      "{\"categoryCode\":\"metodica\",\"title\":\"Optică\",\"summary\":\"S\",\"tags\":[\"a\",\" a \"]}",
+      "",
+      "{\"categoryCode\":\"lipsa\",\"title\":\"X\",\"summary\":\"S\"}",
+      "{not json",
+      "{\"categoryCode\":\"metodica\",\"title\":\"Optica\",\"summary\":\"S\",\"blocks\":[{\"type\":\"FORMULA\",\"text\":\" \"}]}",
+      "{\"categoryCode\":\"metodica\",\"title\":\"Optica\",\"summary\":\"S\",\"status\":\"DRAFT\"}"
+    );
+    var report = importer.importNdjson(UUID.randomUUID(), new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(report.imported()).isEqualTo(2);
+    assertThat(report.failed()).isEqualTo(3);
+    assertThat(report.errors()).extracting(ResourceBulkImporter.ImportError::line).containsExactlyInAnyOrder(3L, 4L, 5L);
+
+    var batch = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate, times(1)).batchUpdate(anyString(), batch.capture());
+    var rows = (List<Object[]>) batch.getValue();
+    assertThat(rows).extracting(row -> row[4]).containsExactly("optica-3", "optica-4");
+    assertThat(rows.get(0)[8]).isEqualTo("[\"a\"]");
+    verify(categoryCounts).addPublished(eq("metodica"), eq(1L));
+    verify(events, times(2)).publishEvent(any(ResourceChangedEvent.class));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void archiveImportedAfterASyncIsNewerThanTheClientsToken() {
+    var category = mock(ResourceCategory.class);
+    when(category.getCode()).thenReturn("revista-ftm");
+    when(categoryRepository.findAllByOrderByGroupOrderAscSortOrderAsc()).thenReturn(List.of(category));
+    when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+    var importer = new ResourceBulkImporter(jdbcTemplate, transactionTemplate, new ResourceCategoryCatalog(categoryRepository),
+      categoryCounts, events, new ObjectMapper().findAndRegisterModules());
+    var token = new ResourceCursor(Instant.now(), UUID.randomUUID());
+
+    var ndjson = "{\"categoryCode\":\"revista-ftm\",\"title\":\"Legea lui Ohm\",\"summary\":\"S\","
+      + "\"publishedAt\":\"2015-09-01T08:00:00Z\"}";
+    importer.importNdjson(UUID.randomUUID(), new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+    var batch = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+    var row = ((List<Object[]>) batch.getValue()).get(0);
+    assertThat(row[10]).isEqualTo(Timestamp.from(Instant.parse("2015-09-01T08:00:00Z")));
+    assertThat(((Timestamp) row[12]).toInstant()).isAfterOrEqualTo(token.timestamp());
+    var event = ArgumentCaptor.forClass(ResourceChangedEvent.class);
+    verify(events).publishEvent(event.capture());
+    assertThat(event.getValue().current().updatedAt()).isAfterOrEqualTo(token.timestamp());
+  }
+}
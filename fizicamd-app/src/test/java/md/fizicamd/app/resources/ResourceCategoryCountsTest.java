@@ -0,0 +1,62 @@
+package md.fizicamd.app.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceCategoryCountsTest {
+
+  @Mock
+  private ResourceCategoryCountRepository countRepository;
+
+  @Test
+  void movesPublishedCountBetweenCategories() {
+    var counts = new ResourceCategoryCounts(countRepository);
+    var id = UUID.randomUUID();
+
+    counts.apply(card(id, "optica", ResourceStatus.PUBLISHED), card(id, "mecanica", ResourceStatus.PUBLISHED));
+
+    verify(countRepository).adjust("optica", -1);
+    verify(countRepository).adjust("mecanica", 1);
+    verifyNoMoreInteractions(countRepository);
+  }
+
+  @Test
+  void ignoresDraftsAndUnchangedPublishedCategory() {
+    var counts = new ResourceCategoryCounts(countRepository);
+    var id = UUID.randomUUID();
+
+    counts.apply(null, card(id, "optica", ResourceStatus.DRAFT));
+    counts.apply(card(id, "optica", ResourceStatus.PUBLISHED), card(id, "optica", ResourceStatus.PUBLISHED));
+
+    verifyNoInteractions(countRepository);
+  }
+
+  @Test
+  void unpublishingOrDeletingDecrements() {
+    var counts = new ResourceCategoryCounts(countRepository);
+    var id = UUID.randomUUID();
+
+    counts.apply(card(id, "optica", ResourceStatus.PUBLISHED), card(id, "optica", ResourceStatus.DRAFT));
+    counts.apply(card(id, "mecanica", ResourceStatus.PUBLISHED), null);
+
+    verify(countRepository).adjust("optica", -1);
+    verify(countRepository).adjust("mecanica", -1);
+  }
+
+  private static ResourceCard card(UUID id, String category, ResourceStatus status) {
+    var now = Instant.now();
+    return new ResourceCard(id, category, UUID.randomUUID(), "Titlu", "titlu", "Sumar", null, List.of(),
+      status, now, now, now);
+  }
+}
@@ -0,0 +1,65 @@
+package md.fizicamd.app.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceChangeLogTest {
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  void readsOnlyFinishedTransactionsAndResumesAfterTheLastOne() throws Exception {
+    var changeLog = new ResourceChangeLog(jdbcTemplate, Duration.ofDays(90));
+    var since = new ResourceChangeToken(700, UUID.randomUUID(), Instant.now().minusSeconds(3600));
+    var id = UUID.randomUUID();
+    var changedAt = Instant.now().minusSeconds(60);
+    var rs = mock(ResultSet.class);
+    when(rs.getObject("id", UUID.class)).thenReturn(id);
+    when(rs.getLong("change_xid")).thenReturn(812L);
+    when(rs.getTimestamp("changed_at")).thenReturn(Timestamp.from(changedAt));
+    when(rs.getString("kind")).thenReturn("U");
+    doAnswer(invocation -> {
+      invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+      return null;
+    }).when(jdbcTemplate).query(contains("pg_snapshot_xmin(pg_current_snapshot())"), any(RowCallbackHandler.class),
+      eq(700L), eq(since.id()), eq(51), eq(700L), eq(since.id()), eq(51), eq(51));
+
+    var batch = changeLog.changesSince(since, 50);
+
+    assertThat(batch.changes()).containsExactly(new ResourceChangeLog.Change(id, changedAt, true));
+    assertThat(batch.next()).isEqualTo(new ResourceChangeToken(812, id, changedAt));
+    assertThat(batch.hasMore()).isFalse();
+  }
+
+  @Test
+  void tokensFromBeforeTransactionOrderingStartOver() {
+    var changeLog = new ResourceChangeLog(jdbcTemplate, Duration.ofDays(90));
+    var legacy = Base64.getUrlEncoder().withoutPadding()
+      .encodeToString(("1767225600:0:" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+    assertThat(changeLog.isExpired(ResourceChangeToken.decode(legacy))).isTrue();
+    assertThat(changeLog.isExpired(ResourceChangeToken.decode(ResourceChangeLog.origin().encode()))).isFalse();
+  }
+}
@@ -0,0 +1,65 @@
+package md.fizicamd.app.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResourceContentDeltaTest {
+
+  @Test
+  void storesOnlyTheChangedBlocks() {
+    var base = List.of(text("a"), text("b"), text("c"), text("d"));
+    var target = List.of(text("a"), text("B"), text("c"), text("d"), text("e"));
+
+    var delta = ResourceContentDelta.diff(base, target);
+
+    assertThat(ResourceContentDelta.storedBlocks(delta)).isEqualTo(2);
+    assertThat(ResourceContentDelta.apply(base, delta)).isEqualTo(target);
+  }
+
+  @Test
+  void unchangedContentHasEmptyDelta() {
+    var base = List.of(text("a"), text("b"));
+
+    assertThat(ResourceContentDelta.diff(base, base)).isEmpty();
+  }
+
+  @Test
+  void randomEditsRoundTrip() {
+    var random = new Random(42);
+    var current = new ArrayList<ResourceContentBlock>();
+    for (int i = 0; i < 30; i++) {
+      current.add(text("p" + i));
+    }
+    for (int round = 0; round < 200; round++) {
+      var next = new ArrayList<>(current);
+      for (int edit = random.nextInt(4); edit >= 0; edit--) {
+        var at = next.isEmpty() ? 0 : random.nextInt(next.size());
+        switch (random.nextInt(3)) {
+          case 0 -> next.add(at, text("n" + round + "-" + edit));
+          case 1 -> { if (!next.isEmpty()) next.remove(at); }
+          default -> { if (!next.isEmpty()) next.set(at, text("m" + round + "-" + edit)); }
+        }
+      }
+      assertThat(ResourceContentDelta.apply(current, ResourceContentDelta.diff(current, next))).isEqualTo(next);
+      current = next;
+    }
+  }
+
+  @Test
+  void rejectsDeltaForAnotherBase() {
+    var delta = List.of(new ResourceBlockEdit(3, 1, null));
+
+    assertThatThrownBy(() -> ResourceContentDelta.apply(List.of(text("a")), delta))
+      .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static ResourceContentBlock text(String text) {
+    return new ResourceContentBlock(ResourceBlockType.TEXT, text, null, null, null, null);
+  }
+}
@@ -0,0 +1,112 @@
+package md.fizicamd.app.resources;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceRevisionsTest {
+  private static final UUID EDITOR = UUID.randomUUID();
+
+  @Mock
+  private ResourceRevisionRepository revisionRepository;
+
+  @Test
+  void writesASnapshotOnceTheIntervalIsReached() {
+    var revisions = new ResourceRevisions(revisionRepository, 3);
+    var entry = entry(List.of(text("a"), text("b"), text("c"), text("d")));
+    var previous = ResourceRevision.delta(entry, 3, 1, List.of(), EDITOR, Instant.now());
+    var before = entry.getContent();
+    entry.setContent(List.of(text("a"), text("B"), text("c"), text("d")));
+
+    revisions.recordUpdated(previous, before, entry, EDITOR);
+
+    var saved = saved();
+    assertThat(saved.getRevision()).isEqualTo(4);
+    assertThat(saved.isSnapshot()).isTrue();
+    assertThat(saved.getContent()).isEqualTo(entry.getContent());
+  }
+
+  @Test
+  void storesADeltaBelowTheSnapshotInterval() {
+    var revisions = new ResourceRevisions(revisionRepository, 3);
+    var entry = entry(List.of(text("a"), text("b"), text("c"), text("d")));
+    var previous = ResourceRevision.delta(entry, 2, 1, List.of(), EDITOR, Instant.now());
+    var before = entry.getContent();
+    entry.setContent(List.of(text("a"), text("B"), text("c"), text("d")));
+
+    revisions.recordUpdated(previous, before, entry, EDITOR);
+
+    var saved = saved();
+    assertThat(saved.getRevision()).isEqualTo(3);
+    assertThat(saved.getBaseRevision()).isEqualTo(1);
+    assertThat(ResourceContentDelta.apply(before, saved.getDelta())).isEqualTo(entry.getContent());
+  }
+
+  @Test
+  void fallsBackToASnapshotWhenTheDeltaIsNotSmaller() {
+    var revisions = new ResourceRevisions(revisionRepository, 10);
+    var entry = entry(List.of(text("a"), text("b")));
+    var previous = ResourceRevision.snapshot(entry, 1, EDITOR, Instant.now());
+    var before = entry.getContent();
+    entry.setContent(List.of(text("c"), text("d")));
+
+    revisions.recordUpdated(previous, before, entry, EDITOR);
+
+    var saved = saved();
+    assertThat(saved.getRevision()).isEqualTo(2);
+    assertThat(saved.isSnapshot()).isTrue();
+    assertThat(saved.getContent()).isEqualTo(entry.getContent());
+  }
+
+  @Test
+  void backfillsTheFirstRevisionOfResourcesWithoutHistory() {
+    var revisions = new ResourceRevisions(revisionRepository, 10);
+    var entry = entry(List.of(text("a")));
+    when(revisionRepository.findTopByResourceIdOrderByRevisionDesc(entry.getId())).thenReturn(Optional.empty());
+    when(revisionRepository.save(any(ResourceRevision.class))).thenAnswer(call -> call.getArgument(0));
+
+    var latest = revisions.latest(entry);
+
+    assertThat(latest.getRevision()).isEqualTo(1);
+    assertThat(latest.isSnapshot()).isTrue();
+    assertThat(latest.getEditedBy()).isEqualTo(entry.getAuthorId());
+    assertThat(latest.getContent()).isEqualTo(entry.getContent());
+    assertThat(saved()).isSameAs(latest);
+  }
+
+  private ResourceRevision saved() {
+    var captor = ArgumentCaptor.forClass(ResourceRevision.class);
+    verify(revisionRepository).save(captor.capture());
+    return captor.getValue();
+  }
+
+  private static ResourceEntry entry(List<ResourceContentBlock> content) {
+    var entry = new ResourceEntry();
+    entry.setId(UUID.randomUUID());
+    entry.setAuthorId(UUID.randomUUID());
+    entry.setCategoryCode("mecanica");
+    entry.setTitle("Legile lui Newton");
+    entry.setSummary("Rezumat");
+    entry.setTags(List.of());
+    entry.setStatus(ResourceStatus.PUBLISHED);
+    entry.setContent(content);
+    return entry;
+  }
+
+  private static ResourceContentBlock text(String text) {
+    return new ResourceContentBlock(ResourceBlockType.TEXT, text, null, null, null, null);
+  }
+}
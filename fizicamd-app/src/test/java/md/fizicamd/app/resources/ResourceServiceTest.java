@@ -1,17 +1,20 @@
 package md.fizicamd.app.resources;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import md.fizicamd.identity.application.UserProfileRepository;
 import md.fizicamd.identity.application.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
@@ -33,7 +36,19 @@ class ResourceServiceTest {
   private UserProfileRepository profileRepository;
 
   @Mock
-  private ObjectMapper objectMapper;
+  private ResourceCategoryCatalog categoryCatalog;
+
+  @Mock
+  private ApplicationEventPublisher events;
+
+  @Mock
+  private AuthorNameCache authorNames;
+
+  @Mock
+  private ResourceCategoryCounts categoryCounts;
+
+  @Mock
+  private ResourceRevisions revisions;
 
   @Test
   void listPublishedPageUsesCategoryFilter() {
@@ -42,17 +57,24 @@ class ResourceServiceTest {
       entryRepository,
       userRepository,
       profileRepository,
-      objectMapper
+      categoryCatalog,
+      events,
+      authorNames,
+      categoryCounts,
+      revisions,
+      new SimpleMeterRegistry()
     );
 
-    Page<ResourceEntry> page = new PageImpl<>(List.of(), PageRequest.of(0, 5), 0);
-    when(entryRepository.findByCategoryCodeAndStatusOrderByPublishedAtDesc("cat", ResourceStatus.PUBLISHED, PageRequest.of(0, 5)))
-      .thenReturn(page);
+    var card = publishedCard(UUID.randomUUID(), Instant.now());
+    when(entryRepository.findPublishedInCategoryFirstPage("cat", ResourceStatus.PUBLISHED, PageRequest.of(0, 5)))
+      .thenReturn(List.of(card));
+    when(categoryCounts.published("cat")).thenReturn(7L);
 
     var result = service.listPublishedPage("cat", 0, 5);
 
-    assertThat(result).isSameAs(page);
-    verify(entryRepository).findByCategoryCodeAndStatusOrderByPublishedAtDesc("cat", ResourceStatus.PUBLISHED, PageRequest.of(0, 5));
+    assertThat(result.getContent()).containsExactly(card);
+    assertThat(result.getTotalElements()).isEqualTo(7);
+    verify(entryRepository).findPublishedInCategoryFirstPage("cat", ResourceStatus.PUBLISHED, PageRequest.of(0, 5));
   }
 
   @Test
@@ -62,16 +84,89 @@ class ResourceServiceTest {
       entryRepository,
       userRepository,
       profileRepository,
-      objectMapper
+      categoryCatalog,
+      events,
+      authorNames,
+      categoryCounts,
+      revisions,
+      new SimpleMeterRegistry()
     );
 
-    Page<ResourceEntry> page = new PageImpl<>(List.of(), PageRequest.of(1, 10), 0);
-    when(entryRepository.findByStatusOrderByPublishedAtDesc(ResourceStatus.PUBLISHED, PageRequest.of(1, 10)))
-      .thenReturn(page);
+    when(entryRepository.findPublishedFirstPage(ResourceStatus.PUBLISHED, PageRequest.of(1, 10)))
+      .thenReturn(List.of());
+    when(categoryCounts.published("  ")).thenReturn(0L);
 
     var result = service.listPublishedPage("  ", 1, 10);
 
-    assertThat(result).isSameAs(page);
-    verify(entryRepository).findByStatusOrderByPublishedAtDesc(ResourceStatus.PUBLISHED, PageRequest.of(1, 10));
+    assertThat(result.getContent()).isEmpty();
+    assertThat(result.getTotalElements()).isZero();
+    verify(entryRepository).findPublishedFirstPage(ResourceStatus.PUBLISHED, PageRequest.of(1, 10));
+  }
+
+  @Test
+  void listPublishedAfterReturnsCursorOfLastRowWhenMoreRowsExist() {
+    var service = new ResourceService(
+      categoryRepository,
+      entryRepository,
+      userRepository,
+      profileRepository,
+      categoryCatalog,
+      events,
+      authorNames,
+      categoryCounts,
+      revisions,
+      new SimpleMeterRegistry()
+    );
+
+    var publishedAt = Instant.parse("2024-05-01T10:15:30.123456Z");
+    var secondId = UUID.randomUUID();
+    var first = publishedCard(UUID.randomUUID(), publishedAt.plusSeconds(60));
+    var second = publishedCard(secondId, publishedAt);
+    var third = publishedCard(UUID.randomUUID(), publishedAt.minusSeconds(60));
+    var cursor = new ResourceCursor(Instant.parse("2024-06-01T00:00:00Z"), UUID.randomUUID());
+    when(entryRepository.findPublishedAfter(ResourceStatus.PUBLISHED, cursor.timestamp(), cursor.id(), PageRequest.of(0, 3)))
+      .thenReturn(List.of(first, second, third));
+
+    var result = service.listPublishedAfter(null, cursor.encode(), 2);
+
+    assertThat(result.items()).containsExactly(first, second);
+    assertThat(ResourceCursor.decode(result.nextCursor())).isEqualTo(new ResourceCursor(publishedAt, secondId));
+  }
+
+  @Test
+  void toPrefixTsQueryKeepsOnlyWordCharactersAndMatchesPrefixes() {
+    assertThat(ResourceService.toPrefixTsQuery("  Știință & fizică:* | !mecanică ")).isEqualTo("știință:* & fizică:* & mecanică:*");
+    assertThat(ResourceService.toPrefixTsQuery("'):*")).isEmpty();
+  }
+
+  @Test
+  void forEachDashboardBatchSplitsStreamedRowsIntoBatches() {
+    var service = new ResourceService(
+      categoryRepository,
+      entryRepository,
+      userRepository,
+      profileRepository,
+      categoryCatalog,
+      events,
+      authorNames,
+      categoryCounts,
+      revisions,
+      new SimpleMeterRegistry()
+    );
+    var filter = ResourceDashboardFilter.of(UUID.randomUUID(), true, null, " ", null);
+    var rows = Stream.generate(() -> publishedCard(UUID.randomUUID(), Instant.now())).limit(5).toList();
+    when(entryRepository.streamDashboard(filter)).thenReturn(rows.stream());
+
+    var batches = new ArrayList<List<ResourceCard>>();
+    service.forEachDashboardBatch(filter, 2, batches::add);
+
+    assertThat(filter.authorId()).isNull();
+    assertThat(filter.categoryCode()).isNull();
+    assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+  }
+
+  private static ResourceCard publishedCard(UUID id, Instant publishedAt) {
+    return new ResourceCard(id, "cat", UUID.randomUUID(), "Titlu", "titlu", "Sumar", null, List.of(),
+      ResourceStatus.PUBLISHED, publishedAt, publishedAt, publishedAt);
   }
 }
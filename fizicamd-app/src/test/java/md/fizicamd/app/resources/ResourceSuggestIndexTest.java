@@ -0,0 +1,72 @@
+package md.fizicamd.app.resources;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceSuggestIndexTest {
+
+  @Mock
+  private ResourceEntryRepository entryRepository;
+
+  @Mock
+  private ResourceCategoryRepository categoryRepository;
+
+  private ResourceSuggestIndex index;
+  private ResourceCard sciences;
+
+  @BeforeEach
+  void setUp() {
+    sciences = card("Științe ale naturii", List.of("experimente"), ResourceStatus.PUBLISHED);
+    when(entryRepository.findPublishedFirstPage(eq(ResourceStatus.PUBLISHED), any())).thenReturn(List.of(sciences));
+    index = new ResourceSuggestIndex(entryRepository, new ResourceCategoryCatalog(categoryRepository), new SimpleMeterRegistry());
+    index.load();
+  }
+
+  @Test
+  void matchesFoldedPrefixesAndSmallTypos() {
+    assertThat(index.suggest("stiinte", 5)).extracting(ResourceSuggestIndex.Suggestion::id).containsExactly(sciences.id());
+    assertThat(index.suggest("stinte nat", 5)).extracting(ResourceSuggestIndex.Suggestion::id).containsExactly(sciences.id());
+    assertThat(index.suggest("exper", 5)).hasSize(1);
+    assertThat(index.suggest("chimie", 5)).isEmpty();
+  }
+
+  @Test
+  void appliesChangesIncrementally() {
+    var optics = card("Optica geometrica", List.of(), ResourceStatus.PUBLISHED);
+    index.onResourceChanged(new ResourceChangedEvent(optics.id(), null, optics, Instant.now()));
+    assertThat(index.suggest("opt", 5)).extracting(ResourceSuggestIndex.Suggestion::id).containsExactly(optics.id());
+
+    var draft = card(optics.id(), "Optica geometrica", List.of(), ResourceStatus.DRAFT);
+    index.onResourceChanged(new ResourceChangedEvent(optics.id(), optics, draft, Instant.now()));
+    assertThat(index.suggest("opt", 5)).isEmpty();
+
+    index.onResourceChanged(new ResourceChangedEvent(sciences.id(), sciences, null, Instant.now()));
+    assertThat(index.suggest("stiinte", 5)).isEmpty();
+    assertThat(index.stats().documents()).isZero();
+    assertThat(index.stats().terms()).isZero();
+  }
+
+  private static ResourceCard card(String title, List<String> tags, ResourceStatus status) {
+    return card(UUID.randomUUID(), title, tags, status);
+  }
+
+  private static ResourceCard card(UUID id, String title, List<String> tags, ResourceStatus status) {
+    var now = Instant.now();
+    return new ResourceCard(id, "cat", UUID.randomUUID(), title, TextFolding.slugify(title), "Sumar", null, tags,
+      status, now, now, now);
+  }
+}
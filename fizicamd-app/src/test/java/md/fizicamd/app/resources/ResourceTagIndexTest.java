@@ -0,0 +1,67 @@
+package md.fizicamd.app.resources;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceTagIndexTest {
+
+  @Mock
+  private ResourceEntryRepository entryRepository;
+
+  private ResourceTagIndex index;
+  private ResourceCard optics;
+  private ResourceCard lenses;
+  private ResourceCard mechanics;
+
+  @BeforeEach
+  void setUp() {
+    var now = Instant.now();
+    optics = card("optica", List.of("Optică", "clasa 9", "BAC"), now);
+    lenses = card("lentile", List.of("optica", "clasa 9"), now.minusSeconds(60));
+    mechanics = card("mecanica", List.of("mecanică", "BAC"), now.minusSeconds(120));
+    when(entryRepository.findPublishedFirstPage(eq(ResourceStatus.PUBLISHED), any()))
+      .thenReturn(List.of(optics, lenses, mechanics));
+    index = new ResourceTagIndex(entryRepository);
+    index.load();
+  }
+
+  @Test
+  void filtersByFoldedTagsWithAndOr() {
+    var all = index.findByTags(List.of("OPTICA", "clasa 9"), true, 0, 10);
+    assertThat(all.items()).containsExactly(optics, lenses);
+
+    var any = index.findByTags(List.of("bac", "Optica"), false, 0, 2);
+    assertThat(any.total()).isEqualTo(3);
+    assertThat(any.items()).containsExactly(optics, lenses);
+  }
+
+  @Test
+  void ranksRelatedByTagOverlapAndFollowsUpdates() {
+    assertThat(index.related("optica", 5)).hasValue(List.of(lenses, mechanics));
+
+    var draft = new ResourceCard(lenses.id(), "cat", lenses.authorId(), "Lentile", "lentile", "Sumar", null,
+      lenses.tags(), ResourceStatus.DRAFT, null, lenses.createdAt(), Instant.now());
+    index.onResourceChanged(new ResourceChangedEvent(lenses.id(), lenses, draft, Instant.now()));
+
+    assertThat(index.related("optica", 5)).hasValue(List.of(mechanics));
+    assertThat(index.related("lentile", 5)).isEmpty();
+  }
+
+  private static ResourceCard card(String slug, List<String> tags, Instant publishedAt) {
+    return new ResourceCard(UUID.randomUUID(), "cat", UUID.randomUUID(), slug, slug, "Sumar", null, tags,
+      ResourceStatus.PUBLISHED, publishedAt, publishedAt, publishedAt);
+  }
+}
@@ -0,0 +1,160 @@
+package md.fizicamd.app.resources;
+
+import md.fizicamd.app.media.MediaService;
+import md.fizicamd.app.resources.ResourceBulkImporter.BatchResult;
+import md.fizicamd.app.resources.ResourceBulkImporter.ImportItem;
+import md.fizicamd.app.resources.ResourceBulkImporter.ImportedResource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WxrImportServiceTest {
+  private static final UUID ADMIN = UUID.randomUUID();
+
+  @Mock
+  private WxrImportRepository importRepository;
+
+  @Mock
+  private ResourceService resourceService;
+
+  @Mock
+  private ResourceBulkImporter bulkImporter;
+
+  @Mock
+  private MediaService mediaService;
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @TempDir
+  private Path importDir;
+
+  // What resource_wxr_posts holds across runs.
+  private final Set<Long> importedPosts = new HashSet<>();
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void draftTitledLikeAnEarlierPostIsImportedAndReRunsOnlySkipDuplicates() throws Exception {
+    var posts = new StringBuilder();
+    posts.append(item(1, "legea-lui-ohm", "Legea lui Ohm", "publish"));
+    for (int id = 2; id <= WxrImportService.CHUNK_SIZE; id++) {
+      posts.append(item(id, "articol-" + id, "Articol " + id, "publish"));
+    }
+    // Second chunk: a draft without post_name, so its slug base comes from the same title.
+    posts.append(item(WxrImportService.CHUNK_SIZE + 1, "", "Legea lui Ohm", "draft"));
+    posts.append("<item><title>Poza</title><wp:post_id>500</wp:post_id><wp:status>inherit</wp:status>"
+      + "<wp:post_type>attachment</wp:post_type></item>");
+    Files.writeString(importDir.resolve("export.xml"), export(posts.toString()));
+    stubDatabase();
+    var service = new WxrImportService(importRepository, resourceService, bulkImporter, mediaService,
+      jdbcTemplate, transactionTemplate, importDir.toString(), importDir.resolve("uploads").toString());
+
+    var first = job();
+    service.run(first.getId());
+
+    assertThat(first.getStatus()).isEqualTo(WxrImportStatus.COMPLETED);
+    assertThat(first.getImportedCount()).isEqualTo(WxrImportService.CHUNK_SIZE + 1);
+    assertThat(first.getDuplicateCount()).isZero();
+    assertThat(first.getSkippedCount()).isEqualTo(1);
+    var batches = ArgumentCaptor.forClass(List.class);
+    verify(bulkImporter, times(2)).importBatch(eq(ADMIN), batches.capture(), any());
+    var secondChunk = (List<ImportItem>) batches.getAllValues().get(1);
+    assertThat(secondChunk).singleElement()
+      .satisfies(item -> assertThat(item.data().status()).isEqualTo(ResourceStatus.DRAFT));
+
+    var rerun = job();
+    service.run(rerun.getId());
+
+    assertThat(rerun.getImportedCount()).isZero();
+    assertThat(rerun.getDuplicateCount()).isEqualTo(WxrImportService.CHUNK_SIZE + 1);
+    assertThat(rerun.getSkippedCount()).isEqualTo(1);
+    verify(bulkImporter, times(2)).importBatch(eq(ADMIN), anyList(), any());
+  }
+
+  @SuppressWarnings("unchecked")
+  private void stubDatabase() {
+    when(resourceService.categoryCatalog()).thenReturn(ResourceCategoryCatalog.Snapshot.of(1, List.of(
+      new ResourceCategoryView(UUID.randomUUID(), "revista-ftm", "Revista FTM", "Reviste", 1, 1))));
+    when(importRepository.save(any(WxrImport.class))).thenAnswer(call -> call.getArgument(0));
+    when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+      .thenAnswer(call -> List.copyOf(importedPosts));
+    when(jdbcTemplate.batchUpdate(eq("INSERT INTO resource_wxr_posts (post_id, resource_id) VALUES (?, ?)"), anyList()))
+      .thenAnswer(call -> {
+        List<Object[]> rows = call.getArgument(1);
+        rows.forEach(row -> assertThat(importedPosts.add((Long) row[0])).isTrue());
+        return new int[rows.size()];
+      });
+    when(bulkImporter.importBatch(eq(ADMIN), anyList(), any())).thenAnswer(call -> {
+      List<ImportItem> items = call.getArgument(1);
+      Consumer<List<ImportedResource>> recordCreated = call.getArgument(2);
+      var created = new ArrayList<ImportedResource>();
+      items.forEach(item -> created.add(new ImportedResource(item.line(), UUID.randomUUID(), item.data().slug())));
+      recordCreated.accept(created);
+      return new BatchResult(created, List.of());
+    });
+  }
+
+  private WxrImport job() {
+    var job = new WxrImport(UUID.randomUUID(), "export.xml", ADMIN, Instant.now());
+    when(importRepository.findById(job.getId())).thenReturn(Optional.of(job));
+    return job;
+  }
+
+  private static String item(long postId, String postName, String title, String status) {
+    return """
+      <item>
+        <title>%s</title>
+        <content:encoded><![CDATA[<p>Text</p>]]></content:encoded>
+        <wp:post_id>%d</wp:post_id>
+        <wp:post_name>%s</wp:post_name>
+        <wp:status>%s</wp:status>
+        <wp:post_type>post</wp:post_type>
+        <category domain="category" nicename="revista-ftm"><![CDATA[Revista FTM]]></category>
+      </item>
+      """.formatted(title, postId, postName, status);
+  }
+
+  private static String export(String items) {
+    return """
+      <?xml version="1.0" encoding="UTF-8"?>
+      <rss version="2.0"
+        xmlns:excerpt="http://wordpress.org/export/1.2/excerpt/"
+        xmlns:content="http://purl.org/rss/1.0/modules/content/"
+        xmlns:wp="http://wordpress.org/export/1.2/">
+      <channel>
+      %s
+      </channel>
+      </rss>
+      """.formatted(items);
+  }
+}
@@ -0,0 +1,63 @@
+package md.fizicamd.app.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WxrPostMapperTest {
+  private final UUID pdfId = UUID.randomUUID();
+  private final UUID imageId = UUID.randomUUID();
+
+  private final WxrPostMapper.AssetResolver assets = url -> {
+    if (url.endsWith("/uploads/2019/05/test.pdf")) {
+      return pdfId;
+    }
+    if (url.endsWith("/uploads/2019/05/poza.jpg")) {
+      return imageId;
+    }
+    return null;
+  };
+
+  @Test
+  void splitsContentIntoTextLinkImageAndPdfBlocks() {
+    var html = """
+      <!-- wp:paragraph --><p>Problema &#8222;Galileo&#8221; &amp; soluții</p><!-- /wp:paragraph -->
+      [caption id="a1"]<a href="http://fizica.md/wp-content/uploads/2019/05/poza.jpg"><img src="http://fizica.md/wp-content/uploads/2019/05/poza-300x200.jpg" alt="Pendul" /></a>[/caption]
+      <p>Descarcă <a href="http://fizica.md/wp-content/uploads/2019/05/test.pdf">subiectele</a></p>
+      <p><a href="https://ro.wikipedia.org/wiki/Pendul">Wikipedia</a></p>
+      """;
+
+    var blocks = WxrPostMapper.toBlocks(html, assets);
+
+    assertThat(blocks).extracting(ResourceContentBlock::type).containsExactly(
+      ResourceBlockType.TEXT, ResourceBlockType.IMAGE, ResourceBlockType.TEXT, ResourceBlockType.PDF, ResourceBlockType.LINK);
+    assertThat(blocks.get(0).text()).isEqualTo("Problema „Galileo” & soluții");
+    assertThat(blocks.get(1).assetId()).isEqualTo(imageId);
+    assertThat(blocks.get(1).caption()).isEqualTo("Pendul");
+    assertThat(blocks.get(3).assetId()).isEqualTo(pdfId);
+    assertThat(blocks.get(3).title()).isEqualTo("subiectele");
+    assertThat(blocks.get(4).url()).isEqualTo("https://ro.wikipedia.org/wiki/Pendul");
+    assertThat(ResourceService.validateBlocks(blocks)).hasSize(5);
+  }
+
+  @Test
+  void mapsPostFieldsToAnImportLine() {
+    var item = new WxrReader.Item(
+      7, "42", "post", "publish", "Legea lui Ohm", "%d0%b7%d0%b0%d0%ba%d0%be%d0%bd-%d0%be%d0%bc%d0%b0", null,
+      "2019-05-01 10:00:00", "<p>Intensitatea curentului.</p>", "",
+      List.of(new WxrReader.Term("revista-ftm", "Revista FTM")), List.of("electricitate"));
+
+    var line = WxrPostMapper.toImportLine(item, assets);
+
+    assertThat(line.categoryCode()).isEqualTo("revista-ftm");
+    assertThat(line.slug()).isEqualTo("zakon-oma");
+    assertThat(line.summary()).isEqualTo("Intensitatea curentului.");
+    assertThat(line.status()).isEqualTo(ResourceStatus.PUBLISHED);
+    assertThat(line.publishedAt()).isEqualTo(Instant.parse("2019-05-01T10:00:00Z"));
+    assertThat(line.tags()).containsExactly("electricitate");
+  }
+}
@@ -0,0 +1,93 @@
+package md.fizicamd.app.resources;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WxrReaderTest {
+  private static final String EXPORT = """
+    <?xml version="1.0" encoding="UTF-8"?>
+    <rss version="2.0"
+      xmlns:excerpt="http://wordpress.org/export/1.2/excerpt/"
+      xmlns:content="http://purl.org/rss/1.0/modules/content/"
+      xmlns:dc="http://purl.org/dc/elements/1.1/"
+      xmlns:wp="http://wordpress.org/export/1.2/">
+    <channel>
+      <title>fizica.md</title>
+      <wp:category>
+        <wp:term_id>3</wp:term_id>
+        <wp:category_nicename>%d0%b6%d1%83%d1%80%d0%bd%d0%b0%d0%bb-%d0%ba%d0%b2%d0%b0%d0%bd%d1%82</wp:category_nicename>
+        <wp:category_parent></wp:category_parent>
+        <wp:cat_name><![CDATA[Журнал Квант]]></wp:cat_name>
+      </wp:category>
+      <item>
+        <title>Primul articol</title>
+        <dc:creator><![CDATA[admin]]></dc:creator>
+        <content:encoded><![CDATA[<p>Salut <b>lume</b></p>]]></content:encoded>
+        <excerpt:encoded><![CDATA[Rezumat]]></excerpt:encoded>
+        <wp:post_id>10</wp:post_id>
+        <wp:post_date_gmt>2019-05-01 10:00:00</wp:post_date_gmt>
+        <wp:post_name>primul-articol</wp:post_name>
+        <wp:status>publish</wp:status>
+        <wp:post_type>post</wp:post_type>
+        <wp:postmeta><wp:meta_key>_edit_lock</wp:meta_key><wp:meta_value>1</wp:meta_value></wp:postmeta>
+        <category domain="category" nicename="revista-ftm"><![CDATA[Revista FTM]]></category>
+        <category domain="post_tag" nicename="optica"><![CDATA[Optică]]></category>
+      </item>
+      <item>
+        <title>Al doilea</title>
+        <wp:post_id>11</wp:post_id>
+        <wp:status>draft</wp:status>
+        <wp:post_type>post</wp:post_type>
+      </item>
+    </channel>
+    </rss>
+    """;
+
+  @Test
+  void readsCategoriesAndItemsInDocumentOrder() throws Exception {
+    var entries = readAll(0);
+
+    assertThat(entries).hasSize(3);
+    var category = (WxrReader.Category) entries.get(0);
+    assertThat(category.name()).isEqualTo("Журнал Квант");
+    assertThat(category.parentNicename()).isNull();
+    assertThat(WxrPostMapper.categoryCode(category.nicename())).isEqualTo("zhurnal-kvant");
+
+    var item = (WxrReader.Item) entries.get(1);
+    assertThat(item.position()).isEqualTo(1);
+    assertThat(item.postId()).isEqualTo("10");
+    assertThat(item.content()).isEqualTo("<p>Salut <b>lume</b></p>");
+    assertThat(item.excerpt()).isEqualTo("Rezumat");
+    assertThat(item.categories()).containsExactly(new WxrReader.Term("revista-ftm", "Revista FTM"));
+    assertThat(item.tags()).containsExactly("Optică");
+    assertThat(((WxrReader.Item) entries.get(2)).status()).isEqualTo("draft");
+  }
+
+  @Test
+  void skipsItemsBehindTheCheckpoint() throws Exception {
+    var entries = readAll(1);
+
+    assertThat(entries).hasSize(2);
+    assertThat(entries.get(1)).isInstanceOfSatisfying(WxrReader.Item.class, item -> {
+      assertThat(item.position()).isEqualTo(2);
+      assertThat(item.postId()).isEqualTo("11");
+    });
+  }
+
+  private static List<WxrReader.Entry> readAll(long skipItems) throws Exception {
+    var entries = new ArrayList<WxrReader.Entry>();
+    try (var reader = new WxrReader(new ByteArrayInputStream(EXPORT.strip().getBytes(StandardCharsets.UTF_8)), skipItems)) {
+      WxrReader.Entry entry;
+      while ((entry = reader.next()) != null) {
+        entries.add(entry);
+      }
+    }
+    return entries;
+  }
+}
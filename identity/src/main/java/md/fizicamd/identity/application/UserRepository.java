@@ -1,6 +1,8 @@
 package md.fizicamd.identity.application;
 
 import md.fizicamd.identity.domain.User;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +14,5 @@ public interface UserRepository {
   void deleteById(UUID id);
   boolean existsByEmail(String email);
   Optional<User> findWithRolesByEmail(String email);
+  List<User> findByIds(Collection<UUID> ids);
 }
@@ -93,6 +93,11 @@ public class MediaAsset {
   public Instant getExpiresAt() { return expiresAt; }
 
   public void setFilename(String filename) { this.filename = filename; }
+  public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+  public void setLocation(String bucket, String storageKey) {
+    this.bucket = bucket;
+    this.storageKey = storageKey;
+  }
   public void setDescription(String description) { this.description = description; }
   public void setSha256(String sha256) { this.sha256 = sha256; }
   public void setAccessPolicy(String accessPolicy) { this.accessPolicy = accessPolicy; }